@@ -1,3 +1,9 @@
+-- Esquema base, igual a eco-park/src/main/resources/db/migration/V1__esquema_inicial.sql.
+-- Um banco criado por este script é marcado na versão 1 pelo baseline-on-migrate
+-- do Flyway, que aplica na partida da aplicação as migrações seguintes (índices,
+-- restrições, registro de alterações, trava por médico). Por isso nada além do V1
+-- deve ser acrescentado aqui: um objeto já existente faz a migração que o cria
+-- falhar (ORA-00955). Alterações de esquema vão numa nova migração.
 
 CREATE TABLE usuario (
     id NUMBER PRIMARY KEY,
@@ -22,7 +28,7 @@ CREATE TABLE apoiador (
 
 CREATE TABLE paciente (
     id NUMBER PRIMARY KEY,
-    cartao_sus VARCHAR2(20),
+    numero_sus_ou_convenio VARCHAR2(20),
     telefone_contato VARCHAR2(15) NOT NULL,
     apoiador_id NUMBER,
     FOREIGN KEY (id) REFERENCES usuario(id),
@@ -40,6 +46,6 @@ CREATE TABLE teleconsulta (
     FOREIGN KEY (paciente_id) REFERENCES paciente(id)
 );
 
--- Sequences
-CREATE SEQUENCE seq_usuario START WITH 1 INCREMENT BY 1;
-CREATE SEQUENCE seq_teleconsulta START WITH 1 INCREMENT BY 1;
\ No newline at end of file
+-- INCREMENT BY 50: cada NEXTVAL reserva um bloco de 50 IDs para o AlocadorIds da aplicação
+CREATE SEQUENCE seq_usuario START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE seq_teleconsulta START WITH 1 INCREMENT BY 50;
\ No newline at end of file
@@ -1,11 +1,14 @@
 package br.com.challenge.application.service;
 
 import br.com.challenge.domain.model.Apoiador;
+import br.com.challenge.domain.model.ApoiadorResumo;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.service.ApoiadorService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class ApoiadorApplicationService {
@@ -13,10 +16,21 @@ public class ApoiadorApplicationService {
     @Inject
     ApoiadorService apoiadorService;
 
-    public List<Apoiador> listarTodos() {
+    @Inject
+    ChamadasCompartilhadas chamadasCompartilhadas;
+
+    public List<ApoiadorResumo> listarTodos() {
         return apoiadorService.listarTodos();
     }
 
+    public Pagina<ApoiadorResumo> listarPagina(String cursor, Integer limite) {
+        return apoiadorService.listarPagina(cursor, limite);
+    }
+
+    public void percorrerTodos(Consumer<Apoiador> consumidor) {
+        apoiadorService.percorrerTodos(consumidor);
+    }
+
     public Apoiador buscarPorId(Long id) {
         return apoiadorService.buscarPorId(id);
     }
@@ -37,7 +51,7 @@ public class ApoiadorApplicationService {
         apoiadorService.deletar(id);
     }
 
-    public List<Apoiador> buscarPorCargo(String cargo) {
+    public List<ApoiadorResumo> buscarPorCargo(String cargo) {
         return apoiadorService.buscarPorCargo(cargo);
     }
 
@@ -54,7 +68,7 @@ public class ApoiadorApplicationService {
     }
 
     public int contarTotalApoiadores() {
-        return apoiadorService.contarTotalApoiadores();
+        return chamadasCompartilhadas.executar("apoiadores:total", apoiadorService::contarTotalApoiadores);
     }
 
     public int contarPacientesVinculados(Long apoiadorId) {
@@ -0,0 +1,63 @@
+package br.com.challenge.application.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Junta chamadas idênticas e simultâneas numa só: enquanto a primeira chamada
+ * de uma chave está em andamento, as que chegam com a mesma chave esperam por
+ * ela e recebem o mesmo resultado (ou a mesma exceção). Nada fica guardado
+ * depois que a chamada termina; quem chega depois executa de novo. Serve às
+ * leituras muito repetidas (totais, consultas do dia, cargos), para que um pico
+ * de requisições iguais vire uma consulta no banco e não uma por requisição.
+ */
+@ApplicationScoped
+public class ChamadasCompartilhadas {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+
+    /**
+     * Executa {@code chamada} ou aguarda a execução em andamento da mesma
+     * chave. O resultado é o mesmo objeto para todos os participantes, então
+     * deve ser tratado como somente leitura.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executar(String chave, Supplier<T> chamada) {
+        CompletableFuture<Object> nova = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, nova);
+        if (existente != null) {
+            return (T) aguardar(existente);
+        }
+
+        try {
+            T resultado = chamada.get();
+            nova.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            nova.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, nova);
+        }
+    }
+
+    private static Object aguardar(CompletableFuture<Object> chamada) {
+        try {
+            return chamada.join();
+        } catch (CompletionException e) {
+            // Repassa a exceção original, para que os controllers a tratem como na chamada direta
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw e;
+        }
+    }
+}
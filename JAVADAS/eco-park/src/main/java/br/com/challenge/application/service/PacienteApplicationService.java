@@ -1,11 +1,14 @@
 package br.com.challenge.application.service;
 
 import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.PacienteResumo;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.service.PacienteService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class PacienteApplicationService {
@@ -13,10 +16,21 @@ public class PacienteApplicationService {
     @Inject
     PacienteService pacienteService;
 
-    public List<Paciente> listarTodos() {
+    @Inject
+    ChamadasCompartilhadas chamadasCompartilhadas;
+
+    public List<PacienteResumo> listarTodos() {
         return pacienteService.listarTodos();
     }
 
+    public Pagina<PacienteResumo> listarPagina(String cursor, Integer limite) {
+        return pacienteService.listarPagina(cursor, limite);
+    }
+
+    public void percorrerTodos(Consumer<Paciente> consumidor) {
+        pacienteService.percorrerTodos(consumidor);
+    }
+
     public Paciente buscarPorId(Long id) {
         return pacienteService.buscarPorId(id);
     }
@@ -37,7 +51,7 @@ public class PacienteApplicationService {
         pacienteService.deletar(id);
     }
 
-    public List<Paciente> buscarPorApoiador(Long apoiadorId) {
+    public List<PacienteResumo> buscarPorApoiador(Long apoiadorId) {
         return pacienteService.buscarPorApoiador(apoiadorId);
     }
 
@@ -50,6 +64,6 @@ public class PacienteApplicationService {
     }
 
     public int contarTotalPacientes() {
-        return pacienteService.contarTotalPacientes();
+        return chamadasCompartilhadas.executar("pacientes:total", pacienteService::contarTotalPacientes);
     }
 }
\ No newline at end of file
@@ -1,12 +1,16 @@
 package br.com.challenge.application.service;
 
+import br.com.challenge.domain.model.HorarioLivre;
+import br.com.challenge.domain.model.ResultadoAgendamento;
 import br.com.challenge.domain.model.Teleconsulta;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.service.TeleconsultaService;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class TeleconsultaApplicationService {
@@ -14,10 +18,21 @@ public class TeleconsultaApplicationService {
     @Inject
     TeleconsultaService teleconsultaService;
 
+    @Inject
+    ChamadasCompartilhadas chamadasCompartilhadas;
+
     public List<Teleconsulta> listarTodas() {
         return teleconsultaService.listarTodas();
     }
 
+    public Pagina<Teleconsulta> listarPagina(String cursor, Integer limite) {
+        return teleconsultaService.listarPagina(cursor, limite);
+    }
+
+    public void percorrerTodas(Consumer<Teleconsulta> consumidor) {
+        teleconsultaService.percorrerTodas(consumidor);
+    }
+
     public Teleconsulta buscarPorId(Long id) {
         return teleconsultaService.buscarPorId(id);
     }
@@ -26,6 +41,10 @@ public class TeleconsultaApplicationService {
         return teleconsultaService.agendar(teleconsulta);
     }
 
+    public List<ResultadoAgendamento> agendarEmLote(List<Teleconsulta> teleconsultas) {
+        return teleconsultaService.agendarEmLote(teleconsultas);
+    }
+
     public Teleconsulta atualizar(Long id, @Valid Teleconsulta teleconsulta) {
         return teleconsultaService.atualizar(id, teleconsulta);
     }
@@ -51,7 +70,7 @@ public class TeleconsultaApplicationService {
     }
 
     public List<Teleconsulta> consultasDeHoje() {
-        return teleconsultaService.consultasDeHoje();
+        return chamadasCompartilhadas.executar("teleconsultas:hoje", teleconsultaService::consultasDeHoje);
     }
 
     public void atualizarStatus(Long id, String novoStatus) {
@@ -66,11 +85,28 @@ public class TeleconsultaApplicationService {
         return teleconsultaService.verificarDisponibilidade(dataHora, medico);
     }
 
+    public List<LocalDateTime> buscarSlotsLivres(String medico, LocalDateTime de, LocalDateTime ate, Integer limite) {
+        return teleconsultaService.buscarSlotsLivres(medico, de, ate, limite);
+    }
+
+    public List<HorarioLivre> buscarPrimeirosDisponiveis(List<String> medicos, LocalDateTime de, LocalDateTime ate, Integer limite) {
+        return teleconsultaService.buscarPrimeirosDisponiveis(medicos, de, ate, limite);
+    }
+
+    public List<String> listarMedicos() {
+        return teleconsultaService.listarMedicos();
+    }
+
+    public List<String> listarStatus() {
+        return teleconsultaService.listarStatus();
+    }
+
     public int contarPorStatus(String status) {
-        return teleconsultaService.contarPorStatus(status);
+        return chamadasCompartilhadas.executar("teleconsultas:total-status=" + status,
+                () -> teleconsultaService.contarPorStatus(status));
     }
 
     public int contarTotal() {
-        return teleconsultaService.contarTotal();
+        return chamadasCompartilhadas.executar("teleconsultas:total", teleconsultaService::contarTotal);
     }
 }
\ No newline at end of file
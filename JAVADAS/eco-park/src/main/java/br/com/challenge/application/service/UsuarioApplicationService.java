@@ -2,10 +2,14 @@ package br.com.challenge.application.service;
 
 import br.com.challenge.domain.service.UsuarioService;
 import br.com.challenge.domain.model.Usuario;
+import br.com.challenge.domain.model.UsuarioResumo;
+import br.com.challenge.domain.repository.Pagina;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class UsuarioApplicationService {
@@ -13,10 +17,21 @@ public class UsuarioApplicationService {
     @Inject
     UsuarioService usuarioService;
 
-    public List<Usuario> listarTodos() {
+    @Inject
+    ChamadasCompartilhadas chamadasCompartilhadas;
+
+    public List<UsuarioResumo> listarTodos() {
         return usuarioService.listarTodos();
     }
 
+    public Pagina<UsuarioResumo> listarPagina(String cursor, Integer limite) {
+        return usuarioService.listarPagina(cursor, limite);
+    }
+
+    public void percorrerTodos(Consumer<Usuario> consumidor) {
+        usuarioService.percorrerTodos(consumidor);
+    }
+
     public Usuario buscarPorId(Long id) {
         return usuarioService.buscarPorId(id);
     }
@@ -30,7 +45,7 @@ public class UsuarioApplicationService {
     }
 
     public int contarTotalUsuarios() {
-        return usuarioService.contarTotalUsuarios();
+        return chamadasCompartilhadas.executar("usuarios:total", usuarioService::contarTotalUsuarios);
     }
 
     public Usuario cadastrar(@Valid Usuario usuario) {
@@ -49,6 +64,10 @@ public class UsuarioApplicationService {
         return usuarioService.verificarDisponibilidadeCpf(cpf);
     }
 
+    public Map<String, Boolean> verificarDisponibilidadeCpfs(List<String> cpfs) {
+        return usuarioService.verificarDisponibilidadeCpfs(cpfs);
+    }
+
     public boolean cpfExiste(String cpf) {
         return !usuarioService.verificarDisponibilidadeCpf(cpf);
     }
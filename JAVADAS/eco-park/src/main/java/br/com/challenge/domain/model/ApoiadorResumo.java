@@ -0,0 +1,21 @@
+package br.com.challenge.domain.model;
+
+/**
+ * Resumo de um apoiador para as listagens e a busca por cargo.
+ */
+public class ApoiadorResumo extends UsuarioResumo {
+
+    private final String cargo;
+    private final String areaAtuacao;
+
+    public ApoiadorResumo(Long id, String nomeCompleto, String cpf, String telefone, Long versao,
+                          String cargo, String areaAtuacao) {
+        super(id, nomeCompleto, cpf, telefone, versao);
+        this.cargo = cargo;
+        this.areaAtuacao = areaAtuacao;
+    }
+
+    public String getCargo() { return cargo; }
+
+    public String getAreaAtuacao() { return areaAtuacao; }
+}
@@ -0,0 +1,21 @@
+package br.com.challenge.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Horário livre de um médico, resultado da busca do primeiro médico disponível.
+ */
+public class HorarioLivre {
+
+    private final String medico;
+    private final LocalDateTime dataHora;
+
+    public HorarioLivre(String medico, LocalDateTime dataHora) {
+        this.medico = medico;
+        this.dataHora = dataHora;
+    }
+
+    public String getMedico() { return medico; }
+
+    public LocalDateTime getDataHora() { return dataHora; }
+}
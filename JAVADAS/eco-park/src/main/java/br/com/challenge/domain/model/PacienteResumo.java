@@ -0,0 +1,21 @@
+package br.com.challenge.domain.model;
+
+/**
+ * Resumo de um paciente para as listagens e a busca por apoiador.
+ */
+public class PacienteResumo extends UsuarioResumo {
+
+    private final String numeroSusOuConvenio;
+    private final Long apoiadorId;
+
+    public PacienteResumo(Long id, String nomeCompleto, String cpf, String telefone, Long versao,
+                          String numeroSusOuConvenio, Long apoiadorId) {
+        super(id, nomeCompleto, cpf, telefone, versao);
+        this.numeroSusOuConvenio = numeroSusOuConvenio;
+        this.apoiadorId = apoiadorId;
+    }
+
+    public String getNumeroSusOuConvenio() { return numeroSusOuConvenio; }
+
+    public Long getApoiadorId() { return apoiadorId; }
+}
@@ -0,0 +1,36 @@
+package br.com.challenge.domain.model;
+
+/**
+ * Resultado do agendamento de um item dentro de um lote: ou a teleconsulta
+ * gravada, ou o motivo da recusa. O índice aponta a posição no lote enviado.
+ */
+public class ResultadoAgendamento {
+
+    private final int indice;
+    private final Teleconsulta teleconsulta;
+    private final String erro;
+
+    private ResultadoAgendamento(int indice, Teleconsulta teleconsulta, String erro) {
+        this.indice = indice;
+        this.teleconsulta = teleconsulta;
+        this.erro = erro;
+    }
+
+    public static ResultadoAgendamento sucesso(int indice, Teleconsulta teleconsulta) {
+        return new ResultadoAgendamento(indice, teleconsulta, null);
+    }
+
+    public static ResultadoAgendamento falha(int indice, String erro) {
+        return new ResultadoAgendamento(indice, null, erro);
+    }
+
+    public int getIndice() { return indice; }
+
+    public Teleconsulta getTeleconsulta() { return teleconsulta; }
+
+    public String getErro() { return erro; }
+
+    public boolean isSucesso() {
+        return erro == null;
+    }
+}
@@ -11,7 +11,7 @@ public class Teleconsulta {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_teleconsulta")
-    @SequenceGenerator(name = "seq_teleconsulta", sequenceName = "seq_teleconsulta", allocationSize = 1)
+    @SequenceGenerator(name = "seq_teleconsulta", sequenceName = "seq_teleconsulta", allocationSize = 50)
     private Long id;
 
     @Version
@@ -40,6 +40,10 @@ public class Teleconsulta {
     @Size(max = 500, message = "Observações deve ter no máximo 500 caracteres")
     private String observacoes;
 
+    // Nome do paciente, trazido pelas listas e buscas; não é gravado
+    @Transient
+    private String nomePaciente;
+
     public Teleconsulta() {}
 
     public Teleconsulta(Long id, Long pacienteId, String medico, LocalDateTime dataHora, String status, String observacoes) {
@@ -72,6 +76,9 @@ public class Teleconsulta {
     public String getObservacoes() { return observacoes; }
     public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
 
+    public String getNomePaciente() { return nomePaciente; }
+    public void setNomePaciente(String nomePaciente) { this.nomePaciente = nomePaciente; }
+
     public void incrementarVersao() {
         this.versao = Objects.requireNonNullElse(versao, 0L) + 1;
     }
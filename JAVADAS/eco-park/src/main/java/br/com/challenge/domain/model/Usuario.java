@@ -12,7 +12,7 @@ public class Usuario {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_usuario")
-    @SequenceGenerator(name = "seq_usuario", sequenceName = "seq_usuario", allocationSize = 1)
+    @SequenceGenerator(name = "seq_usuario", sequenceName = "seq_usuario", allocationSize = 50)
     private Long id;
 
     @Version
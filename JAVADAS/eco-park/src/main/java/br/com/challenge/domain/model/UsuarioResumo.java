@@ -0,0 +1,32 @@
+package br.com.challenge.domain.model;
+
+/**
+ * Resumo de um usuário para as listagens: só identificação, contato e versão,
+ * sem senha nem endereço. O detalhe completo continua em {@link Usuario}.
+ */
+public class UsuarioResumo {
+
+    private final Long id;
+    private final String nomeCompleto;
+    private final String cpf;
+    private final String telefone;
+    private final Long versao;
+
+    public UsuarioResumo(Long id, String nomeCompleto, String cpf, String telefone, Long versao) {
+        this.id = id;
+        this.nomeCompleto = nomeCompleto;
+        this.cpf = cpf;
+        this.telefone = telefone;
+        this.versao = versao;
+    }
+
+    public Long getId() { return id; }
+
+    public String getNomeCompleto() { return nomeCompleto; }
+
+    public String getCpf() { return cpf; }
+
+    public String getTelefone() { return telefone; }
+
+    public Long getVersao() { return versao; }
+}
@@ -1,21 +1,31 @@
 package br.com.challenge.domain.repository;
 
 import br.com.challenge.domain.model.Apoiador;
+import br.com.challenge.domain.model.ApoiadorResumo;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ApoiadorRepository {
 
 
-    List<Apoiador> listarTodos();
+    List<ApoiadorResumo> listarTodos();
+    Pagina<ApoiadorResumo> listarPagina(String cursor, int limite);
+    void percorrerTodos(Consumer<Apoiador> consumidor);
     Optional<Apoiador> buscarPorId(Long id);
     Optional<Apoiador> buscarPorCpf(String cpf);
     Apoiador salvar(Apoiador apoiador);
+
+    /**
+     * Mesmo contrato de {@link UsuarioRepository#atualizar}: a versao do
+     * apoiador é a esperada e, se gravado, passa a ser a nova.
+     */
     boolean atualizar(Apoiador apoiador);
+
     boolean deletar(Long id);
 
 
-    List<Apoiador> buscarPorCargo(String cargo);
+    List<ApoiadorResumo> buscarPorCargo(String cargo);
     List<String> listarCargos();
 
 
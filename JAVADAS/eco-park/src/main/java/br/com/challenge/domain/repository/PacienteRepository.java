@@ -1,19 +1,32 @@
 package br.com.challenge.domain.repository;
 
 import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.PacienteResumo;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface PacienteRepository {
 
-    List<Paciente> listarTodos();
+    List<PacienteResumo> listarTodos();
+    Pagina<PacienteResumo> listarPagina(String cursor, int limite);
+    void percorrerTodos(Consumer<Paciente> consumidor);
     Optional<Paciente> buscarPorId(Long id);
     Optional<Paciente> buscarPorCpf(String cpf);
     Paciente salvar(Paciente paciente);
+
+    /**
+     * Mesmo contrato de {@link UsuarioRepository#atualizar}: a versao do
+     * paciente é a esperada e, se gravado, passa a ser a nova.
+     */
     boolean atualizar(Paciente paciente);
+
     boolean deletar(Long id);
 
-    List<Paciente> buscarPorApoiador(Long apoiadorId);
+    List<PacienteResumo> buscarPorApoiador(Long apoiadorId);
+    Set<Long> buscarIdsExistentes(Collection<Long> ids);
 
     int contarTotal();
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package br.com.challenge.domain.repository;
+
+import br.com.challenge.domain.exceptions.ValidationException;
+
+import java.util.List;
+
+/**
+ * Página de resultados de uma listagem paginada por cursor (keyset).
+ * O cursor é opaco para quem consome: basta repassá-lo na próxima chamada.
+ */
+public class Pagina<T> {
+
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    private final List<T> itens;
+    private final String proximoCursor;
+
+    public Pagina(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() { return itens; }
+
+    public String getProximoCursor() { return proximoCursor; }
+
+    public boolean temProxima() {
+        return proximoCursor != null;
+    }
+
+    public static int validarLimite(Integer limite) {
+        if (limite == null) {
+            return LIMITE_PADRAO;
+        }
+
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ValidationException("Limite de paginação inválido. Deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        return limite;
+    }
+}
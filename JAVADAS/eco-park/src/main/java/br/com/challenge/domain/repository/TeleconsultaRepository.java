@@ -3,14 +3,40 @@ package br.com.challenge.domain.repository;
 import br.com.challenge.domain.model.Teleconsulta;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TeleconsultaRepository {
 
     List<Teleconsulta> listarTodas();
+    Pagina<Teleconsulta> listarPagina(String cursor, int limite);
+    void percorrerTodas(Consumer<Teleconsulta> consumidor);
     Optional<Teleconsulta> buscarPorId(Long id);
     Teleconsulta salvar(Teleconsulta teleconsulta);
+    boolean salvarSeDisponivel(Teleconsulta teleconsulta);
+
+    /**
+     * Grava o lote numa transação e retorna as teleconsultas gravadas. Um item
+     * cujo horário já estava ocupado ao gravar fica fora do retorno e sem ID;
+     * os demais são gravados assim mesmo.
+     */
+    List<Teleconsulta> salvarEmLote(List<Teleconsulta> teleconsultas);
+
+    /**
+     * Grava a consulta se a versao no banco ainda for {@code teleconsulta.getVersao()}
+     * (null grava sem conferir) e coloca no objeto a nova versão. Retorna false
+     * quando o ID não existe ou a versão já mudou.
+     */
     boolean atualizar(Teleconsulta teleconsulta);
+
+    /**
+     * Como atualizar, conferindo antes, no banco e sem concorrência para o
+     * médico, se o novo horário está livre. Lança ValidationException quando
+     * não está.
+     */
+    boolean atualizarSeDisponivel(Teleconsulta teleconsulta);
+
     boolean deletar(Long id);
 
     List<Teleconsulta> buscarPorPaciente(Long pacienteId);
@@ -19,6 +45,9 @@ public interface TeleconsultaRepository {
     List<Teleconsulta> consultasDeHoje();
 
     boolean horarioDisponivel(LocalDateTime dataHora, String medico);
+    List<LocalDateTime> buscarHorariosOcupados(String medico, LocalDateTime inicio, LocalDateTime fim);
+    Map<String, List<LocalDateTime>> buscarHorariosOcupadosPorMedico(LocalDateTime inicio, LocalDateTime fim);
+    List<String> listarMedicos();
 
     boolean atualizarStatus(Long id, String novoStatus);
     boolean adicionarObservacoes(Long id, String observacoes);
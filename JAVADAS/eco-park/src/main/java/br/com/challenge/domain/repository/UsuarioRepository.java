@@ -1,19 +1,33 @@
 package br.com.challenge.domain.repository;
 
 import br.com.challenge.domain.model.Usuario;
+import br.com.challenge.domain.model.UsuarioResumo;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface UsuarioRepository {
 
-    List<Usuario> listarTodos();
+    List<UsuarioResumo> listarTodos();
+    Pagina<UsuarioResumo> listarPagina(String cursor, int limite);
+    void percorrerTodos(Consumer<Usuario> consumidor);
     Optional<Usuario> buscarPorId(Long id);
     Optional<Usuario> buscarPorCpf(String cpf);
     Usuario salvar(Usuario usuario);
+
+    /**
+     * Grava o usuário se a versao no banco ainda for {@code usuario.getVersao()}
+     * (null grava sem conferir) e coloca no objeto a nova versão. Retorna false
+     * quando o ID não existe ou a versão já mudou.
+     */
     boolean atualizar(Usuario usuario);
+
     boolean deletar(Long id);
 
     boolean cpfExiste(String cpf);
+    Set<String> cpfsExistentes(Collection<String> cpfs);
     boolean cpfExisteParaOutroUsuario(String cpf, Long id);
 
 
@@ -6,6 +6,8 @@ import br.com.challenge.domain.exceptions.ValidationException;
 import br.com.challenge.domain.exceptions.PacienteNotFoundException;
 import br.com.challenge.domain.logging.Logger;
 import br.com.challenge.domain.model.Apoiador;
+import br.com.challenge.domain.model.ApoiadorResumo;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.repository.ApoiadorRepository;
 import br.com.challenge.domain.repository.PacienteRepository;
 import br.com.challenge.infrastructure.logging.LoggerFactory;
@@ -13,6 +15,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class ApoiadorService {
@@ -25,11 +28,22 @@ public class ApoiadorService {
     @Inject
     PacienteRepository pacienteRepository;
 
-    public List<Apoiador> listarTodos() {
+    public List<ApoiadorResumo> listarTodos() {
         logger.info("Listando todos os apoiadores");
         return apoiadorRepository.listarTodos();
     }
 
+    public Pagina<ApoiadorResumo> listarPagina(String cursor, Integer limite) {
+        int limiteValidado = Pagina.validarLimite(limite);
+        logger.debug("Listando página de apoiadores com limite: {}", limiteValidado);
+        return apoiadorRepository.listarPagina(cursor, limiteValidado);
+    }
+
+    public void percorrerTodos(Consumer<Apoiador> consumidor) {
+        logger.info("Exportando todos os apoiadores");
+        apoiadorRepository.percorrerTodos(consumidor);
+    }
+
     public Apoiador buscarPorId(Long id) {
         logger.debug("Buscando apoiador por ID: {}", id);
 
@@ -72,11 +86,7 @@ public class ApoiadorService {
 
         System.out.println("Tentativa de cadastro de apoiador: " + apoiador.getCpf());
 
-        if (apoiadorRepository.buscarPorCpf(apoiador.getCpf()).isPresent()) {
-            System.out.println("CPF já cadastrado: " + apoiador.getCpf());
-            throw new ValidationException("CPF já cadastrado no sistema");
-        }
-
+        // Sem consulta prévia do CPF: a restrição única do banco rejeita a duplicidade no próprio INSERT
         try {
             Apoiador salvo = apoiadorRepository.salvar(apoiador);
 
@@ -87,6 +97,9 @@ public class ApoiadorService {
             System.out.println("Apoiador cadastrado com ID: " + salvo.getId() + " e versão: " + salvo.getVersao());
 
             return salvo;
+        } catch (ValidationException e) {
+            System.out.println("CPF já cadastrado: " + apoiador.getCpf());
+            throw e;
         } catch (Exception e) {
             System.out.println("=== ERRO NO APOIADOR SERVICE ===");
             e.printStackTrace();
@@ -102,24 +115,15 @@ public class ApoiadorService {
             throw new ValidationException("ID do apoiador é inválido");
         }
 
-        Apoiador existente = buscarPorId(id);
-
-        apoiadorRepository.buscarPorCpf(apoiador.getCpf())
-                .ifPresent(a -> {
-                    if (!a.getId().equals(id)) {
-                        System.out.println("CPF " + apoiador.getCpf() + " já cadastrado para outro apoiador");
-                        throw new ValidationException("CPF já cadastrado para outro apoiador");
-                    }
-                });
-
         apoiador.setId(id);
-        apoiador.setVersao(existente.getVersao() + 1);
 
         boolean atualizado = apoiadorRepository.atualizar(apoiador);
 
         if (!atualizado) {
+            // Zero linhas: ou o ID não existe (buscarPorId lança a exceção) ou a versão mudou
+            Apoiador atual = buscarPorId(id);
             System.out.println("Falha ao atualizar apoiador ID: " + id + " - Versão conflitante");
-            throw new ConcurrentModificationException("Apoiador", id, existente.getVersao());
+            throw new ConcurrentModificationException("Apoiador", id, apoiador.getVersao(), atual.getVersao());
         }
 
         System.out.println("Apoiador atualizado com sucesso ID: " + id + ", nova versão: " + apoiador.getVersao());
@@ -150,7 +154,7 @@ public class ApoiadorService {
         System.out.println("Apoiador deletado com sucesso ID: " + id);
     }
 
-    public List<Apoiador> buscarPorCargo(String cargo) {
+    public List<ApoiadorResumo> buscarPorCargo(String cargo) {
         if (cargo == null || cargo.trim().isEmpty()) {
             throw new ValidationException("Cargo não pode ser vazio");
         }
@@ -6,6 +6,8 @@ import br.com.challenge.domain.exceptions.ConcurrentModificationException;
 import br.com.challenge.domain.exceptions.ApoiadorNotFoundException;
 import br.com.challenge.domain.logging.Logger;
 import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.PacienteResumo;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.repository.PacienteRepository;
 import br.com.challenge.domain.repository.ApoiadorRepository;
 import br.com.challenge.infrastructure.logging.LoggerFactory;
@@ -13,6 +15,7 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class PacienteService {
@@ -25,11 +28,22 @@ public class PacienteService {
     @Inject
     ApoiadorRepository apoiadorRepository;
 
-    public List<Paciente> listarTodos() {
+    public List<PacienteResumo> listarTodos() {
         logger.info("Listando todos os pacientes");
         return pacienteRepository.listarTodos();
     }
 
+    public Pagina<PacienteResumo> listarPagina(String cursor, Integer limite) {
+        int limiteValidado = Pagina.validarLimite(limite);
+        logger.debug("Listando página de pacientes com limite: {}", limiteValidado);
+        return pacienteRepository.listarPagina(cursor, limiteValidado);
+    }
+
+    public void percorrerTodos(Consumer<Paciente> consumidor) {
+        logger.info("Exportando todos os pacientes");
+        pacienteRepository.percorrerTodos(consumidor);
+    }
+
     public Paciente buscarPorId(Long id) {
         logger.debug("Buscando paciente por ID: {}", id);
 
@@ -71,11 +85,6 @@ public class PacienteService {
 
         logger.info("Tentativa de cadastro de paciente: {}", paciente.getCpf());
 
-        if (pacienteRepository.buscarPorCpf(paciente.getCpf()).isPresent()) {
-            logger.warn("CPF já cadastrado: {}", paciente.getCpf());
-            throw new ValidationException("CPF já cadastrado no sistema");
-        }
-
         if (paciente.getApoiadorId() != null) {
             if (apoiadorRepository.buscarPorId(paciente.getApoiadorId()).isEmpty()) {
                 logger.warn("Apoiador não encontrado: {}", paciente.getApoiadorId());
@@ -84,6 +93,7 @@ public class PacienteService {
         }
 
         try {
+            // Sem consulta prévia do CPF: a restrição única do banco rejeita a duplicidade no próprio INSERT
             Paciente salvo = pacienteRepository.salvar(paciente);
 
             System.out.println("=== SUCESSO PACIENTE SERVICE ===");
@@ -91,6 +101,9 @@ public class PacienteService {
 
             logger.info("Paciente cadastrado com ID: {} e versão: {}", salvo.getId(), salvo.getVersao());
             return salvo;
+        } catch (ValidationException e) {
+            logger.warn("CPF já cadastrado: {}", paciente.getCpf());
+            throw e;
         } catch (Exception e) {
             System.out.println("=== ERRO NO PACIENTE SERVICE ===");
             e.printStackTrace();
@@ -106,18 +119,6 @@ public class PacienteService {
             throw new ValidationException("ID do paciente é inválido");
         }
 
-        Paciente existente = buscarPorId(id);
-
-        pacienteRepository.buscarPorCpf(paciente.getCpf())
-                .ifPresent(p -> {
-                    if (!p.getId().equals(id)) {
-                        logger.warn("CPF {} já cadastrado para outro paciente", paciente.getCpf());
-                        throw new ValidationException("CPF já cadastrado para outro paciente");
-                    }
-                });
-
-
-
         if (paciente.getApoiadorId() != null) {
             if (apoiadorRepository.buscarPorId(paciente.getApoiadorId()).isEmpty()) {
                 logger.warn("Apoiador não encontrado: {}", paciente.getApoiadorId());
@@ -126,13 +127,14 @@ public class PacienteService {
         }
 
         paciente.setId(id);
-        paciente.setVersao(existente.getVersao() + 1);
 
         boolean atualizado = pacienteRepository.atualizar(paciente);
 
         if (!atualizado) {
+            // Zero linhas: ou o ID não existe (buscarPorId lança a exceção) ou a versão mudou
+            Paciente atual = buscarPorId(id);
             logger.error("Falha ao atualizar paciente ID: {} - Versão conflitante", id);
-            throw new ConcurrentModificationException("Paciente", id, existente.getVersao());
+            throw new ConcurrentModificationException("Paciente", id, paciente.getVersao(), atual.getVersao());
         }
 
         logger.info("Paciente atualizado com sucesso ID: {}, nova versão: {}", id, paciente.getVersao());
@@ -158,7 +160,7 @@ public class PacienteService {
         logger.info("Paciente deletado com sucesso ID: {}", id);
     }
 
-    public List<Paciente> buscarPorApoiador(Long apoiadorId) {
+    public List<PacienteResumo> buscarPorApoiador(Long apoiadorId) {
         logger.debug("Buscando pacientes por apoiador ID: {}", apoiadorId);
 
         if (apoiadorId == null || apoiadorId <= 0) {
@@ -5,32 +5,89 @@ import br.com.challenge.domain.exceptions.ValidationException;
 import br.com.challenge.domain.exceptions.ConcurrentModificationException;
 import br.com.challenge.domain.exceptions.PacienteNotFoundException;
 import br.com.challenge.domain.logging.Logger;
+import br.com.challenge.domain.model.HorarioLivre;
+import br.com.challenge.domain.model.ResultadoAgendamento;
 import br.com.challenge.domain.model.Teleconsulta;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.repository.TeleconsultaRepository;
 import br.com.challenge.domain.repository.PacienteRepository;
 import br.com.challenge.infrastructure.logging.LoggerFactory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
 import jakarta.validation.Valid;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class TeleconsultaService {
 
     private static final Logger logger = LoggerFactory.getLogger(TeleconsultaService.class);
 
+    private static final int TAMANHO_MAXIMO_LOTE = 1000;
+    private static final int DURACAO_CONSULTA_MINUTOS = 30;
+    private static final int LIMITE_PADRAO_SLOTS = 20;
+    private static final int LIMITE_MAXIMO_SLOTS = 500;
+    private static final int INTERVALO_MAXIMO_SLOTS_DIAS = 31;
+    static final int QUANTIDADE_TRAVAS = 64;
+    private static final List<String> STATUS = List.of("AGENDADA", "REALIZADA", "CANCELADA");
+
     @Inject
     TeleconsultaRepository teleconsultaRepository;
 
     @Inject
     PacienteRepository pacienteRepository;
 
+    @Inject
+    @Named("calculoSlots")
+    ExecutorService executorSlots;
+
+    // Travas por faixa de hash do médico: agendamentos do mesmo médico são
+    // serializados nesta instância sem bloquear os demais médicos. Entre
+    // instâncias, quem serializa é a trava do médico no banco (repositório)
+    private final ReentrantLock[] travasMedico = new ReentrantLock[QUANTIDADE_TRAVAS];
+
+    public TeleconsultaService() {
+        for (int i = 0; i < travasMedico.length; i++) {
+            travasMedico[i] = new ReentrantLock();
+        }
+    }
+
     public List<Teleconsulta> listarTodas() {
         logger.info("Listando todas as teleconsultas");
         return teleconsultaRepository.listarTodas();
     }
 
+    public Pagina<Teleconsulta> listarPagina(String cursor, Integer limite) {
+        int limiteValidado = Pagina.validarLimite(limite);
+        logger.debug("Listando página de teleconsultas com limite: {}", limiteValidado);
+        return teleconsultaRepository.listarPagina(cursor, limiteValidado);
+    }
+
+    public void percorrerTodas(Consumer<Teleconsulta> consumidor) {
+        logger.info("Exportando todas as teleconsultas");
+        teleconsultaRepository.percorrerTodas(consumidor);
+    }
+
     public Teleconsulta buscarPorId(Long id) {
         logger.debug("Buscando teleconsulta por ID: {}", id);
 
@@ -59,20 +116,158 @@ public class TeleconsultaService {
             throw new ValidationException("Data e hora da consulta devem ser no futuro");
         }
 
-        if (!teleconsultaRepository.horarioDisponivel(teleconsulta.getDataHora(), teleconsulta.getMedico())) {
+        if (teleconsulta.getStatus() == null) {
+            teleconsulta.setStatus("AGENDADA");
+        } else if (!teleconsulta.getStatus().matches("AGENDADA|REALIZADA|CANCELADA")) {
+            throw new ValidationException("Status inválido. Deve ser: AGENDADA, REALIZADA ou CANCELADA");
+        }
+
+        // A verificação prévia é respondida pela agenda em memória; a garantia
+        // vem do INSERT condicional, feito com a trava do médico no banco
+        boolean agendada = comTravas(Arrays.asList(teleconsulta.getMedico()), () ->
+                teleconsultaRepository.horarioDisponivel(teleconsulta.getDataHora(), teleconsulta.getMedico())
+                        && teleconsultaRepository.salvarSeDisponivel(teleconsulta));
+
+        if (!agendada) {
             logger.warn("Médico {} não disponível no horário {}", teleconsulta.getMedico(), teleconsulta.getDataHora());
             throw new ValidationException("Médico não disponível no horário selecionado");
         }
 
+        logger.info("Teleconsulta agendada com ID: {} para paciente: {}", teleconsulta.getId(), teleconsulta.getPacienteId());
+        return teleconsulta;
+    }
+
+    /**
+     * Executa a ação segurando as travas dos médicos informados, adquiridas em
+     * ordem crescente de índice para que lotes com vários médicos não entrem
+     * em deadlock entre si.
+     */
+    private <T> T comTravas(Collection<String> medicos, Supplier<T> acao) {
+        int[] indices = medicos.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(medico -> Math.floorMod(medico.hashCode(), QUANTIDADE_TRAVAS))
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int adquiridas = 0;
+        try {
+            for (int indice : indices) {
+                travasMedico[indice].lock();
+                adquiridas++;
+            }
+            return acao.get();
+        } finally {
+            for (int i = adquiridas - 1; i >= 0; i--) {
+                travasMedico[indices[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Agenda várias teleconsultas de uma vez. Pacientes são conferidos com uma
+     * única consulta, conflitos de horário com uma consulta por intervalo de cada
+     * médico, e as inserções vão em lote numa só transação. Itens inválidos não
+     * impedem os demais: cada posição do lote recebe o seu resultado.
+     */
+    public List<ResultadoAgendamento> agendarEmLote(List<Teleconsulta> teleconsultas) {
+        if (teleconsultas == null || teleconsultas.isEmpty()) {
+            throw new ValidationException("Lote inválido: informe ao menos uma teleconsulta");
+        }
+
+        if (teleconsultas.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new ValidationException("Lote inválido: máximo de " + TAMANHO_MAXIMO_LOTE + " teleconsultas por envio");
+        }
+
+        logger.info("Tentativa de agendamento em lote de {} teleconsultas", teleconsultas.size());
+
+        ResultadoAgendamento[] resultados = new ResultadoAgendamento[teleconsultas.size()];
+        List<Integer> candidatos = new ArrayList<>();
+        LocalDateTime agora = LocalDateTime.now();
+
+        for (int i = 0; i < teleconsultas.size(); i++) {
+            String erro = validarItemLote(teleconsultas.get(i), agora);
+            if (erro != null) {
+                resultados[i] = ResultadoAgendamento.falha(i, erro);
+            } else {
+                candidatos.add(i);
+            }
+        }
+
+        Set<Long> pacientesExistentes = pacienteRepository.buscarIdsExistentes(
+                candidatos.stream().map(i -> teleconsultas.get(i).getPacienteId()).collect(Collectors.toSet()));
+
+        Map<String, List<Integer>> candidatosPorMedico = new LinkedHashMap<>();
+        for (Integer i : candidatos) {
+            Teleconsulta teleconsulta = teleconsultas.get(i);
+            if (!pacientesExistentes.contains(teleconsulta.getPacienteId())) {
+                resultados[i] = ResultadoAgendamento.falha(i, "Paciente não encontrado com ID: " + teleconsulta.getPacienteId());
+            } else {
+                candidatosPorMedico.computeIfAbsent(teleconsulta.getMedico(), m -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<Integer> aprovados = new ArrayList<>();
+        Set<Teleconsulta> gravadas = Collections.newSetFromMap(new IdentityHashMap<>());
+        comTravas(candidatosPorMedico.keySet(), () -> {
+            candidatosPorMedico.forEach((medico, indices) -> conferirHorariosLote(teleconsultas, medico, indices, resultados, aprovados));
+            return gravadas.addAll(teleconsultaRepository.salvarEmLote(aprovados.stream().map(teleconsultas::get).collect(Collectors.toList())));
+        });
+
+        // Aprovado aqui e recusado na gravação: outra instância ocupou o horário entre a conferência e o INSERT
+        for (Integer i : aprovados) {
+            resultados[i] = gravadas.contains(teleconsultas.get(i))
+                    ? ResultadoAgendamento.sucesso(i, teleconsultas.get(i))
+                    : ResultadoAgendamento.falha(i, "Médico não disponível no horário selecionado");
+        }
+
+        logger.info("Agendamento em lote concluído: {} de {} teleconsultas agendadas", gravadas.size(), teleconsultas.size());
+        return Arrays.asList(resultados);
+    }
+
+    private void conferirHorariosLote(List<Teleconsulta> teleconsultas, String medico, List<Integer> indices,
+                                      ResultadoAgendamento[] resultados, List<Integer> aprovados) {
+        LocalDateTime inicio = indices.stream().map(i -> teleconsultas.get(i).getDataHora()).min(LocalDateTime::compareTo).get();
+        LocalDateTime fim = indices.stream().map(i -> teleconsultas.get(i).getDataHora()).max(LocalDateTime::compareTo).get();
+        TreeSet<LocalDateTime> ocupados = new TreeSet<>(
+                teleconsultaRepository.buscarHorariosOcupados(medico, inicio, fim.plusMinutes(DURACAO_CONSULTA_MINUTOS)));
+
+        // Mesma regra de horarioDisponivel, aplicada também entre os itens do próprio lote
+        for (Integer i : indices) {
+            LocalDateTime dataHora = teleconsultas.get(i).getDataHora();
+            LocalDateTime conflito = ocupados.ceiling(dataHora);
+            if (conflito != null && !conflito.isAfter(dataHora.plusMinutes(DURACAO_CONSULTA_MINUTOS))) {
+                resultados[i] = ResultadoAgendamento.falha(i, "Médico não disponível no horário selecionado");
+            } else {
+                ocupados.add(dataHora);
+                aprovados.add(i);
+            }
+        }
+    }
+
+    private String validarItemLote(Teleconsulta teleconsulta, LocalDateTime agora) {
+        if (teleconsulta == null) {
+            return "Teleconsulta inválida";
+        }
+
+        if (teleconsulta.getPacienteId() == null || teleconsulta.getPacienteId() <= 0) {
+            return "ID do paciente é inválido";
+        }
+
+        if (teleconsulta.getMedico() == null || teleconsulta.getMedico().trim().isEmpty()) {
+            return "Nome do médico não pode ser vazio";
+        }
+
+        if (teleconsulta.getDataHora() == null || teleconsulta.getDataHora().isBefore(agora)) {
+            return "Data e hora da consulta devem ser no futuro";
+        }
+
         if (teleconsulta.getStatus() == null) {
             teleconsulta.setStatus("AGENDADA");
         } else if (!teleconsulta.getStatus().matches("AGENDADA|REALIZADA|CANCELADA")) {
-            throw new ValidationException("Status inválido. Deve ser: AGENDADA, REALIZADA ou CANCELADA");
+            return "Status inválido. Deve ser: AGENDADA, REALIZADA ou CANCELADA";
         }
-
-        Teleconsulta agendada = teleconsultaRepository.salvar(teleconsulta);
-        logger.info("Teleconsulta agendada com ID: {} para paciente: {}", agendada.getId(), agendada.getPacienteId());
-        return agendada;
+        return null;
     }
 
     public Teleconsulta atualizar(Long id, @Valid Teleconsulta teleconsulta) {
@@ -89,22 +284,27 @@ public class TeleconsultaService {
             throw new PacienteNotFoundException(teleconsulta.getPacienteId());
         }
 
-        if (!existente.getDataHora().equals(teleconsulta.getDataHora()) ||
-                !existente.getMedico().equals(teleconsulta.getMedico())) {
+        teleconsulta.setId(id);
+
+        boolean atualizado = comTravas(Arrays.asList(existente.getMedico(), teleconsulta.getMedico()), () -> {
+            if (existente.getDataHora().equals(teleconsulta.getDataHora()) &&
+                    existente.getMedico().equals(teleconsulta.getMedico())) {
+                return teleconsultaRepository.atualizar(teleconsulta);
+            }
 
+            // Como em agendar: a verificação prévia vem da agenda em memória e a
+            // garantia da conferência feita com a trava do médico no banco
             if (!teleconsultaRepository.horarioDisponivel(teleconsulta.getDataHora(), teleconsulta.getMedico())) {
                 throw new ValidationException("Médico não disponível no horário selecionado");
             }
-        }
-
-        teleconsulta.setId(id);
-        teleconsulta.setVersao(existente.getVersao() + 1);
-
-        boolean atualizado = teleconsultaRepository.atualizar(teleconsulta);
+            return teleconsultaRepository.atualizarSeDisponivel(teleconsulta);
+        });
 
         if (!atualizado) {
+            // Zero linhas: ou a consulta foi removida (buscarPorId lança a exceção) ou a versão mudou
+            Teleconsulta atual = buscarPorId(id);
             logger.error("Falha ao atualizar teleconsulta ID: {} - Versão conflitante", id);
-            throw new ConcurrentModificationException("Teleconsulta", id, existente.getVersao());
+            throw new ConcurrentModificationException("Teleconsulta", id, teleconsulta.getVersao(), atual.getVersao());
         }
 
         logger.info("Teleconsulta atualizada com sucesso ID: {}, nova versão: {}", id, teleconsulta.getVersao());
@@ -239,6 +439,130 @@ public class TeleconsultaService {
         return teleconsultaRepository.horarioDisponivel(dataHora, medico);
     }
 
+    /**
+     * Próximos horários livres do médico em [de, ate], na grade de 30 minutos
+     * (hh:00 e hh:30). Os horários ocupados do intervalo vêm de uma única
+     * consulta e cada slot segue a mesma regra de horarioDisponivel, ou seja,
+     * todo slot retornado seria aceito por agendar.
+     */
+    public List<LocalDateTime> buscarSlotsLivres(String medico, LocalDateTime de, LocalDateTime ate, Integer limite) {
+        logger.debug("Buscando slots livres do médico {} entre {} e {}", medico, de, ate);
+
+        if (medico == null || medico.trim().isEmpty()) {
+            throw new ValidationException("Nome do médico não pode ser vazio");
+        }
+
+        validarIntervaloSlots(de, ate);
+        int limiteValidado = validarLimiteSlots(limite);
+
+        LocalDateTime inicio = primeiroSlot(de);
+        if (inicio.isAfter(ate)) {
+            return new ArrayList<>();
+        }
+
+        List<LocalDateTime> ocupados = teleconsultaRepository.buscarHorariosOcupados(
+                medico, inicio, ate.plusMinutes(DURACAO_CONSULTA_MINUTOS));
+        return calcularSlotsLivres(ocupados, inicio, ate, limiteValidado);
+    }
+
+    /**
+     * Primeiros horários livres entre todos os médicos em [de, ate]: os horários
+     * ocupados de todos vêm numa única consulta, os slots de cada médico são
+     * calculados em paralelo no executor "calculoSlots" e o resultado traz os
+     * {@code limite} mais cedo, desempatando pelo nome do médico. Sem
+     * {@code medicos}, considera todos os que já têm teleconsultas.
+     */
+    public List<HorarioLivre> buscarPrimeirosDisponiveis(List<String> medicos, LocalDateTime de, LocalDateTime ate, Integer limite) {
+        logger.debug("Buscando primeiros horários livres entre {} e {}", de, ate);
+
+        validarIntervaloSlots(de, ate);
+        int limiteValidado = validarLimiteSlots(limite);
+
+        List<String> candidatos = medicos == null || medicos.isEmpty()
+                ? teleconsultaRepository.listarMedicos()
+                : medicos.stream().filter(m -> m != null && !m.trim().isEmpty()).distinct().collect(Collectors.toList());
+
+        LocalDateTime inicio = primeiroSlot(de);
+        if (candidatos.isEmpty() || inicio.isAfter(ate)) {
+            return new ArrayList<>();
+        }
+
+        Map<String, List<LocalDateTime>> ocupadosPorMedico = teleconsultaRepository.buscarHorariosOcupadosPorMedico(
+                inicio, ate.plusMinutes(DURACAO_CONSULTA_MINUTOS));
+
+        // Cada médico contribui com no máximo 'limite' horários, o suficiente para o corte global
+        List<CompletableFuture<List<HorarioLivre>>> calculos = candidatos.stream()
+                .map(medico -> CompletableFuture.supplyAsync(() -> calcularSlotsLivres(
+                        ocupadosPorMedico.getOrDefault(medico, List.of()), inicio, ate, limiteValidado).stream()
+                        .map(slot -> new HorarioLivre(medico, slot))
+                        .collect(Collectors.toList()), executorSlots))
+                .collect(Collectors.toList());
+
+        return calculos.stream()
+                .flatMap(calculo -> calculo.join().stream())
+                .sorted(Comparator.comparing(HorarioLivre::getDataHora).thenComparing(HorarioLivre::getMedico))
+                .limit(limiteValidado)
+                .collect(Collectors.toList());
+    }
+
+    private static void validarIntervaloSlots(LocalDateTime de, LocalDateTime ate) {
+        if (de == null || ate == null || ate.isBefore(de)) {
+            throw new ValidationException("Intervalo inválido: 'de' deve ser anterior ou igual a 'ate'");
+        }
+
+        if (Duration.between(de, ate).toDays() >= INTERVALO_MAXIMO_SLOTS_DIAS) {
+            throw new ValidationException("Intervalo inválido: máximo de " + INTERVALO_MAXIMO_SLOTS_DIAS + " dias");
+        }
+    }
+
+    private static int validarLimiteSlots(Integer limite) {
+        int limiteValidado = limite == null ? LIMITE_PADRAO_SLOTS : limite;
+        if (limiteValidado < 1 || limiteValidado > LIMITE_MAXIMO_SLOTS) {
+            throw new ValidationException("Limite inválido. Deve estar entre 1 e " + LIMITE_MAXIMO_SLOTS);
+        }
+        return limiteValidado;
+    }
+
+    /**
+     * Primeiro início de slot da grade a partir de {@code de}, nunca no passado.
+     */
+    private static LocalDateTime primeiroSlot(LocalDateTime de) {
+        LocalDateTime agora = LocalDateTime.now();
+        return proximoInicioDeSlot(de.isBefore(agora) ? agora : de);
+    }
+
+    /**
+     * Percorre a grade de 30 minutos de {@code inicio} até {@code ate} aplicando a
+     * regra de horarioDisponivel contra os horários ocupados informados.
+     */
+    private static List<LocalDateTime> calcularSlotsLivres(List<LocalDateTime> horariosOcupados, LocalDateTime inicio,
+                                                           LocalDateTime ate, int limite) {
+        TreeSet<LocalDateTime> ocupados = new TreeSet<>(horariosOcupados);
+        List<LocalDateTime> livres = new ArrayList<>();
+
+        for (LocalDateTime slot = inicio; !slot.isAfter(ate) && livres.size() < limite; slot = slot.plusMinutes(DURACAO_CONSULTA_MINUTOS)) {
+            LocalDateTime conflito = ocupados.ceiling(slot);
+            if (conflito == null || conflito.isAfter(slot.plusMinutes(DURACAO_CONSULTA_MINUTOS))) {
+                livres.add(slot);
+            }
+        }
+        return livres;
+    }
+
+    private static LocalDateTime proximoInicioDeSlot(LocalDateTime dataHora) {
+        LocalDateTime slot = dataHora.truncatedTo(ChronoUnit.HOURS)
+                .plusMinutes((dataHora.getMinute() / DURACAO_CONSULTA_MINUTOS) * (long) DURACAO_CONSULTA_MINUTOS);
+        return slot.isBefore(dataHora) ? slot.plusMinutes(DURACAO_CONSULTA_MINUTOS) : slot;
+    }
+
+    public List<String> listarMedicos() {
+        return teleconsultaRepository.listarMedicos();
+    }
+
+    public List<String> listarStatus() {
+        return STATUS;
+    }
+
     public int contarPorStatus(String status) {
         if (status == null || !status.matches("AGENDADA|REALIZADA|CANCELADA")) {
             throw new ValidationException("Status inválido");
@@ -5,27 +5,47 @@ import br.com.challenge.domain.exceptions.ValidationException;
 import br.com.challenge.domain.exceptions.ConcurrentModificationException;
 import br.com.challenge.domain.logging.Logger;
 import br.com.challenge.domain.model.Usuario;
+import br.com.challenge.domain.model.UsuarioResumo;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.repository.UsuarioRepository;
 import br.com.challenge.infrastructure.logging.LoggerFactory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class UsuarioService {
 
     private static final Logger logger = LoggerFactory.getLogger(UsuarioService.class);
 
+    private static final int MAXIMO_CPFS_POR_VERIFICACAO = 1000;
+
     @Inject
     UsuarioRepository usuarioRepository;
 
-    public List<Usuario> listarTodos() {
+    public List<UsuarioResumo> listarTodos() {
         logger.info("Listando todos os usuários");
         return usuarioRepository.listarTodos();
     }
 
+    public Pagina<UsuarioResumo> listarPagina(String cursor, Integer limite) {
+        int limiteValidado = Pagina.validarLimite(limite);
+        logger.debug("Listando página de usuários com limite: {}", limiteValidado);
+        return usuarioRepository.listarPagina(cursor, limiteValidado);
+    }
+
+    public void percorrerTodos(Consumer<Usuario> consumidor) {
+        logger.info("Exportando todos os usuários");
+        usuarioRepository.percorrerTodos(consumidor);
+    }
+
     public Usuario buscarPorId(Long id) {
         logger.debug("Buscando usuário por ID: {}", id);
 
@@ -87,26 +107,20 @@ public class UsuarioService {
             throw new ValidationException("ID do usuário é inválido");
         }
 
-        Usuario existente = buscarPorId(id);
-
-        if (usuarioRepository.cpfExisteParaOutroUsuario(usuario.getCpf(), id)) {
-            logger.warn("CPF {} já cadastrado para outro usuário", usuario.getCpf());
-            throw new ValidationException("CPF já cadastrado para outro usuário");
-        }
-
         if (usuario.getIdade() < 18) {
             logger.warn("Usuário menor de idade na atualização: {}", usuario.getIdade());
             throw new ValidationException("Usuário deve ter pelo menos 18 anos");
         }
 
         usuario.setId(id);
-        usuario.setVersao(existente.getVersao() + 1);
 
         boolean atualizado = usuarioRepository.atualizar(usuario);
 
         if (!atualizado) {
+            // Zero linhas: ou o ID não existe (buscarPorId lança a exceção) ou a versão mudou
+            Usuario atual = buscarPorId(id);
             logger.error("Falha ao atualizar usuário ID: {} - Versão conflitante", id);
-            throw new ConcurrentModificationException("Usuário", id, existente.getVersao());
+            throw new ConcurrentModificationException("Usuário", id, usuario.getVersao(), atual.getVersao());
         }
 
         logger.info("Usuário atualizado com sucesso ID: {}, nova versão: {}", id, usuario.getVersao());
@@ -174,14 +188,14 @@ public class UsuarioService {
             throw new ValidationException("Senha atual incorreta");
         }
 
+        // A versão lida é a esperada: se outra escrita chegou antes, o UPDATE não altera nada
         usuario.setSenha(novaSenha);
-        usuario.incrementarVersao();
 
         boolean senhaAlterada = usuarioRepository.atualizar(usuario);
 
         if (!senhaAlterada) {
             logger.error("Falha ao alterar senha para usuário ID: {} - Versão conflitante", id);
-            throw new ConcurrentModificationException("Usuário", id, usuario.getVersao() - 1);
+            throw new ConcurrentModificationException("Usuário", id, usuario.getVersao());
         }
 
         logger.info("Senha alterada com sucesso para usuário ID: {}", id);
@@ -201,6 +215,29 @@ public class UsuarioService {
         return !usuarioRepository.cpfExiste(cpf);
     }
 
+    /**
+     * Disponibilidade de vários CPFs numa chamada, na ordem recebida. Mesma
+     * regra da verificação individual: CPF em branco não está disponível.
+     */
+    public Map<String, Boolean> verificarDisponibilidadeCpfs(List<String> cpfs) {
+        if (cpfs == null || cpfs.isEmpty() || cpfs.size() > MAXIMO_CPFS_POR_VERIFICACAO) {
+            throw new ValidationException("Quantidade de CPFs inválida: informe de 1 a " + MAXIMO_CPFS_POR_VERIFICACAO);
+        }
+
+        List<String> preenchidos = cpfs.stream()
+                .filter(cpf -> cpf != null && !cpf.trim().isEmpty())
+                .collect(Collectors.toList());
+        Set<String> existentes = usuarioRepository.cpfsExistentes(preenchidos);
+
+        Map<String, Boolean> disponibilidade = new LinkedHashMap<>();
+        for (String cpf : cpfs) {
+            if (cpf != null) {
+                disponibilidade.put(cpf, !cpf.trim().isEmpty() && !existentes.contains(cpf));
+            }
+        }
+        return disponibilidade;
+    }
+
 
 
 
@@ -225,17 +262,16 @@ public class UsuarioService {
         System.out.println("Usuario Nome: " + usuario.getNomeCompleto());
         System.out.println("Usuario Idade: " + usuario.getIdade());
 
-        if (usuarioRepository.cpfExiste(usuario.getCpf())) {
-            logger.warn("CPF já cadastrado: {}", usuario.getCpf());
-            throw new ValidationException("CPF já cadastrado no sistema");
-        }
-
+        // Sem consulta prévia do CPF: a restrição única do banco rejeita a duplicidade no próprio INSERT
         try {
             Usuario salvo = usuarioRepository.salvar(usuario);
             System.out.println("=== SUCESSO USUARIO SERVICE ===");
             System.out.println("Usuario salvo com ID: " + salvo.getId());
             logger.info("Usuário cadastrado com ID: {} e versão: {}", salvo.getId(), salvo.getVersao());
             return salvo;
+        } catch (ValidationException e) {
+            logger.warn("CPF já cadastrado: {}", usuario.getCpf());
+            throw e;
         } catch (Exception e) {
             System.out.println("=== ERRO NO USUARIO SERVICE ===");
             e.printStackTrace();
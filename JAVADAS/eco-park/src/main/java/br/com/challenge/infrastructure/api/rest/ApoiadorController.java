@@ -1,37 +1,67 @@
 package br.com.challenge.infrastructure.api.rest;
 
 import br.com.challenge.application.service.ApoiadorApplicationService;
+import br.com.challenge.domain.exceptions.ConcurrentModificationException;
+import br.com.challenge.domain.model.Apoiador;
+import br.com.challenge.domain.model.ApoiadorResumo;
 import br.com.challenge.infrastructure.api.rest.dto.input.ApoiadorInputDto;
 import br.com.challenge.infrastructure.api.rest.dto.output.ApoiadorOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.ApoiadorResumoOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.PaginaOutputDto;
+import br.com.challenge.infrastructure.api.rest.mappers.ApoiadorMapper;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import org.modelmapper.ModelMapper;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 @Path("/apoiadores")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
+@Consumes({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
 public class ApoiadorController {
 
     @Inject
     ApoiadorApplicationService apoiadorApplicationService;
 
     @Inject
-    ModelMapper modelMapper;
+    ApoiadorMapper apoiadorMapper;
+
+    @Inject
+    ExportadorStream exportadorStream;
+
+    @Inject
+    FormatosBinarios formatosBinarios;
+
+    @Inject
+    RespostasReferencia respostasReferencia;
 
     @GET
-    public Response listarTodos() {
+    public Response listarTodos(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+                                @Context Request request) {
+        if (limit != null || after != null) {
+            return listarPagina(after, limit, request);
+        }
+
         try {
-            List<ApoiadorOutputDto> apoiadores = apoiadorApplicationService.listarTodos().stream()
-                    .map(apoiador -> modelMapper.map(apoiador, ApoiadorOutputDto.class))
+            List<ApoiadorResumo> resultado = apoiadorApplicationService.listarTodos();
+            EntityTag etag = Etags.daColecao(resultado, ApoiadorResumo::getId, ApoiadorResumo::getVersao);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<ApoiadorResumoOutputDto> apoiadores = resultado.stream()
+                    .map(apoiadorMapper::paraResumo)
                     .collect(Collectors.toList());
-            return Response.ok(apoiadores).build();
+            return Response.ok(apoiadores).tag(etag).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("error", "Erro ao listar apoiadores: " + e.getMessage()))
@@ -39,13 +69,48 @@ public class ApoiadorController {
         }
     }
 
+    private Response listarPagina(String after, Integer limit, Request request) {
+        try {
+            var pagina = apoiadorApplicationService.listarPagina(after, limit);
+            EntityTag etag = Etags.daColecao(pagina.getItens(), ApoiadorResumo::getId, ApoiadorResumo::getVersao);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<ApoiadorResumoOutputDto> itens = pagina.getItens().stream()
+                    .map(apoiadorMapper::paraResumo)
+                    .collect(Collectors.toList());
+            return Response.ok(new PaginaOutputDto<>(itens, pagina.getProximoCursor())).tag(etag).build();
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+
+    @GET
+    @Path("/exportar")
+    public Response exportar(@Context Request request) {
+        MediaType tipo = formatosBinarios.negociar(request);
+        StreamingOutput corpo = exportadorStream.exportar(
+                apoiadorApplicationService::percorrerTodos,
+                apoiadorMapper::paraSaida,
+                tipo);
+        return Response.ok(corpo, tipo).build();
+    }
+
     @GET
     @Path("/{id}")
-    public Response buscarPorId(@PathParam("id") Long id) {
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request) {
         try {
             var apoiador = apoiadorApplicationService.buscarPorId(id);
-            var response = modelMapper.map(apoiador, ApoiadorOutputDto.class);
-            return Response.ok(response).build();
+            EntityTag etag = Etags.doRecurso(apoiador.getId(), apoiador.getVersao());
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            var response = apoiadorMapper.paraSaida(apoiador);
+            return Response.ok(response).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -53,11 +118,17 @@ public class ApoiadorController {
 
     @GET
     @Path("/cpf/{cpf}")
-    public Response buscarPorCpf(@PathParam("cpf") String cpf) {
+    public Response buscarPorCpf(@PathParam("cpf") String cpf, @Context Request request) {
         try {
             var apoiador = apoiadorApplicationService.buscarPorCpf(cpf);
-            var response = modelMapper.map(apoiador, ApoiadorOutputDto.class);
-            return Response.ok(response).build();
+            EntityTag etag = Etags.doRecurso(apoiador.getId(), apoiador.getVersao());
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            var response = apoiadorMapper.paraSaida(apoiador);
+            return Response.ok(response).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -66,9 +137,9 @@ public class ApoiadorController {
     //@POST
     //public Response cadastrar(@Valid ApoiadorInputDto apoiadorInputDto) {
     //    try {
-    //        var apoiador = modelMapper.map(apoiadorInputDto, br.com.challenge.domain.model.Apoiador.class);
+    //        var apoiador = apoiadorMapper.paraDominio(apoiadorInputDto);
     //        var apoiadorSalvo = apoiadorApplicationService.cadastrar(apoiador);
-    //        var response = modelMapper.map(apoiadorSalvo, ApoiadorOutputDto.class);
+    //        var response = apoiadorMapper.paraSaida(apoiadorSalvo);
 //
     //        return Response.status(Response.Status.CREATED)
     //                .entity(response)
@@ -80,13 +151,26 @@ public class ApoiadorController {
 
     @PUT
     @Path("/{id}")
-    public Response atualizar(@PathParam("id") Long id, @Valid ApoiadorInputDto apoiadorInputDto) {
+    public Response atualizar(@PathParam("id") Long id, @Valid ApoiadorInputDto apoiadorInputDto,
+                              @HeaderParam("If-Match") String ifMatch) {
         try {
-            var apoiador = modelMapper.map(apoiadorInputDto, br.com.challenge.domain.model.Apoiador.class);
+            Long versaoEsperada = apoiadorInputDto.getVersao();
+            if (ifMatch != null) {
+                versaoEsperada = Etags.versaoDoIfMatch(ifMatch, id);
+                if (versaoEsperada == null && !"*".equals(ifMatch.trim())) {
+                    return Response.status(Response.Status.PRECONDITION_FAILED).build();
+                }
+            }
+
+            var apoiador = apoiadorMapper.paraDominio(apoiadorInputDto);
+            apoiador.setVersao(versaoEsperada);
             var apoiadorAtualizado = apoiadorApplicationService.atualizar(id, apoiador);
-            var response = modelMapper.map(apoiadorAtualizado, ApoiadorOutputDto.class);
+            var response = apoiadorMapper.paraSaida(apoiadorAtualizado);
 
-            return Response.ok(response).build();
+            return Response.ok(response).tag(Etags.doRecurso(apoiadorAtualizado.getId(), apoiadorAtualizado.getVersao())).build();
+        } catch (ConcurrentModificationException e) {
+            Response.Status status = ifMatch != null ? Response.Status.PRECONDITION_FAILED : Response.Status.CONFLICT;
+            return Response.status(status).entity(Map.of("error", e.getMessage())).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -105,12 +189,19 @@ public class ApoiadorController {
 
     @GET
     @Path("/cargo/{cargo}")
-    public Response buscarPorCargo(@PathParam("cargo") String cargo) {
+    public Response buscarPorCargo(@PathParam("cargo") String cargo, @Context Request request) {
         try {
-            List<ApoiadorOutputDto> apoiadores = apoiadorApplicationService.buscarPorCargo(cargo).stream()
-                    .map(apoiador -> modelMapper.map(apoiador, ApoiadorOutputDto.class))
+            List<ApoiadorResumo> resultado = apoiadorApplicationService.buscarPorCargo(cargo);
+            EntityTag etag = Etags.daColecao(resultado, ApoiadorResumo::getId, ApoiadorResumo::getVersao);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<ApoiadorResumoOutputDto> apoiadores = resultado.stream()
+                    .map(apoiadorMapper::paraResumo)
                     .collect(Collectors.toList());
-            return Response.ok(apoiadores).build();
+            return Response.ok(apoiadores).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -118,10 +209,10 @@ public class ApoiadorController {
 
     @GET
     @Path("/cargos")
-    public Response listarCargos() {
+    public Response listarCargos(@Context Request request) {
         try {
             List<String> cargos = apoiadorApplicationService.listarCargos();
-            return Response.ok(cargos).build();
+            return respostasReferencia.responder("cargos", cargos, request);
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("error", "Erro ao listar cargos: " + e.getMessage()))
@@ -228,7 +319,7 @@ public class ApoiadorController {
             System.out.println("DTO Nome: " + apoiadorInputDto.getNomeCompleto());
             System.out.println("DTO Cargo: " + apoiadorInputDto.getCargo());
 
-            var apoiador = modelMapper.map(apoiadorInputDto, br.com.challenge.domain.model.Apoiador.class);
+            var apoiador = apoiadorMapper.paraDominio(apoiadorInputDto);
 
             // DEBUG
             System.out.println("Entidade CPF: " + apoiador.getCpf());
@@ -236,7 +327,7 @@ public class ApoiadorController {
             System.out.println("Entidade Cargo: " + apoiador.getCargo());
 
             var apoiadorSalvo = apoiadorApplicationService.cadastrar(apoiador);
-            var response = modelMapper.map(apoiadorSalvo, ApoiadorOutputDto.class);
+            var response = apoiadorMapper.paraSaida(apoiadorSalvo);
 
             return Response.status(Response.Status.CREATED)
                     .entity(response)
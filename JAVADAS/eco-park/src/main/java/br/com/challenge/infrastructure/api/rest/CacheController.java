@@ -0,0 +1,31 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import br.com.challenge.infrastructure.persistence.CachesEntidades;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+
+@Path("/cache")
+@Produces({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
+public class CacheController {
+
+    @Inject
+    CachesEntidades cachesEntidades;
+
+    @GET
+    @Path("/estatisticas")
+    public Response estatisticas() {
+        try {
+            return Response.ok(cachesEntidades.estatisticas()).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", "Erro ao obter estatísticas do cache: " + e.getMessage()))
+                    .build();
+        }
+    }
+}
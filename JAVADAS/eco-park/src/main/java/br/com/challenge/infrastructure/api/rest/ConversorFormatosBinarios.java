@@ -0,0 +1,61 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Lê e escreve os DTOs em CBOR ou Smile quando o cliente pede um desses tipos
+ * no Accept (ou envia um deles no Content-Type). Corpos que o controller já
+ * entrega prontos (bytes, texto, streaming) ficam com os providers padrão.
+ */
+@Provider
+@Produces({FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
+@Consumes({FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
+public class ConversorFormatosBinarios implements MessageBodyWriter<Object>, MessageBodyReader<Object> {
+
+    @Inject
+    FormatosBinarios formatosBinarios;
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return !prontoParaEnvio(type);
+    }
+
+    @Override
+    public void writeTo(Object valor, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        formatosBinarios.mapperPara(mediaType).writeValue(entityStream, valor);
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return !prontoParaEnvio(type);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        var mapper = formatosBinarios.mapperPara(mediaType);
+        return mapper.readerFor(mapper.constructType(genericType)).readValue(entityStream);
+    }
+
+    private static boolean prontoParaEnvio(Class<?> type) {
+        return type == byte[].class
+                || type == String.class
+                || StreamingOutput.class.isAssignableFrom(type)
+                || InputStream.class.isAssignableFrom(type);
+    }
+}
\ No newline at end of file
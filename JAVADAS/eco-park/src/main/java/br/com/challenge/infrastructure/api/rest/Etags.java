@@ -0,0 +1,83 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import jakarta.ws.rs.core.EntityTag;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * ETags derivadas da coluna versao. Um recurso tem ETag forte "id-versao";
+ * uma coleção tem ETag fraca a partir dos pares (id, versao) dos itens, na
+ * ordem em que aparecem. Ambas são calculadas sobre o modelo de domínio, antes
+ * do ModelMapper e do Jackson, para que um 304 não pague a serialização.
+ */
+final class Etags {
+
+    private Etags() {}
+
+    static EntityTag doRecurso(Long id, Long versao) {
+        return new EntityTag(id + "-" + (versao != null ? versao : 0L));
+    }
+
+    /**
+     * Versão pedida num If-Match com a ETag forte do recurso {@code id}. Retorna
+     * null para "*" ou para um valor que não seja uma ETag deste recurso.
+     */
+    static Long versaoDoIfMatch(String ifMatch, Long id) {
+        String valor = ifMatch.trim();
+        String prefixo = "\"" + id + "-";
+        if (!valor.startsWith(prefixo) || !valor.endsWith("\"") || valor.length() <= prefixo.length() + 1) {
+            return null;
+        }
+        try {
+            return Long.parseLong(valor.substring(prefixo.length(), valor.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static <T> EntityTag daColecao(List<T> itens, Function<T, Long> id, Function<T, Long> versao) {
+        return daColecao(itens, id, versao, item -> null);
+    }
+
+    /**
+     * Como {@link #daColecao(List, Function, Function)}, incluindo um texto de
+     * cada item que não vem da sua linha versionada (como o nome do paciente
+     * de uma teleconsulta), para que a alteração dele também mude a ETag.
+     */
+    static <T> EntityTag daColecao(List<T> itens, Function<T, Long> id, Function<T, Long> versao,
+                                   Function<T, String> complemento) {
+        // FNV-1a de 64 bits sobre tamanho, IDs, versões e complementos
+        long hash = 0xcbf29ce484222325L;
+        hash = misturar(hash, itens.size());
+        for (T item : itens) {
+            Long v = versao.apply(item);
+            String c = complemento.apply(item);
+            hash = misturar(hash, id.apply(item));
+            hash = misturar(hash, v != null ? v : 0L);
+            hash = misturar(hash, c != null ? c.hashCode() : 0L);
+        }
+        return new EntityTag(Long.toHexString(hash), true);
+    }
+
+    /**
+     * ETag forte de um corpo já serializado, para respostas que não vêm de
+     * linhas versionadas.
+     */
+    static EntityTag doConteudo(byte[] conteudo) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : conteudo) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return new EntityTag(Long.toHexString(hash));
+    }
+
+    private static long misturar(long hash, long valor) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (valor >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
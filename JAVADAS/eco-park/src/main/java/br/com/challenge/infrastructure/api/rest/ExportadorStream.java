@@ -0,0 +1,53 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Escreve um array JSON direto na resposta HTTP, linha a linha, conforme o
+ * repositório percorre o ResultSet. Nenhuma lista intermediária é montada,
+ * então o consumo de heap de uma exportação completa não cresce com o volume.
+ * Para CBOR e Smile o array sai no formato binário, com o mesmo streaming.
+ */
+@ApplicationScoped
+public class ExportadorStream {
+
+    @Inject
+    FormatosBinarios formatosBinarios;
+
+    public <T> StreamingOutput exportar(Consumer<Consumer<T>> fonte, Function<T, ?> conversor, MediaType tipo) {
+        ObjectMapper objectMapper = formatosBinarios.mapperPara(tipo);
+        ObjectWriter escritor = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        return saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                // O stream da resposta é do contêiner: fechar o gerador só descarrega o que falta
+                gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gerador.writeStartArray();
+                fonte.accept(item -> {
+                    try {
+                        escritor.writeValue(gerador, conversor.apply(item));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                gerador.writeEndArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Variant;
+
+import java.util.List;
+
+/**
+ * Formatos binários aceitos pela API além do JSON, para clientes que puxam
+ * volumes grandes (como os workers de sincronização). CBOR e Smile carregam o
+ * mesmo modelo do JSON, com os módulos e configurações do ObjectMapper da
+ * aplicação, mas sem o custo de gerar e interpretar texto.
+ */
+@ApplicationScoped
+public class FormatosBinarios {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_CBOR_TYPE = new MediaType("application", "cbor");
+    public static final MediaType APPLICATION_SMILE_TYPE = new MediaType("application", "x-jackson-smile");
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private List<Variant> variantes;
+
+    @PostConstruct
+    void iniciar() {
+        cbor = binario(new CBORFactory());
+        smile = binario(new SmileFactory());
+        // JSON primeiro: é o formato de quem não pede nenhum dos outros
+        variantes = Variant.mediaTypes(MediaType.APPLICATION_JSON_TYPE, APPLICATION_CBOR_TYPE, APPLICATION_SMILE_TYPE).build();
+    }
+
+    /**
+     * ObjectMapper do formato pedido; o JSON da aplicação para qualquer tipo
+     * que não seja CBOR nem Smile.
+     */
+    public ObjectMapper mapperPara(MediaType tipo) {
+        if (mesmoTipo(tipo, APPLICATION_CBOR_TYPE)) {
+            return cbor;
+        }
+        if (mesmoTipo(tipo, APPLICATION_SMILE_TYPE)) {
+            return smile;
+        }
+        return objectMapper;
+    }
+
+    /**
+     * Tipo da resposta conforme o Accept da requisição, para respostas que não
+     * passam pela escolha do provider (corpos já serializados ou em streaming).
+     */
+    public MediaType negociar(Request request) {
+        Variant variante = request.selectVariant(variantes);
+        return variante != null ? variante.getMediaType() : MediaType.APPLICATION_JSON_TYPE;
+    }
+
+    private ObjectMapper binario(JsonFactory fabrica) {
+        ObjectMapper mapper = objectMapper.copyWith(fabrica);
+        // O container é quem fecha os streams da requisição e da resposta
+        mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        mapper.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+        return mapper;
+    }
+
+    private static boolean mesmoTipo(MediaType tipo, MediaType esperado) {
+        return tipo != null
+                && esperado.getType().equalsIgnoreCase(tipo.getType())
+                && esperado.getSubtype().equalsIgnoreCase(tipo.getSubtype());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import br.com.challenge.infrastructure.persistence.MapaIdentidade;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Informa em cada resposta quantas vezes a requisição foi ao banco e quantas
+ * buscas por ID foram atendidas pelo mapa de identidade da requisição.
+ */
+@Provider
+public class MetricasRequisicaoFilter implements ContainerResponseFilter {
+
+    @Inject
+    MapaIdentidade mapaIdentidade;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        responseContext.getHeaders().add("X-Consultas-Banco", mapaIdentidade.getConsultas());
+        responseContext.getHeaders().add("X-Entidades-Reaproveitadas", mapaIdentidade.getReaproveitadas());
+    }
+}
@@ -1,37 +1,64 @@
 package br.com.challenge.infrastructure.api.rest;
 
 import br.com.challenge.application.service.PacienteApplicationService;
+import br.com.challenge.domain.exceptions.ConcurrentModificationException;
+import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.PacienteResumo;
 import br.com.challenge.infrastructure.api.rest.dto.input.PacienteInputDto;
 import br.com.challenge.infrastructure.api.rest.dto.output.PacienteOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.PacienteResumoOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.PaginaOutputDto;
+import br.com.challenge.infrastructure.api.rest.mappers.PacienteMapper;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import org.modelmapper.ModelMapper;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 @Path("/pacientes")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
+@Consumes({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
 public class PacienteController {
 
     @Inject
     PacienteApplicationService pacienteApplicationService;
 
     @Inject
-    ModelMapper modelMapper;
+    PacienteMapper pacienteMapper;
+
+    @Inject
+    ExportadorStream exportadorStream;
+
+    @Inject
+    FormatosBinarios formatosBinarios;
 
     @GET
-    public Response listarTodos() {
+    public Response listarTodos(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+                                @Context Request request) {
+        if (limit != null || after != null) {
+            return listarPagina(after, limit, request);
+        }
+
         try {
-            List<PacienteOutputDto> pacientes = pacienteApplicationService.listarTodos().stream()
-                    .map(paciente -> modelMapper.map(paciente, PacienteOutputDto.class))
+            List<PacienteResumo> resultado = pacienteApplicationService.listarTodos();
+            EntityTag etag = Etags.daColecao(resultado, PacienteResumo::getId, PacienteResumo::getVersao);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<PacienteResumoOutputDto> pacientes = resultado.stream()
+                    .map(pacienteMapper::paraResumo)
                     .collect(Collectors.toList());
-            return Response.ok(pacientes).build();
+            return Response.ok(pacientes).tag(etag).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("error", "Erro ao listar pacientes: " + e.getMessage()))
@@ -39,13 +66,48 @@ public class PacienteController {
         }
     }
 
+    private Response listarPagina(String after, Integer limit, Request request) {
+        try {
+            var pagina = pacienteApplicationService.listarPagina(after, limit);
+            EntityTag etag = Etags.daColecao(pagina.getItens(), PacienteResumo::getId, PacienteResumo::getVersao);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<PacienteResumoOutputDto> itens = pagina.getItens().stream()
+                    .map(pacienteMapper::paraResumo)
+                    .collect(Collectors.toList());
+            return Response.ok(new PaginaOutputDto<>(itens, pagina.getProximoCursor())).tag(etag).build();
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+
+    @GET
+    @Path("/exportar")
+    public Response exportar(@Context Request request) {
+        MediaType tipo = formatosBinarios.negociar(request);
+        StreamingOutput corpo = exportadorStream.exportar(
+                pacienteApplicationService::percorrerTodos,
+                pacienteMapper::paraSaida,
+                tipo);
+        return Response.ok(corpo, tipo).build();
+    }
+
     @GET
     @Path("/{id}")
-    public Response buscarPorId(@PathParam("id") Long id) {
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request) {
         try {
             var paciente = pacienteApplicationService.buscarPorId(id);
-            var response = modelMapper.map(paciente, PacienteOutputDto.class);
-            return Response.ok(response).build();
+            EntityTag etag = Etags.doRecurso(paciente.getId(), paciente.getVersao());
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            var response = pacienteMapper.paraSaida(paciente);
+            return Response.ok(response).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -53,11 +115,17 @@ public class PacienteController {
 
     @GET
     @Path("/cpf/{cpf}")
-    public Response buscarPorCpf(@PathParam("cpf") String cpf) {
+    public Response buscarPorCpf(@PathParam("cpf") String cpf, @Context Request request) {
         try {
             var paciente = pacienteApplicationService.buscarPorCpf(cpf);
-            var response = modelMapper.map(paciente, PacienteOutputDto.class);
-            return Response.ok(response).build();
+            EntityTag etag = Etags.doRecurso(paciente.getId(), paciente.getVersao());
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            var response = pacienteMapper.paraSaida(paciente);
+            return Response.ok(response).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -66,9 +134,9 @@ public class PacienteController {
     //@POST
     //public Response cadastrar(@Valid PacienteInputDto pacienteInputDto) {
     //    try {
-    //        var paciente = modelMapper.map(pacienteInputDto, br.com.challenge.domain.model.Paciente.class);
+    //        var paciente = pacienteMapper.paraDominio(pacienteInputDto);
     //        var pacienteSalvo = pacienteApplicationService.cadastrar(paciente);
-    //        var response = modelMapper.map(pacienteSalvo, PacienteOutputDto.class);
+    //        var response = pacienteMapper.paraSaida(pacienteSalvo);
 //
  //            return Response.status(Response.Status.CREATED)
  //                   .entity(response)
@@ -80,13 +148,26 @@ public class PacienteController {
 
     @PUT
     @Path("/{id}")
-    public Response atualizar(@PathParam("id") Long id, @Valid PacienteInputDto pacienteInputDto) {
+    public Response atualizar(@PathParam("id") Long id, @Valid PacienteInputDto pacienteInputDto,
+                              @HeaderParam("If-Match") String ifMatch) {
         try {
-            var paciente = modelMapper.map(pacienteInputDto, br.com.challenge.domain.model.Paciente.class);
+            Long versaoEsperada = pacienteInputDto.getVersao();
+            if (ifMatch != null) {
+                versaoEsperada = Etags.versaoDoIfMatch(ifMatch, id);
+                if (versaoEsperada == null && !"*".equals(ifMatch.trim())) {
+                    return Response.status(Response.Status.PRECONDITION_FAILED).build();
+                }
+            }
+
+            var paciente = pacienteMapper.paraDominio(pacienteInputDto);
+            paciente.setVersao(versaoEsperada);
             var pacienteAtualizado = pacienteApplicationService.atualizar(id, paciente);
-            var response = modelMapper.map(pacienteAtualizado, PacienteOutputDto.class);
+            var response = pacienteMapper.paraSaida(pacienteAtualizado);
 
-            return Response.ok(response).build();
+            return Response.ok(response).tag(Etags.doRecurso(pacienteAtualizado.getId(), pacienteAtualizado.getVersao())).build();
+        } catch (ConcurrentModificationException e) {
+            Response.Status status = ifMatch != null ? Response.Status.PRECONDITION_FAILED : Response.Status.CONFLICT;
+            return Response.status(status).entity(Map.of("error", e.getMessage())).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -105,12 +186,19 @@ public class PacienteController {
 
     @GET
     @Path("/apoiador/{apoiadorId}")
-    public Response buscarPorApoiador(@PathParam("apoiadorId") Long apoiadorId) {
+    public Response buscarPorApoiador(@PathParam("apoiadorId") Long apoiadorId, @Context Request request) {
         try {
-            List<PacienteOutputDto> pacientes = pacienteApplicationService.buscarPorApoiador(apoiadorId).stream()
-                    .map(paciente -> modelMapper.map(paciente, PacienteOutputDto.class))
+            List<PacienteResumo> resultado = pacienteApplicationService.buscarPorApoiador(apoiadorId);
+            EntityTag etag = Etags.daColecao(resultado, PacienteResumo::getId, PacienteResumo::getVersao);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<PacienteResumoOutputDto> pacientes = resultado.stream()
+                    .map(pacienteMapper::paraResumo)
                     .collect(Collectors.toList());
-            return Response.ok(pacientes).build();
+            return Response.ok(pacientes).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -179,15 +267,15 @@ public class PacienteController {
             System.out.println("DTO Nome: " + pacienteInputDto.getNomeCompleto());
             System.out.println("DTO Idade: " + pacienteInputDto.getIdade());
 
-            var paciente = modelMapper.map(pacienteInputDto, br.com.challenge.domain.model.Paciente.class);
+            var paciente = pacienteMapper.paraDominio(pacienteInputDto);
 
-            // DEBUG - Verificar se o ModelMapper está funcionando
+            // DEBUG - Verificar se o mapeamento está funcionando
             System.out.println("Entidade CPF: " + paciente.getCpf());
             System.out.println("Entidade Nome: " + paciente.getNomeCompleto());
             System.out.println("Entidade Idade: " + paciente.getIdade());
 
             var pacienteSalvo = pacienteApplicationService.cadastrar(paciente);
-            var response = modelMapper.map(pacienteSalvo, PacienteOutputDto.class);
+            var response = pacienteMapper.paraSaida(pacienteSalvo);
 
             return Response.status(Response.Status.CREATED)
                     .entity(response)
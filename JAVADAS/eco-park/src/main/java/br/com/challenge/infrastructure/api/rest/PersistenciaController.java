@@ -0,0 +1,31 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import br.com.challenge.infrastructure.persistence.EstatisticasOperacoes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+
+@Path("/persistencia")
+@Produces({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
+public class PersistenciaController {
+
+    @Inject
+    EstatisticasOperacoes estatisticasOperacoes;
+
+    @GET
+    @Path("/estatisticas")
+    public Response estatisticas() {
+        try {
+            return Response.ok(estatisticasOperacoes.estatisticas()).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", "Erro ao obter estatísticas da persistência: " + e.getMessage()))
+                    .build();
+        }
+    }
+}
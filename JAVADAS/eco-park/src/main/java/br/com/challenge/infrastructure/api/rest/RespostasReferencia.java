@@ -0,0 +1,78 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Respostas das listas de referência (cargos, médicos, status) com o JSON já
+ * serializado. Os bytes e a ETag são gerados uma vez por instância de lista:
+ * enquanto o conjunto em memória não muda, a mesma lista volta e a resposta é
+ * só a cópia dos bytes prontos, ou um 304 quando o cliente já os tem. Cada
+ * formato pedido no Accept (JSON, CBOR, Smile) tem os seus próprios bytes.
+ */
+@ApplicationScoped
+public class RespostasReferencia {
+
+    @Inject
+    FormatosBinarios formatosBinarios;
+
+    @ConfigProperty(name = "app.referencia.max-age-segundos", defaultValue = "3600")
+    int maxAgeSegundos;
+
+    private final ConcurrentHashMap<String, Serializada> serializadas = new ConcurrentHashMap<>();
+
+    public Response responder(String nome, List<String> valores, Request request) {
+        MediaType tipo = formatosBinarios.negociar(request);
+        String chave = nome + " " + tipo;
+        Serializada atual = serializadas.get(chave);
+        if (atual == null || atual.valores != valores) {
+            atual = serializar(valores, tipo);
+            serializadas.put(chave, atual);
+        }
+
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setMaxAge(maxAgeSegundos);
+
+        Response.ResponseBuilder naoModificado = request.evaluatePreconditions(atual.etag);
+        if (naoModificado != null) {
+            return naoModificado.cacheControl(cacheControl).build();
+        }
+        return Response.ok(atual.corpo, tipo)
+                .tag(atual.etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    private Serializada serializar(List<String> valores, MediaType tipo) {
+        try {
+            byte[] corpo = formatosBinarios.mapperPara(tipo).writeValueAsBytes(valores);
+            return new Serializada(valores, corpo, Etags.doConteudo(corpo));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Serializada {
+
+        private final List<String> valores;
+        private final byte[] corpo;
+        private final EntityTag etag;
+
+        Serializada(List<String> valores, byte[] corpo, EntityTag etag) {
+            this.valores = valores;
+            this.corpo = corpo;
+            this.etag = etag;
+        }
+    }
+}
@@ -1,40 +1,73 @@
 package br.com.challenge.infrastructure.api.rest;
 
 import br.com.challenge.application.service.TeleconsultaApplicationService;
+import br.com.challenge.domain.exceptions.ConcurrentModificationException;
+import br.com.challenge.domain.exceptions.ValidationException;
+import br.com.challenge.domain.model.Teleconsulta;
 import br.com.challenge.infrastructure.api.rest.dto.input.TeleconsultaInputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.HorarioLivreOutputDto;
 import br.com.challenge.infrastructure.api.rest.dto.output.TeleconsultaOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.PaginaOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.ResultadoLoteOutputDto;
 import br.com.challenge.infrastructure.api.rest.dto.request.StatusUpdateRequest;
 import br.com.challenge.infrastructure.api.rest.dto.request.ObservacoesRequest;
+import br.com.challenge.infrastructure.api.rest.mappers.TeleconsultaMapper;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import org.modelmapper.ModelMapper;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 @Path("/teleconsultas")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
+@Consumes({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
 public class TeleconsultaController {
 
     @Inject
     TeleconsultaApplicationService teleconsultaApplicationService;
 
     @Inject
-    ModelMapper modelMapper;
+    TeleconsultaMapper teleconsultaMapper;
+
+    @Inject
+    ExportadorStream exportadorStream;
+
+    @Inject
+    FormatosBinarios formatosBinarios;
+
+    @Inject
+    RespostasReferencia respostasReferencia;
 
     @GET
-    public Response listarTodas() {
+    public Response listarTodas(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+                                @Context Request request) {
+        if (limit != null || after != null) {
+            return listarPagina(after, limit, request);
+        }
+
         try {
-            List<TeleconsultaOutputDto> teleconsultas = teleconsultaApplicationService.listarTodas().stream()
-                    .map(teleconsulta -> modelMapper.map(teleconsulta, TeleconsultaOutputDto.class))
+            List<Teleconsulta> resultado = teleconsultaApplicationService.listarTodas();
+            EntityTag etag = Etags.daColecao(resultado, Teleconsulta::getId, Teleconsulta::getVersao,
+                    Teleconsulta::getNomePaciente);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<TeleconsultaOutputDto> teleconsultas = resultado.stream()
+                    .map(teleconsultaMapper::paraSaida)
                     .collect(Collectors.toList());
-            return Response.ok(teleconsultas).build();
+            return Response.ok(teleconsultas).tag(etag).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("error", "Erro ao listar teleconsultas: " + e.getMessage()))
@@ -42,13 +75,49 @@ public class TeleconsultaController {
         }
     }
 
+    private Response listarPagina(String after, Integer limit, Request request) {
+        try {
+            var pagina = teleconsultaApplicationService.listarPagina(after, limit);
+            EntityTag etag = Etags.daColecao(pagina.getItens(), Teleconsulta::getId, Teleconsulta::getVersao,
+                    Teleconsulta::getNomePaciente);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<TeleconsultaOutputDto> itens = pagina.getItens().stream()
+                    .map(teleconsultaMapper::paraSaida)
+                    .collect(Collectors.toList());
+            return Response.ok(new PaginaOutputDto<>(itens, pagina.getProximoCursor())).tag(etag).build();
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+
+    @GET
+    @Path("/exportar")
+    public Response exportar(@Context Request request) {
+        MediaType tipo = formatosBinarios.negociar(request);
+        StreamingOutput corpo = exportadorStream.exportar(
+                teleconsultaApplicationService::percorrerTodas,
+                teleconsultaMapper::paraSaida,
+                tipo);
+        return Response.ok(corpo, tipo).build();
+    }
+
     @GET
     @Path("/{id}")
-    public Response buscarPorId(@PathParam("id") Long id) {
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request) {
         try {
             var teleconsulta = teleconsultaApplicationService.buscarPorId(id);
-            var response = modelMapper.map(teleconsulta, TeleconsultaOutputDto.class);
-            return Response.ok(response).build();
+            EntityTag etag = Etags.doRecurso(teleconsulta.getId(), teleconsulta.getVersao());
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            var response = teleconsultaMapper.paraSaida(teleconsulta);
+            return Response.ok(response).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -57,9 +126,9 @@ public class TeleconsultaController {
     @POST
     public Response agendar(@Valid TeleconsultaInputDto teleconsultaInputDto) {
         try {
-            var teleconsulta = modelMapper.map(teleconsultaInputDto, br.com.challenge.domain.model.Teleconsulta.class);
+            var teleconsulta = teleconsultaMapper.paraDominio(teleconsultaInputDto);
             var teleconsultaAgendada = teleconsultaApplicationService.agendar(teleconsulta);
-            var response = modelMapper.map(teleconsultaAgendada, TeleconsultaOutputDto.class);
+            var response = teleconsultaMapper.paraSaida(teleconsultaAgendada);
 
             return Response.status(Response.Status.CREATED)
                     .entity(response)
@@ -69,15 +138,54 @@ public class TeleconsultaController {
         }
     }
 
+    @POST
+    @Path("/lote")
+    public Response agendarEmLote(List<TeleconsultaInputDto> teleconsultasInputDto) {
+        try {
+            if (teleconsultasInputDto == null) {
+                throw new ValidationException("Lote inválido: informe ao menos uma teleconsulta");
+            }
+
+            List<Teleconsulta> teleconsultas = teleconsultasInputDto.stream()
+                    .map(dto -> dto != null ? teleconsultaMapper.paraDominio(dto) : null)
+                    .collect(Collectors.toList());
+
+            List<ResultadoLoteOutputDto> resultados = teleconsultaApplicationService.agendarEmLote(teleconsultas).stream()
+                    .map(resultado -> new ResultadoLoteOutputDto(
+                            resultado.getIndice(),
+                            resultado.isSucesso(),
+                            resultado.isSucesso() ? teleconsultaMapper.paraSaida(resultado.getTeleconsulta()) : null,
+                            resultado.getErro()))
+                    .collect(Collectors.toList());
+
+            return Response.ok(resultados).build();
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+
     @PUT
     @Path("/{id}")
-    public Response atualizar(@PathParam("id") Long id, @Valid TeleconsultaInputDto teleconsultaInputDto) {
+    public Response atualizar(@PathParam("id") Long id, @Valid TeleconsultaInputDto teleconsultaInputDto,
+                              @HeaderParam("If-Match") String ifMatch) {
         try {
-            var teleconsulta = modelMapper.map(teleconsultaInputDto, br.com.challenge.domain.model.Teleconsulta.class);
+            Long versaoEsperada = teleconsultaInputDto.getVersao();
+            if (ifMatch != null) {
+                versaoEsperada = Etags.versaoDoIfMatch(ifMatch, id);
+                if (versaoEsperada == null && !"*".equals(ifMatch.trim())) {
+                    return Response.status(Response.Status.PRECONDITION_FAILED).build();
+                }
+            }
+
+            var teleconsulta = teleconsultaMapper.paraDominio(teleconsultaInputDto);
+            teleconsulta.setVersao(versaoEsperada);
             var teleconsultaAtualizada = teleconsultaApplicationService.atualizar(id, teleconsulta);
-            var response = modelMapper.map(teleconsultaAtualizada, TeleconsultaOutputDto.class);
+            var response = teleconsultaMapper.paraSaida(teleconsultaAtualizada);
 
-            return Response.ok(response).build();
+            return Response.ok(response).tag(Etags.doRecurso(teleconsultaAtualizada.getId(), teleconsultaAtualizada.getVersao())).build();
+        } catch (ConcurrentModificationException e) {
+            Response.Status status = ifMatch != null ? Response.Status.PRECONDITION_FAILED : Response.Status.CONFLICT;
+            return Response.status(status).entity(Map.of("error", e.getMessage())).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -107,12 +215,20 @@ public class TeleconsultaController {
 
     @GET
     @Path("/paciente/{pacienteId}")
-    public Response buscarPorPaciente(@PathParam("pacienteId") Long pacienteId) {
+    public Response buscarPorPaciente(@PathParam("pacienteId") Long pacienteId, @Context Request request) {
         try {
-            List<TeleconsultaOutputDto> teleconsultas = teleconsultaApplicationService.buscarPorPaciente(pacienteId).stream()
-                    .map(teleconsulta -> modelMapper.map(teleconsulta, TeleconsultaOutputDto.class))
+            List<Teleconsulta> resultado = teleconsultaApplicationService.buscarPorPaciente(pacienteId);
+            EntityTag etag = Etags.daColecao(resultado, Teleconsulta::getId, Teleconsulta::getVersao,
+                    Teleconsulta::getNomePaciente);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<TeleconsultaOutputDto> teleconsultas = resultado.stream()
+                    .map(teleconsultaMapper::paraSaida)
                     .collect(Collectors.toList());
-            return Response.ok(teleconsultas).build();
+            return Response.ok(teleconsultas).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -120,12 +236,20 @@ public class TeleconsultaController {
 
     @GET
     @Path("/medico/{medico}")
-    public Response buscarPorMedico(@PathParam("medico") String medico) {
+    public Response buscarPorMedico(@PathParam("medico") String medico, @Context Request request) {
         try {
-            List<TeleconsultaOutputDto> teleconsultas = teleconsultaApplicationService.buscarPorMedico(medico).stream()
-                    .map(teleconsulta -> modelMapper.map(teleconsulta, TeleconsultaOutputDto.class))
+            List<Teleconsulta> resultado = teleconsultaApplicationService.buscarPorMedico(medico);
+            EntityTag etag = Etags.daColecao(resultado, Teleconsulta::getId, Teleconsulta::getVersao,
+                    Teleconsulta::getNomePaciente);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<TeleconsultaOutputDto> teleconsultas = resultado.stream()
+                    .map(teleconsultaMapper::paraSaida)
                     .collect(Collectors.toList());
-            return Response.ok(teleconsultas).build();
+            return Response.ok(teleconsultas).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -133,12 +257,20 @@ public class TeleconsultaController {
 
     @GET
     @Path("/status/{status}")
-    public Response buscarPorStatus(@PathParam("status") String status) {
+    public Response buscarPorStatus(@PathParam("status") String status, @Context Request request) {
         try {
-            List<TeleconsultaOutputDto> teleconsultas = teleconsultaApplicationService.buscarPorStatus(status).stream()
-                    .map(teleconsulta -> modelMapper.map(teleconsulta, TeleconsultaOutputDto.class))
+            List<Teleconsulta> resultado = teleconsultaApplicationService.buscarPorStatus(status);
+            EntityTag etag = Etags.daColecao(resultado, Teleconsulta::getId, Teleconsulta::getVersao,
+                    Teleconsulta::getNomePaciente);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<TeleconsultaOutputDto> teleconsultas = resultado.stream()
+                    .map(teleconsultaMapper::paraSaida)
                     .collect(Collectors.toList());
-            return Response.ok(teleconsultas).build();
+            return Response.ok(teleconsultas).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -146,12 +278,20 @@ public class TeleconsultaController {
 
     @GET
     @Path("/hoje")
-    public Response consultasDeHoje() {
+    public Response consultasDeHoje(@Context Request request) {
         try {
-            List<TeleconsultaOutputDto> teleconsultas = teleconsultaApplicationService.consultasDeHoje().stream()
-                    .map(teleconsulta -> modelMapper.map(teleconsulta, TeleconsultaOutputDto.class))
+            List<Teleconsulta> resultado = teleconsultaApplicationService.consultasDeHoje();
+            EntityTag etag = Etags.daColecao(resultado, Teleconsulta::getId, Teleconsulta::getVersao,
+                    Teleconsulta::getNomePaciente);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<TeleconsultaOutputDto> teleconsultas = resultado.stream()
+                    .map(teleconsultaMapper::paraSaida)
                     .collect(Collectors.toList());
-            return Response.ok(teleconsultas).build();
+            return Response.ok(teleconsultas).tag(etag).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("error", "Erro ao buscar consultas de hoje: " + e.getMessage()))
@@ -194,6 +334,60 @@ public class TeleconsultaController {
         }
     }
 
+    @GET
+    @Path("/slots-livres")
+    public Response buscarSlotsLivres(@QueryParam("medico") String medico,
+                                      @QueryParam("de") String deStr,
+                                      @QueryParam("ate") String ateStr,
+                                      @QueryParam("limite") Integer limite) {
+        try {
+            LocalDateTime de = parseDataHora(deStr, "de");
+            LocalDateTime ate = parseDataHora(ateStr, "ate");
+            List<LocalDateTime> slots = teleconsultaApplicationService.buscarSlotsLivres(medico, de, ate, limite);
+            return Response.ok(Map.of("medico", medico, "slots", slots)).build();
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+
+    @GET
+    @Path("/primeiros-disponiveis")
+    public Response buscarPrimeirosDisponiveis(@QueryParam("medico") List<String> medicos,
+                                               @QueryParam("de") String deStr,
+                                               @QueryParam("ate") String ateStr,
+                                               @QueryParam("limite") Integer limite) {
+        try {
+            LocalDateTime de = parseDataHora(deStr, "de");
+            LocalDateTime ate = parseDataHora(ateStr, "ate");
+            List<HorarioLivreOutputDto> horarios = teleconsultaApplicationService
+                    .buscarPrimeirosDisponiveis(medicos, de, ate, limite).stream()
+                    .map(horario -> new HorarioLivreOutputDto(horario.getMedico(), horario.getDataHora()))
+                    .collect(Collectors.toList());
+            return Response.ok(horarios).build();
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+
+    @GET
+    @Path("/medicos")
+    public Response listarMedicos(@Context Request request) {
+        try {
+            List<String> medicos = teleconsultaApplicationService.listarMedicos();
+            return respostasReferencia.responder("medicos", medicos, request);
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(Map.of("error", "Erro ao listar médicos: " + e.getMessage()))
+                    .build();
+        }
+    }
+
+    @GET
+    @Path("/status")
+    public Response listarStatus(@Context Request request) {
+        return respostasReferencia.responder("status", teleconsultaApplicationService.listarStatus(), request);
+    }
+
     @GET
     @Path("/estatisticas/total")
     public Response contarTotal() {
@@ -224,6 +418,18 @@ public class TeleconsultaController {
         return Response.ok(Map.of("status", "UP", "servico", "teleconsultas")).build();
     }
 
+    private LocalDateTime parseDataHora(String valor, String parametro) {
+        if (valor == null || valor.isBlank()) {
+            throw new ValidationException("Parâmetro '" + parametro + "' inválido: informe data e hora no formato ISO (2024-01-15T14:30)");
+        }
+
+        try {
+            return LocalDateTime.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Parâmetro '" + parametro + "' inválido: informe data e hora no formato ISO (2024-01-15T14:30)");
+        }
+    }
+
     private Response handleException(Exception e) {
         Map<String, String> errorResponse = Map.of("error", e.getMessage());
 
@@ -2,6 +2,7 @@ package br.com.challenge.infrastructure.api.rest;
 
 import br.com.challenge.domain.service.UsuarioService;
 import br.com.challenge.domain.model.Usuario;
+import br.com.challenge.domain.model.UsuarioResumo;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -13,7 +14,7 @@ public class UsuarioApplicationController {
     @Inject
     UsuarioService usuarioService;
 
-    public List<Usuario> listarTodos() {
+    public List<UsuarioResumo> listarTodos() {
         return usuarioService.listarTodos();
     }
 
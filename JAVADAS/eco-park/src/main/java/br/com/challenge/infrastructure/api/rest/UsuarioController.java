@@ -1,38 +1,65 @@
 package br.com.challenge.infrastructure.api.rest;
 
 import br.com.challenge.application.service.UsuarioApplicationService;
+import br.com.challenge.domain.exceptions.ConcurrentModificationException;
+import br.com.challenge.domain.model.Usuario;
+import br.com.challenge.domain.model.UsuarioResumo;
 import br.com.challenge.infrastructure.api.rest.dto.input.UsuarioInputDto;
 import br.com.challenge.infrastructure.api.rest.dto.output.UsuarioOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.UsuarioResumoOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.PaginaOutputDto;
 import br.com.challenge.infrastructure.api.rest.dto.request.LoginRequest;
+import br.com.challenge.infrastructure.api.rest.mappers.UsuarioMapper;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import org.modelmapper.ModelMapper;
+import jakarta.ws.rs.core.StreamingOutput;
 
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 @Path("/usuarios")
-@Produces(MediaType.APPLICATION_JSON)
-@Consumes(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
+@Consumes({MediaType.APPLICATION_JSON, FormatosBinarios.APPLICATION_CBOR, FormatosBinarios.APPLICATION_SMILE})
 public class UsuarioController {
 
     @Inject
     UsuarioApplicationService usuarioApplicationService;
 
     @Inject
-    ModelMapper modelMapper;
+    UsuarioMapper usuarioMapper;
+
+    @Inject
+    ExportadorStream exportadorStream;
+
+    @Inject
+    FormatosBinarios formatosBinarios;
 
     @GET
-    public Response listarTodos() {
+    public Response listarTodos(@QueryParam("limit") Integer limit, @QueryParam("after") String after,
+                                @Context Request request) {
+        if (limit != null || after != null) {
+            return listarPagina(after, limit, request);
+        }
+
         try {
-            List<UsuarioOutputDto> usuarios = usuarioApplicationService.listarTodos().stream()
-                    .map(usuario -> modelMapper.map(usuario, UsuarioOutputDto.class))
+            List<UsuarioResumo> resultado = usuarioApplicationService.listarTodos();
+            EntityTag etag = Etags.daColecao(resultado, UsuarioResumo::getId, UsuarioResumo::getVersao);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<UsuarioResumoOutputDto> usuarios = resultado.stream()
+                    .map(usuarioMapper::paraResumo)
                     .collect(Collectors.toList());
-            return Response.ok(usuarios).build();
+            return Response.ok(usuarios).tag(etag).build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(Map.of("error", "Erro ao listar usuários: " + e.getMessage()))
@@ -40,13 +67,48 @@ public class UsuarioController {
         }
     }
 
+    private Response listarPagina(String after, Integer limit, Request request) {
+        try {
+            var pagina = usuarioApplicationService.listarPagina(after, limit);
+            EntityTag etag = Etags.daColecao(pagina.getItens(), UsuarioResumo::getId, UsuarioResumo::getVersao);
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            List<UsuarioResumoOutputDto> itens = pagina.getItens().stream()
+                    .map(usuarioMapper::paraResumo)
+                    .collect(Collectors.toList());
+            return Response.ok(new PaginaOutputDto<>(itens, pagina.getProximoCursor())).tag(etag).build();
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+
+    @GET
+    @Path("/exportar")
+    public Response exportar(@Context Request request) {
+        MediaType tipo = formatosBinarios.negociar(request);
+        StreamingOutput corpo = exportadorStream.exportar(
+                usuarioApplicationService::percorrerTodos,
+                usuarioMapper::paraSaida,
+                tipo);
+        return Response.ok(corpo, tipo).build();
+    }
+
     @GET
     @Path("/{id}")
-    public Response buscarPorId(@PathParam("id") Long id) {
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request) {
         try {
             var usuario = usuarioApplicationService.buscarPorId(id);
-            var response = modelMapper.map(usuario, UsuarioOutputDto.class);
-            return Response.ok(response).build();
+            EntityTag etag = Etags.doRecurso(usuario.getId(), usuario.getVersao());
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            var response = usuarioMapper.paraSaida(usuario);
+            return Response.ok(response).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -54,11 +116,17 @@ public class UsuarioController {
 
     @GET
     @Path("/cpf/{cpf}")
-    public Response buscarPorCpf(@PathParam("cpf") String cpf) {
+    public Response buscarPorCpf(@PathParam("cpf") String cpf, @Context Request request) {
         try {
             var usuario = usuarioApplicationService.buscarPorCpf(cpf);
-            var response = modelMapper.map(usuario, UsuarioOutputDto.class);
-            return Response.ok(response).build();
+            EntityTag etag = Etags.doRecurso(usuario.getId(), usuario.getVersao());
+            Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+            if (naoModificado != null) {
+                return naoModificado.build();
+            }
+
+            var response = usuarioMapper.paraSaida(usuario);
+            return Response.ok(response).tag(etag).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -67,9 +135,9 @@ public class UsuarioController {
     @POST
     public Response cadastrar(@Valid UsuarioInputDto usuarioInputDto) {
         try {
-            var usuario = modelMapper.map(usuarioInputDto, br.com.challenge.domain.model.Usuario.class);
+            var usuario = usuarioMapper.paraDominio(usuarioInputDto);
             var usuarioSalvo = usuarioApplicationService.cadastrar(usuario);
-            var response = modelMapper.map(usuarioSalvo, UsuarioOutputDto.class);
+            var response = usuarioMapper.paraSaida(usuarioSalvo);
 
             return Response.status(Response.Status.CREATED)
                     .entity(response)
@@ -81,13 +149,26 @@ public class UsuarioController {
 
     @PUT
     @Path("/{id}")
-    public Response atualizar(@PathParam("id") Long id, @Valid UsuarioInputDto usuarioInputDto) {
+    public Response atualizar(@PathParam("id") Long id, @Valid UsuarioInputDto usuarioInputDto,
+                              @HeaderParam("If-Match") String ifMatch) {
         try {
-            var usuario = modelMapper.map(usuarioInputDto, br.com.challenge.domain.model.Usuario.class);
+            Long versaoEsperada = usuarioInputDto.getVersao();
+            if (ifMatch != null) {
+                versaoEsperada = Etags.versaoDoIfMatch(ifMatch, id);
+                if (versaoEsperada == null && !"*".equals(ifMatch.trim())) {
+                    return Response.status(Response.Status.PRECONDITION_FAILED).build();
+                }
+            }
+
+            var usuario = usuarioMapper.paraDominio(usuarioInputDto);
+            usuario.setVersao(versaoEsperada);
             var usuarioAtualizado = usuarioApplicationService.atualizar(id, usuario);
-            var response = modelMapper.map(usuarioAtualizado, UsuarioOutputDto.class);
+            var response = usuarioMapper.paraSaida(usuarioAtualizado);
 
-            return Response.ok(response).build();
+            return Response.ok(response).tag(Etags.doRecurso(usuarioAtualizado.getId(), usuarioAtualizado.getVersao())).build();
+        } catch (ConcurrentModificationException e) {
+            Response.Status status = ifMatch != null ? Response.Status.PRECONDITION_FAILED : Response.Status.CONFLICT;
+            return Response.status(status).entity(Map.of("error", e.getMessage())).build();
         } catch (Exception e) {
             return handleException(e);
         }
@@ -157,6 +238,16 @@ public class UsuarioController {
         }
     }
 
+    @POST
+    @Path("/verificar-cpfs")
+    public Response verificarCpfs(List<String> cpfs) {
+        try {
+            return Response.ok(usuarioApplicationService.verificarDisponibilidadeCpfs(cpfs)).build();
+        } catch (Exception e) {
+            return handleException(e);
+        }
+    }
+
     @GET
     @Path("/health")
     public Response healthCheck() {
@@ -0,0 +1,22 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * O mesmo recurso sai em JSON, CBOR ou Smile conforme o Accept: o Vary impede
+ * que um cache intermediário entregue a um cliente o formato pedido por outro.
+ */
+@Provider
+public class VariacaoFormatoFilter implements ContainerResponseFilter {
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (responseContext.hasEntity()) {
+            responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+}
\ No newline at end of file
@@ -30,6 +30,9 @@ public class TeleconsultaInputDto {
     @Schema(description = "Observações da consulta", example = "Paciente com hipertensão controlada")
     private String observacoes;
 
+    @Schema(description = "Versão esperada do registro na atualização; sem ela e sem If-Match, a última escrita vence", example = "3")
+    private Long versao;
+
     // Getters e Setters
     public Long getPacienteId() { return pacienteId; }
     public void setPacienteId(Long pacienteId) { this.pacienteId = pacienteId; }
@@ -45,4 +48,7 @@ public class TeleconsultaInputDto {
 
     public String getObservacoes() { return observacoes; }
     public void setObservacoes(String observacoes) { this.observacoes = observacoes; }
-}
\ No newline at end of file
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+}
@@ -45,6 +45,9 @@ public class UsuarioInputDto {
     @Schema(description = "Senha do usuário", example = "senha123")
     private String senha;
 
+    @Schema(description = "Versão esperada do registro na atualização; sem ela e sem If-Match, a última escrita vence", example = "3")
+    private Long versao;
+
     public String getNomeCompleto() { return nomeCompleto; }
     public void setNomeCompleto(String nomeCompleto) { this.nomeCompleto = nomeCompleto; }
 
@@ -68,4 +71,7 @@ public class UsuarioInputDto {
 
     public String getSenha() { return senha; }
     public void setSenha(String senha) { this.senha = senha; }
-}
\ No newline at end of file
+
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+}
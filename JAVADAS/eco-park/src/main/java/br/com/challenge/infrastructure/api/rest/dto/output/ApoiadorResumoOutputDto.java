@@ -0,0 +1,21 @@
+package br.com.challenge.infrastructure.api.rest.dto.output;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "DTO de resposta resumido para listagens de apoiadores")
+public class ApoiadorResumoOutputDto extends UsuarioResumoOutputDto {
+
+    @Schema(description = "Cargo do apoiador", example = "Enfermeiro")
+    private String cargo;
+
+    @Schema(description = "Área de atuação", example = "Enfermagem Geriátrica")
+    private String areaAtuacao;
+
+    public ApoiadorResumoOutputDto() {}
+
+    public String getCargo() { return cargo; }
+    public void setCargo(String cargo) { this.cargo = cargo; }
+
+    public String getAreaAtuacao() { return areaAtuacao; }
+    public void setAreaAtuacao(String areaAtuacao) { this.areaAtuacao = areaAtuacao; }
+}
@@ -0,0 +1,28 @@
+package br.com.challenge.infrastructure.api.rest.dto.output;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "DTO de resposta para um horário livre de um médico")
+public class HorarioLivreOutputDto {
+
+    @Schema(description = "Nome do médico", example = "Dr. Carlos Alberto")
+    private String medico;
+
+    @Schema(description = "Início do horário livre", example = "2024-01-15T14:30:00")
+    private LocalDateTime dataHora;
+
+    public HorarioLivreOutputDto() {}
+
+    public HorarioLivreOutputDto(String medico, LocalDateTime dataHora) {
+        this.medico = medico;
+        this.dataHora = dataHora;
+    }
+
+    public String getMedico() { return medico; }
+    public void setMedico(String medico) { this.medico = medico; }
+
+    public LocalDateTime getDataHora() { return dataHora; }
+    public void setDataHora(LocalDateTime dataHora) { this.dataHora = dataHora; }
+}
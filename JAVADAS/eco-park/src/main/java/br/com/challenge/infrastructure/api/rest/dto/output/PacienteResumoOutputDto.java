@@ -0,0 +1,21 @@
+package br.com.challenge.infrastructure.api.rest.dto.output;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "DTO de resposta resumido para listagens de pacientes")
+public class PacienteResumoOutputDto extends UsuarioResumoOutputDto {
+
+    @Schema(description = "Número do SUS ou Convênio", example = "123456789012345")
+    private String numeroSusOuConvenio;
+
+    @Schema(description = "ID do apoiador vinculado", example = "1")
+    private Long apoiadorId;
+
+    public PacienteResumoOutputDto() {}
+
+    public String getNumeroSusOuConvenio() { return numeroSusOuConvenio; }
+    public void setNumeroSusOuConvenio(String numeroSusOuConvenio) { this.numeroSusOuConvenio = numeroSusOuConvenio; }
+
+    public Long getApoiadorId() { return apoiadorId; }
+    public void setApoiadorId(Long apoiadorId) { this.apoiadorId = apoiadorId; }
+}
@@ -0,0 +1,28 @@
+package br.com.challenge.infrastructure.api.rest.dto.output;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "DTO de resposta para listagens paginadas por cursor")
+public class PaginaOutputDto<T> {
+
+    @Schema(description = "Itens da página")
+    private List<T> itens;
+
+    @Schema(description = "Cursor opaco para a próxima página (ausente na última página)", example = "MjAyNC0wMS0xNVQxNDozMHwxMg")
+    private String proximoCursor;
+
+    public PaginaOutputDto() {}
+
+    public PaginaOutputDto(List<T> itens, String proximoCursor) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() { return itens; }
+    public void setItens(List<T> itens) { this.itens = itens; }
+
+    public String getProximoCursor() { return proximoCursor; }
+    public void setProximoCursor(String proximoCursor) { this.proximoCursor = proximoCursor; }
+}
@@ -0,0 +1,40 @@
+package br.com.challenge.infrastructure.api.rest.dto.output;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "DTO de resposta para cada item de um agendamento em lote")
+public class ResultadoLoteOutputDto {
+
+    @Schema(description = "Posição do item no lote enviado", example = "0")
+    private Integer indice;
+
+    @Schema(description = "Indica se o item foi agendado", example = "true")
+    private Boolean sucesso;
+
+    @Schema(description = "Teleconsulta agendada (apenas em caso de sucesso)")
+    private TeleconsultaOutputDto teleconsulta;
+
+    @Schema(description = "Motivo da recusa (apenas em caso de falha)", example = "Médico não disponível no horário selecionado")
+    private String erro;
+
+    public ResultadoLoteOutputDto() {}
+
+    public ResultadoLoteOutputDto(Integer indice, Boolean sucesso, TeleconsultaOutputDto teleconsulta, String erro) {
+        this.indice = indice;
+        this.sucesso = sucesso;
+        this.teleconsulta = teleconsulta;
+        this.erro = erro;
+    }
+
+    public Integer getIndice() { return indice; }
+    public void setIndice(Integer indice) { this.indice = indice; }
+
+    public Boolean getSucesso() { return sucesso; }
+    public void setSucesso(Boolean sucesso) { this.sucesso = sucesso; }
+
+    public TeleconsultaOutputDto getTeleconsulta() { return teleconsulta; }
+    public void setTeleconsulta(TeleconsultaOutputDto teleconsulta) { this.teleconsulta = teleconsulta; }
+
+    public String getErro() { return erro; }
+    public void setErro(String erro) { this.erro = erro; }
+}
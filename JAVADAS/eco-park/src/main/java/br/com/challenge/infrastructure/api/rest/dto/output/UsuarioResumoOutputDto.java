@@ -0,0 +1,39 @@
+package br.com.challenge.infrastructure.api.rest.dto.output;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+@Schema(description = "DTO de resposta resumido para listagens de usuários")
+public class UsuarioResumoOutputDto {
+
+    @Schema(description = "ID do usuário", example = "1")
+    private Long id;
+
+    @Schema(description = "Nome completo", example = "João Silva Santos")
+    private String nomeCompleto;
+
+    @Schema(description = "CPF", example = "12345678901")
+    private String cpf;
+
+    @Schema(description = "Telefone", example = "11999999999")
+    private String telefone;
+
+    @Schema(description = "Versão para controle de concorrência", example = "1")
+    private Integer versao;
+
+    public UsuarioResumoOutputDto() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getNomeCompleto() { return nomeCompleto; }
+    public void setNomeCompleto(String nomeCompleto) { this.nomeCompleto = nomeCompleto; }
+
+    public String getCpf() { return cpf; }
+    public void setCpf(String cpf) { this.cpf = cpf; }
+
+    public String getTelefone() { return telefone; }
+    public void setTelefone(String telefone) { this.telefone = telefone; }
+
+    public Integer getVersao() { return versao; }
+    public void setVersao(Integer versao) { this.versao = versao; }
+}
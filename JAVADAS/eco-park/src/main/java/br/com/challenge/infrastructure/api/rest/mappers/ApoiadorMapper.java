@@ -1,4 +1,51 @@
 package br.com.challenge.infrastructure.api.rest.mappers;
 
+import br.com.challenge.domain.model.Apoiador;
+import br.com.challenge.domain.model.ApoiadorResumo;
+import br.com.challenge.infrastructure.api.rest.dto.input.ApoiadorInputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.ApoiadorOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.ApoiadorResumoOutputDto;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.modelmapper.ModelMapper;
+
+@ApplicationScoped
 public class ApoiadorMapper {
-}
+
+    @Inject
+    ModelMapper modelMapper;
+
+    @ConfigProperty(name = "app.mapeamento.model-mapper", defaultValue = "false")
+    boolean usarModelMapper;
+
+    public Apoiador paraDominio(ApoiadorInputDto dto) {
+        if (usarModelMapper) {
+            return modelMapper.map(dto, Apoiador.class);
+        }
+        Apoiador apoiador = new Apoiador();
+        UsuarioMapper.copiarEntrada(dto, apoiador);
+        apoiador.setCargo(dto.getCargo());
+        apoiador.setAreaAtuacao(dto.getAreaAtuacao());
+        return apoiador;
+    }
+
+    public ApoiadorOutputDto paraSaida(Apoiador apoiador) {
+        if (usarModelMapper) {
+            return modelMapper.map(apoiador, ApoiadorOutputDto.class);
+        }
+        ApoiadorOutputDto dto = new ApoiadorOutputDto();
+        UsuarioMapper.copiarSaida(apoiador, dto);
+        dto.setCargo(apoiador.getCargo());
+        dto.setAreaAtuacao(apoiador.getAreaAtuacao());
+        return dto;
+    }
+
+    public ApoiadorResumoOutputDto paraResumo(ApoiadorResumo resumo) {
+        ApoiadorResumoOutputDto dto = new ApoiadorResumoOutputDto();
+        UsuarioMapper.copiarResumo(resumo, dto);
+        dto.setCargo(resumo.getCargo());
+        dto.setAreaAtuacao(resumo.getAreaAtuacao());
+        return dto;
+    }
+}
\ No newline at end of file
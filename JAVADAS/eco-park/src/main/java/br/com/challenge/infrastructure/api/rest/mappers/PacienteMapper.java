@@ -1,4 +1,53 @@
 package br.com.challenge.infrastructure.api.rest.mappers;
 
+import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.PacienteResumo;
+import br.com.challenge.infrastructure.api.rest.dto.input.PacienteInputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.PacienteOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.PacienteResumoOutputDto;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.modelmapper.ModelMapper;
+
+@ApplicationScoped
 public class PacienteMapper {
+
+    @Inject
+    ModelMapper modelMapper;
+
+    @ConfigProperty(name = "app.mapeamento.model-mapper", defaultValue = "false")
+    boolean usarModelMapper;
+
+    public Paciente paraDominio(PacienteInputDto dto) {
+        if (usarModelMapper) {
+            return modelMapper.map(dto, Paciente.class);
+        }
+        Paciente paciente = new Paciente();
+        UsuarioMapper.copiarEntrada(dto, paciente);
+        paciente.setTelefoneContato(dto.getTelefoneContato());
+        paciente.setNumeroSusOuConvenio(dto.getNumeroSusOuConvenio());
+        paciente.setApoiadorId(dto.getApoiadorId());
+        return paciente;
+    }
+
+    public PacienteOutputDto paraSaida(Paciente paciente) {
+        if (usarModelMapper) {
+            return modelMapper.map(paciente, PacienteOutputDto.class);
+        }
+        PacienteOutputDto dto = new PacienteOutputDto();
+        UsuarioMapper.copiarSaida(paciente, dto);
+        dto.setTelefoneContato(paciente.getTelefoneContato());
+        dto.setNumeroSusOuConvenio(paciente.getNumeroSusOuConvenio());
+        dto.setApoiadorId(paciente.getApoiadorId());
+        return dto;
+    }
+
+    public PacienteResumoOutputDto paraResumo(PacienteResumo resumo) {
+        PacienteResumoOutputDto dto = new PacienteResumoOutputDto();
+        UsuarioMapper.copiarResumo(resumo, dto);
+        dto.setNumeroSusOuConvenio(resumo.getNumeroSusOuConvenio());
+        dto.setApoiadorId(resumo.getApoiadorId());
+        return dto;
+    }
 }
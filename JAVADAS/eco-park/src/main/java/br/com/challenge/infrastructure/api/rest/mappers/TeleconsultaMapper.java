@@ -1,4 +1,54 @@
 package br.com.challenge.infrastructure.api.rest.mappers;
 
+import br.com.challenge.domain.model.Teleconsulta;
+import br.com.challenge.infrastructure.api.rest.dto.input.TeleconsultaInputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.TeleconsultaOutputDto;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.modelmapper.ModelMapper;
+
+@ApplicationScoped
 public class TeleconsultaMapper {
+
+    @Inject
+    ModelMapper modelMapper;
+
+    @ConfigProperty(name = "app.mapeamento.model-mapper", defaultValue = "false")
+    boolean usarModelMapper;
+
+    public Teleconsulta paraDominio(TeleconsultaInputDto dto) {
+        if (usarModelMapper) {
+            return modelMapper.map(dto, Teleconsulta.class);
+        }
+        Teleconsulta teleconsulta = new Teleconsulta();
+        teleconsulta.setPacienteId(dto.getPacienteId());
+        teleconsulta.setMedico(dto.getMedico());
+        teleconsulta.setDataHora(dto.getDataHora());
+        // Sem status na entrada, fica o padrão do modelo (AGENDADA)
+        if (dto.getStatus() != null) {
+            teleconsulta.setStatus(dto.getStatus());
+        }
+        teleconsulta.setObservacoes(dto.getObservacoes());
+        if (dto.getVersao() != null) {
+            teleconsulta.setVersao(dto.getVersao());
+        }
+        return teleconsulta;
+    }
+
+    public TeleconsultaOutputDto paraSaida(Teleconsulta teleconsulta) {
+        if (usarModelMapper) {
+            return modelMapper.map(teleconsulta, TeleconsultaOutputDto.class);
+        }
+        TeleconsultaOutputDto dto = new TeleconsultaOutputDto();
+        dto.setId(teleconsulta.getId());
+        dto.setPacienteId(teleconsulta.getPacienteId());
+        dto.setNomePaciente(teleconsulta.getNomePaciente());
+        dto.setMedico(teleconsulta.getMedico());
+        dto.setDataHora(teleconsulta.getDataHora());
+        dto.setStatus(teleconsulta.getStatus());
+        dto.setObservacoes(teleconsulta.getObservacoes());
+        dto.setVersao(UsuarioMapper.paraInteger(teleconsulta.getVersao()));
+        return dto;
+    }
 }
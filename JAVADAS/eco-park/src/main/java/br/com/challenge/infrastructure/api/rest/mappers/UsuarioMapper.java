@@ -1,4 +1,95 @@
 package br.com.challenge.infrastructure.api.rest.mappers;
 
+import br.com.challenge.domain.model.Usuario;
+import br.com.challenge.domain.model.UsuarioResumo;
+import br.com.challenge.infrastructure.api.rest.dto.input.UsuarioInputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.UsuarioOutputDto;
+import br.com.challenge.infrastructure.api.rest.dto.output.UsuarioResumoOutputDto;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.modelmapper.ModelMapper;
+
+/**
+ * Conversão entre os DTOs de usuário e o modelo, campo a campo, sem reflexão.
+ * Segue as regras do ModelMapper configurado em ApplicationConfig: só campos
+ * de mesmo nome, e valores nulos da entrada não sobrescrevem os padrões do
+ * modelo. Com app.mapeamento.model-mapper=true, a conversão volta ao ModelMapper.
+ * <p>
+ * Este e os demais mappers do pacote são escritos à mão, e não gerados por um
+ * processador de anotações como o MapStruct: o código gerado seria o mesmo
+ * encadeamento de getters e setters, e o processador exigiria dependência e
+ * configuração de build para quatro famílias de DTOs. Um campo novo num DTO
+ * precisa ser incluído aqui.
+ */
+@ApplicationScoped
 public class UsuarioMapper {
+
+    @Inject
+    ModelMapper modelMapper;
+
+    @ConfigProperty(name = "app.mapeamento.model-mapper", defaultValue = "false")
+    boolean usarModelMapper;
+
+    public Usuario paraDominio(UsuarioInputDto dto) {
+        if (usarModelMapper) {
+            return modelMapper.map(dto, Usuario.class);
+        }
+        Usuario usuario = new Usuario();
+        copiarEntrada(dto, usuario);
+        return usuario;
+    }
+
+    public UsuarioOutputDto paraSaida(Usuario usuario) {
+        if (usarModelMapper) {
+            return modelMapper.map(usuario, UsuarioOutputDto.class);
+        }
+        UsuarioOutputDto dto = new UsuarioOutputDto();
+        copiarSaida(usuario, dto);
+        return dto;
+    }
+
+    public UsuarioResumoOutputDto paraResumo(UsuarioResumo resumo) {
+        UsuarioResumoOutputDto dto = new UsuarioResumoOutputDto();
+        copiarResumo(resumo, dto);
+        return dto;
+    }
+
+    static void copiarEntrada(UsuarioInputDto dto, Usuario usuario) {
+        usuario.setNomeCompleto(dto.getNomeCompleto());
+        usuario.setIdade(dto.getIdade());
+        usuario.setCpf(dto.getCpf());
+        usuario.setCep(dto.getCep());
+        usuario.setNumero(dto.getNumero());
+        usuario.setComplemento(dto.getComplemento());
+        usuario.setTelefone(dto.getTelefone());
+        usuario.setSenha(dto.getSenha());
+        if (dto.getVersao() != null) {
+            usuario.setVersao(dto.getVersao());
+        }
+    }
+
+    static void copiarSaida(Usuario usuario, UsuarioOutputDto dto) {
+        dto.setId(usuario.getId());
+        dto.setNomeCompleto(usuario.getNomeCompleto());
+        dto.setIdade(usuario.getIdade());
+        dto.setCpf(usuario.getCpf());
+        dto.setCep(usuario.getCep());
+        dto.setNumero(usuario.getNumero());
+        dto.setComplemento(usuario.getComplemento());
+        dto.setTelefone(usuario.getTelefone());
+        dto.setVersao(paraInteger(usuario.getVersao()));
+    }
+
+    static void copiarResumo(UsuarioResumo resumo, UsuarioResumoOutputDto dto) {
+        dto.setId(resumo.getId());
+        dto.setNomeCompleto(resumo.getNomeCompleto());
+        dto.setCpf(resumo.getCpf());
+        dto.setTelefone(resumo.getTelefone());
+        dto.setVersao(paraInteger(resumo.getVersao()));
+    }
+
+    static Integer paraInteger(Long valor) {
+        return valor != null ? valor.intValue() : null;
+    }
 }
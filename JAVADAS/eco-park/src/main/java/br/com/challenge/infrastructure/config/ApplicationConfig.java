@@ -7,7 +7,9 @@ import br.com.challenge.infrastructure.api.rest.dto.input.ApoiadorInputDto;
 import br.com.challenge.infrastructure.api.rest.dto.input.PacienteInputDto;
 import br.com.challenge.infrastructure.api.rest.dto.input.UsuarioInputDto;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Named;
 import jakarta.inject.Singleton;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -20,6 +22,11 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ApplicationScoped
 public class ApplicationConfig {
@@ -33,6 +40,15 @@ public class ApplicationConfig {
     @ConfigProperty(name = "app.environment", defaultValue = "development")
     String environment;
 
+    @ConfigProperty(name = "app.json.indentar", defaultValue = "false")
+    boolean indentarJson;
+
+    @ConfigProperty(name = "app.slots.threads", defaultValue = "4")
+    int threadsSlots;
+
+    @ConfigProperty(name = "app.slots.fila", defaultValue = "1000")
+    int filaSlots;
+
     @Produces
     @Singleton
     public ModelMapper modelMapper() {
@@ -104,11 +120,37 @@ public class ApplicationConfig {
 
         mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
         mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-        mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+        // Indentação só para leitura humana: em produção o JSON sai compacto
+        mapper.configure(SerializationFeature.INDENT_OUTPUT, indentarJson);
 
         return mapper;
     }
 
+    /**
+     * Executor do cálculo de horários livres por médico (primeiros-disponiveis),
+     * separado do ForkJoinPool comum, que é compartilhado com o resto da JVM.
+     * Threads e fila são limitadas; com a fila cheia, ou durante o desligamento,
+     * a própria thread da requisição faz o cálculo.
+     */
+    @Produces
+    @Singleton
+    @Named("calculoSlots")
+    public ExecutorService executorCalculoSlots() {
+        AtomicInteger contador = new AtomicInteger();
+        return new ThreadPoolExecutor(threadsSlots, threadsSlots, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(filaSlots),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "calculo-slots-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (tarefa, executor) -> tarefa.run());
+    }
+
+    public void fecharExecutorCalculoSlots(@Disposes @Named("calculoSlots") ExecutorService executor) {
+        executor.shutdown();
+    }
+
     @Produces
     @Singleton
     public DateTimeFormatter dateTimeFormatter() {
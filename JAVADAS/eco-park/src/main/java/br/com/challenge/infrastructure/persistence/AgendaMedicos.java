@@ -0,0 +1,254 @@
+package br.com.challenge.infrastructure.persistence;
+
+import br.com.challenge.domain.model.Teleconsulta;
+import io.agroal.api.AgroalDataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agenda em memória dos médicos, por dia, para responder horarioDisponivel sem
+ * ir ao Oracle. Cada dia é um bitmap de minutos ocupados (início de consulta não
+ * cancelada), carregado por uma única consulta de intervalo na primeira vez que
+ * é pedido e atualizado pelo repositório a cada gravação. Leituras não usam
+ * lock: o dia é imutável e as alterações trocam a instância no mapa.
+ */
+@ApplicationScoped
+public class AgendaMedicos {
+
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+    private static final int DURACAO_CONSULTA_MINUTOS = 30;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @ConfigProperty(name = "app.agenda.max-dias", defaultValue = "10000")
+    int maxDias;
+
+    private final ConcurrentHashMap<ChaveDia, Dia> dias = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ChaveDia> diaDaConsulta = new ConcurrentHashMap<>();
+
+    // Incrementada a cada alteração: um dia carregado enquanto houve escrita não entra no mapa
+    private final AtomicLong geracao = new AtomicLong();
+
+    /**
+     * Mesma regra da consulta no banco: o médico está livre se não há consulta
+     * iniciando em [dataHora, dataHora + 30min]. Retorna null quando a agenda
+     * não consegue responder com exatidão (horário ou consultas do dia fora do
+     * minuto cheio) e a verificação deve ir ao banco.
+     */
+    public Boolean horarioDisponivel(LocalDateTime dataHora, String medico) {
+        if (!alinhadoAoMinuto(dataHora)) {
+            return null;
+        }
+
+        LocalDateTime fim = dataHora.plusMinutes(DURACAO_CONSULTA_MINUTOS);
+        for (LocalDate data = dataHora.toLocalDate(); !data.isAfter(fim.toLocalDate()); data = data.plusDays(1)) {
+            Dia dia = obterDia(new ChaveDia(medico, data));
+            if (!dia.exato) {
+                return null;
+            }
+
+            int de = data.equals(dataHora.toLocalDate()) ? minutoDoDia(dataHora) : 0;
+            int ate = data.equals(fim.toLocalDate()) ? minutoDoDia(fim) : MINUTOS_POR_DIA - 1;
+            if (dia.ocupado(de, ate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Inclui uma consulta recém-gravada no dia correspondente, se ele estiver em memória.
+     */
+    public void registrar(Teleconsulta teleconsulta) {
+        if (teleconsulta.getId() == null || teleconsulta.getMedico() == null || teleconsulta.getDataHora() == null) {
+            return;
+        }
+
+        ChaveDia chave = new ChaveDia(teleconsulta.getMedico(), teleconsulta.getDataHora().toLocalDate());
+        geracao.incrementAndGet();
+        dias.computeIfPresent(chave, (c, dia) -> {
+            diaDaConsulta.put(teleconsulta.getId(), c);
+            return dia.com(teleconsulta.getId(), teleconsulta.getDataHora(), teleconsulta.getStatus());
+        });
+    }
+
+    /**
+     * Descarta o dia que contém a consulta, para ser recarregado no próximo uso.
+     * Usado quando a consulta muda de status, de horário ou é removida.
+     */
+    public void descartar(Long id) {
+        geracao.incrementAndGet();
+        ChaveDia chave = diaDaConsulta.get(id);
+        if (chave != null) {
+            descartar(chave);
+        }
+    }
+
+    public void descartar(String medico, LocalDateTime dataHora) {
+        geracao.incrementAndGet();
+        descartar(new ChaveDia(medico, dataHora.toLocalDate()));
+    }
+
+    private void descartar(ChaveDia chave) {
+        Dia dia = dias.remove(chave);
+        if (dia != null) {
+            dia.ids.forEach(id -> diaDaConsulta.remove(id, chave));
+        }
+    }
+
+    private Dia obterDia(ChaveDia chave) {
+        Dia dia = dias.get(chave);
+        if (dia != null) {
+            return dia;
+        }
+
+        long geracaoInicial = geracao.get();
+        Dia carregado = carregar(chave);
+        if (geracao.get() != geracaoInicial) {
+            // Houve escrita durante a carga: responde com o que foi lido, mas não guarda
+            return carregado;
+        }
+
+        if (dias.size() >= maxDias) {
+            dias.clear();
+            diaDaConsulta.clear();
+        }
+
+        Dia existente = dias.putIfAbsent(chave, carregado);
+        if (existente != null) {
+            return existente;
+        }
+
+        carregado.ids.forEach(id -> diaDaConsulta.put(id, chave));
+        if (geracao.get() != geracaoInicial && dias.remove(chave, carregado)) {
+            carregado.ids.forEach(id -> diaDaConsulta.remove(id, chave));
+        }
+        return carregado;
+    }
+
+    private Dia carregar(ChaveDia chave) {
+        String sql = "SELECT id, data_hora, status FROM teleconsulta WHERE medico = ? AND data_hora >= ? AND data_hora < ?";
+
+        long[] ocupados = new long[(MINUTOS_POR_DIA + 63) / 64];
+        Set<Long> ids = new HashSet<>();
+        boolean exato = true;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, chave.medico);
+            stmt.setTimestamp(2, Timestamp.valueOf(chave.data.atStartOfDay()));
+            stmt.setTimestamp(3, Timestamp.valueOf(chave.data.plusDays(1).atStartOfDay()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong("id"));
+                    LocalDateTime dataHora = rs.getTimestamp("data_hora").toLocalDateTime();
+                    if (!"CANCELADA".equals(rs.getString("status"))) {
+                        marcar(ocupados, minutoDoDia(dataHora));
+                        exato &= alinhadoAoMinuto(dataHora);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao carregar agenda do médico: " + chave.medico, e);
+        }
+        return new Dia(ocupados, ids, exato);
+    }
+
+    private static boolean alinhadoAoMinuto(LocalDateTime dataHora) {
+        return dataHora.getSecond() == 0 && dataHora.getNano() == 0;
+    }
+
+    private static int minutoDoDia(LocalDateTime dataHora) {
+        return dataHora.getHour() * 60 + dataHora.getMinute();
+    }
+
+    private static void marcar(long[] ocupados, int minuto) {
+        ocupados[minuto >>> 6] |= 1L << (minuto & 63);
+    }
+
+    private static final class ChaveDia {
+
+        private final String medico;
+        private final LocalDate data;
+
+        ChaveDia(String medico, LocalDate data) {
+            this.medico = medico;
+            this.data = data;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ChaveDia)) return false;
+            ChaveDia outra = (ChaveDia) o;
+            return medico.equals(outra.medico) && data.equals(outra.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(medico, data);
+        }
+    }
+
+    private static final class Dia {
+
+        // Um bit por minuto do dia: 1 = há consulta não cancelada começando nesse minuto
+        private final long[] ocupados;
+        // Todas as consultas do dia, de qualquer status, para localizar o dia pelo ID
+        private final Set<Long> ids;
+        private final boolean exato;
+
+        Dia(long[] ocupados, Set<Long> ids, boolean exato) {
+            this.ocupados = ocupados;
+            this.ids = ids;
+            this.exato = exato;
+        }
+
+        Dia com(long id, LocalDateTime dataHora, String status) {
+            Set<Long> novosIds = new HashSet<>(ids);
+            novosIds.add(id);
+
+            if ("CANCELADA".equals(status)) {
+                return new Dia(ocupados, novosIds, exato);
+            }
+
+            long[] novosOcupados = Arrays.copyOf(ocupados, ocupados.length);
+            marcar(novosOcupados, minutoDoDia(dataHora));
+            return new Dia(novosOcupados, novosIds, exato && alinhadoAoMinuto(dataHora));
+        }
+
+        boolean ocupado(int de, int ate) {
+            for (int palavra = de >>> 6; palavra <= ate >>> 6; palavra++) {
+                long mascara = -1L;
+                if (palavra == de >>> 6) {
+                    mascara &= -1L << (de & 63);
+                }
+                if (palavra == ate >>> 6) {
+                    mascara &= -1L >>> (63 - (ate & 63));
+                }
+                if ((ocupados[palavra] & mascara) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
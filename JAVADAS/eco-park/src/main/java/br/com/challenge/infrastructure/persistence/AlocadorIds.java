@@ -0,0 +1,165 @@
+package br.com.challenge.infrastructure.persistence;
+
+import br.com.challenge.domain.logging.Logger;
+import br.com.challenge.infrastructure.logging.LoggerFactory;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reserva blocos de IDs das sequences do Oracle e os distribui em memória.
+ * Cada NEXTVAL devolve o início de um bloco de {@link #TAMANHO_BLOCO} IDs
+ * (as sequences são criadas com o mesmo INCREMENT BY), então só uma a cada
+ * {@code TAMANHO_BLOCO} inserções vai ao banco buscar ID, e o INSERT já
+ * conhece a chave sem precisar de getGeneratedKeys().
+ * <p>
+ * Com outro INCREMENT BY, blocos reservados em seguida se sobrepõem e geram
+ * chaves duplicadas; por isso o incremento de cada sequence é conferido na
+ * partida e antes do primeiro bloco, e um valor diferente impede o uso.
+ */
+@ApplicationScoped
+public class AlocadorIds {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlocadorIds.class);
+
+    /**
+     * Deve ser igual ao INCREMENT BY das sequences (V1 em bancos novos, V6 nos existentes).
+     */
+    static final int TAMANHO_BLOCO = 50;
+
+    public enum Sequencia {
+        USUARIO("seq_usuario"),
+        TELECONSULTA("seq_teleconsulta");
+
+        private final String nome;
+
+        Sequencia(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private final Map<Sequencia, AtomicReference<Bloco>> blocos = new EnumMap<>(Sequencia.class);
+    private final Set<Sequencia> conferidas = ConcurrentHashMap.newKeySet();
+
+    public AlocadorIds() {
+        for (Sequencia sequencia : Sequencia.values()) {
+            blocos.put(sequencia, new AtomicReference<>(Bloco.VAZIO));
+        }
+    }
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        try (Connection conn = dataSource.getConnection()) {
+            for (Sequencia sequencia : Sequencia.values()) {
+                conferirIncremento(conn, sequencia);
+            }
+        } catch (SQLException e) {
+            // Sem banco na partida: a conferência é refeita antes do primeiro bloco de cada sequence
+            logger.warn("Incremento das sequences não conferido na partida: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Quando o bloco acaba, a reserva do próximo usa uma conexão própria do
+     * pool enquanto as demais threads da sequence aguardam. Chame antes de
+     * obter a conexão do INSERT: dentro dela, com o pool esgotado, cada thread
+     * segura uma conexão esperando a da reserva, que não vem.
+     */
+    public long proximoId(Sequencia sequencia) {
+        AtomicReference<Bloco> atual = blocos.get(sequencia);
+
+        while (true) {
+            Bloco bloco = atual.get();
+            long id = bloco.proximo();
+            if (id > 0) {
+                return id;
+            }
+
+            // Bloco esgotado: só uma thread vai ao banco, as demais aguardam o novo bloco
+            synchronized (atual) {
+                if (atual.get() == bloco) {
+                    atual.set(reservarBloco(sequencia));
+                }
+            }
+        }
+    }
+
+    private Bloco reservarBloco(Sequencia sequencia) {
+        String sql = "SELECT " + sequencia.nome + ".NEXTVAL FROM dual";
+
+        try (Connection conn = dataSource.getConnection()) {
+            if (!conferidas.contains(sequencia)) {
+                conferirIncremento(conn, sequencia);
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                if (!rs.next()) {
+                    throw new RuntimeException("Sequence " + sequencia.nome + " não retornou valor");
+                }
+                long inicio = rs.getLong(1);
+                return new Bloco(inicio, inicio + TAMANHO_BLOCO - 1);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao reservar bloco de IDs da sequence " + sequencia.nome, e);
+        }
+    }
+
+    private void conferirIncremento(Connection conn, Sequencia sequencia) throws SQLException {
+        String sql = "SELECT increment_by FROM user_sequences WHERE sequence_name = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, sequencia.nome.toUpperCase());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Sequence " + sequencia.nome + " não encontrada");
+                }
+                long incremento = rs.getLong(1);
+                if (incremento != TAMANHO_BLOCO) {
+                    throw new IllegalStateException(String.format(
+                            "Sequence %s com INCREMENT BY %d, mas o alocador reserva blocos de %d IDs " +
+                                    "(aplique a migração V6__sequences_em_blocos.sql)",
+                            sequencia.nome, incremento, TAMANHO_BLOCO));
+                }
+            }
+        }
+        conferidas.add(sequencia);
+    }
+
+    private static final class Bloco {
+
+        static final Bloco VAZIO = new Bloco(1, 0);
+
+        private final AtomicLong proximo;
+        private final long fim;
+
+        Bloco(long inicio, long fim) {
+            this.proximo = new AtomicLong(inicio);
+            this.fim = fim;
+        }
+
+        /**
+         * Retorna o próximo ID do bloco, ou -1 quando o bloco acabou.
+         */
+        long proximo() {
+            long id = proximo.getAndIncrement();
+            return id <= fim ? id : -1;
+        }
+    }
+}
@@ -1,286 +1,328 @@
 package br.com.challenge.infrastructure.persistence;
 
+import br.com.challenge.domain.exceptions.ValidationException;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.repository.ApoiadorRepository;
-import br.com.challenge.domain.repository.UsuarioRepository;
 import br.com.challenge.domain.model.Apoiador;
-import br.com.challenge.domain.model.Usuario;
-import io.agroal.api.AgroalDataSource;
+import br.com.challenge.domain.model.ApoiadorResumo;
+import br.com.challenge.domain.model.UsuarioResumo;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.sql.CallableStatement;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.sql.Types;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 @ApplicationScoped
 public class ApoiadorRepositoryImpl implements ApoiadorRepository {
 
+    static final String SELECT_APOIADOR = "SELECT u.*, a.cargo, a.area_atuacao " +
+            "FROM usuario u INNER JOIN apoiador a ON u.id = a.id ";
+
+    // Listagens trazem só o resumo; senha, endereço e idade ficam para o detalhe
+    static final String COLUNAS_RESUMO = "u.id, u.nome_completo, u.cpf, u.telefone, u.versao, a.cargo, a.area_atuacao";
+
+    static final MapeadorLinhas<Apoiador> APOIADOR = MapeadorLinhas.de((rs, c) -> new Apoiador(
+                    rs.getLong(c[0]),
+                    rs.getString(c[1]),
+                    rs.getInt(c[2]),
+                    rs.getString(c[3]),
+                    rs.getString(c[4]),
+                    rs.getInt(c[5]),
+                    rs.getString(c[6]),
+                    rs.getString(c[7]),
+                    rs.getString(c[8]),
+                    rs.getString(c[9]),
+                    rs.getString(c[10]),
+                    rs.getLong(c[11])),
+            "id", "nome_completo", "idade", "cpf", "cep", "numero", "complemento", "telefone", "senha",
+            "cargo", "area_atuacao", "versao");
+
+    static final MapeadorLinhas<ApoiadorResumo> RESUMO = MapeadorLinhas.de((rs, c) -> new ApoiadorResumo(
+                    rs.getLong(c[0]),
+                    rs.getString(c[1]),
+                    rs.getString(c[2]),
+                    rs.getString(c[3]),
+                    rs.getLong(c[4]),
+                    rs.getString(c[5]),
+                    rs.getString(c[6])),
+            "id", "nome_completo", "cpf", "telefone", "versao", "cargo", "area_atuacao");
+
+    private static final MapeadorLinhas<String> CARGO = MapeadorLinhas.de((rs, c) -> rs.getString(c[0]), "cargo");
+
+    @Inject
+    ExecutorJdbc executorJdbc;
+
+    @Inject
+    CachesEntidades cachesEntidades;
+
+    @Inject
+    CacheConsultas cacheConsultas;
+
+    @ConfigProperty(name = "app.exportacao.fetch-size", defaultValue = "500")
+    int fetchSizeExportacao;
+
+    @Inject
+    AlocadorIds alocadorIds;
+
     @Inject
-    AgroalDataSource dataSource;
+    IndiceCpfs indiceCpfs;
 
     @Inject
-    UsuarioRepository usuarioRepository;
+    DadosReferencia dadosReferencia;
 
     @Override
-    public List<Apoiador> listarTodos() {
-        List<Apoiador> apoiadores = new ArrayList<>();
-        String sql = "SELECT u.*, a.cargo, a.area_atuacao " +
+    public List<ApoiadorResumo> listarTodos() {
+        String sql = "SELECT " + COLUNAS_RESUMO + " " +
                 "FROM usuario u INNER JOIN apoiador a ON u.id = a.id " +
                 "ORDER BY u.nome_completo";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                apoiadores.add(criarApoiadorFromResultSet(rs));
-            }
+        try {
+            return executorJdbc.listar("apoiador.listarTodos", sql, Parametros.NENHUM, RESUMO);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao listar apoiadores", e);
         }
-        return apoiadores;
     }
 
     @Override
-    public Optional<Apoiador> buscarPorId(Long id) {
-        String sql = "SELECT u.*, a.cargo, a.area_atuacao " +
+    public Pagina<ApoiadorResumo> listarPagina(String cursor, int limite) {
+        CursorPaginacao posicao = CursorPaginacao.decodificar(cursor);
+        String sql = "SELECT " + COLUNAS_RESUMO + " " +
                 "FROM usuario u INNER JOIN apoiador a ON u.id = a.id " +
-                "WHERE u.id = ?";
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+                (posicao == null ? "" : "WHERE u.nome_completo >= ? AND (u.nome_completo > ? OR u.id > ?) ") +
+                "ORDER BY u.nome_completo, u.id FETCH FIRST ? ROWS ONLY";
 
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(criarApoiadorFromResultSet(rs));
+        List<ApoiadorResumo> apoiadores;
+        try {
+            apoiadores = executorJdbc.listar("apoiador.listarPagina", sql, stmt -> {
+                int indice = 1;
+                if (posicao != null) {
+                    stmt.setString(indice++, posicao.getChave());
+                    stmt.setString(indice++, posicao.getChave());
+                    stmt.setLong(indice++, posicao.getId());
                 }
-            }
+                stmt.setInt(indice, limite + 1);
+            }, RESUMO);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao listar página de apoiadores", e);
+        }
+        return CursorPaginacao.montarPagina(apoiadores, limite,
+                item -> CursorPaginacao.codificar(item.getNomeCompleto(), item.getId()));
+    }
+
+    @Override
+    public void percorrerTodos(Consumer<Apoiador> consumidor) {
+        String sql = SELECT_APOIADOR + "ORDER BY u.id";
+
+        try {
+            executorJdbc.percorrer("apoiador.percorrerTodos", sql, Parametros.NENHUM, fetchSizeExportacao, APOIADOR, consumidor);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao exportar apoiadores", e);
+        }
+    }
+
+    @Override
+    public Optional<Apoiador> buscarPorId(Long id) {
+        return cachesEntidades.apoiadores().buscarPorId(id, this::buscarPorIdNoBanco);
+    }
+
+    private Optional<Apoiador> buscarPorIdNoBanco(Long id) {
+        String sql = SELECT_APOIADOR + "WHERE u.id = ?";
+
+        try {
+            return executorJdbc.buscarUm("apoiador.buscarPorId", sql, stmt -> stmt.setLong(1, id), APOIADOR);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar apoiador por ID: " + id, e);
         }
-        return Optional.empty();
     }
 
     @Override
     public Optional<Apoiador> buscarPorCpf(String cpf) {
-        String sql = "SELECT u.*, a.cargo, a.area_atuacao " +
-                "FROM usuario u INNER JOIN apoiador a ON u.id = a.id " +
-                "WHERE u.cpf = ?";
+        String sql = SELECT_APOIADOR + "WHERE u.cpf = ?";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, cpf);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(criarApoiadorFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.buscarUm("apoiador.buscarPorCpf", sql, stmt -> stmt.setString(1, cpf), APOIADOR);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar apoiador por CPF: " + cpf, e);
         }
-        return Optional.empty();
     }
 
+    /**
+     * Grava usuario e apoiador num único bloco PL/SQL: uma conexão, uma ida ao
+     * banco e atomicidade garantida pelo próprio bloco.
+     */
     @Override
     public Apoiador salvar(Apoiador apoiador) {
-        Connection conn = null;
-        try {
-            conn = dataSource.getConnection();
-            conn.setAutoCommit(false);
-
-            // 1. Salvar como Usuario primeiro (ISSO GERA O ID) - CORRIGIDO
-            Usuario usuarioSalvo = usuarioRepository.salvar(apoiador); // CAPTURE O RETORNO
-            apoiador.setId(usuarioSalvo.getId()); // ATUALIZE O ID DO APOIADOR
-
-            // 2. Salvar dados específicos do Apoiador
-            String sqlApoiador = "INSERT INTO apoiador (id, cargo, area_atuacao) VALUES (?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlApoiador)) {
-                stmt.setLong(1, apoiador.getId()); // AGORA O ID ESTÁ CORRETO
-                stmt.setString(2, apoiador.getCargo());
-                stmt.setString(3, apoiador.getAreaAtuacao());
-                stmt.executeUpdate();
-            }
+        String sql = "BEGIN " +
+                UsuarioSql.INSERIR + "; " +
+                "INSERT INTO apoiador (id, cargo, area_atuacao) VALUES (?, ?, ?); " +
+                "END;";
 
-            conn.commit();
-            return apoiador;
+        long id = alocadorIds.proximoId(AlocadorIds.Sequencia.USUARIO);
 
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    // Log do erro de rollback
+        try {
+            return executorJdbc.executar("apoiador.salvar", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    int indice = UsuarioSql.preencherInsercao(stmt, 1, id, apoiador);
+                    stmt.setLong(indice++, id);
+                    stmt.setString(indice++, apoiador.getCargo());
+                    stmt.setString(indice, apoiador.getAreaAtuacao());
+
+                    stmt.execute();
+                    apoiador.setId(id);
+                    indiceCpfs.adicionar(apoiador.getCpf());
+                    dadosReferencia.cargoGravado(apoiador.getCargo());
+                    cacheConsultas.invalidar(CacheConsultas.tag("apoiador", "cargo", apoiador.getCargo()));
+                    return apoiador;
                 }
+            });
+        } catch (SQLException e) {
+            if (ErrosOracle.violouUnicidade(e, ErrosOracle.RESTRICAO_CPF)) {
+                throw new ValidationException("CPF já cadastrado no sistema");
             }
             throw new RuntimeException("Erro ao salvar apoiador", e);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                    // Log do erro de fechamento
-                }
-            }
         }
     }
 
     @Override
     public boolean atualizar(Apoiador apoiador) {
-        Connection conn = null;
-        try {
-            conn = dataSource.getConnection();
-            conn.setAutoCommit(false);
-
-            // 1. Atualizar dados de Usuario
-            boolean usuarioAtualizado = usuarioRepository.atualizar(apoiador);
-            if (!usuarioAtualizado) {
-                conn.rollback();
-                return false;
-            }
+        // A linha base vai primeiro, restrita ao tipo e à versão esperada; a específica só é
+        // alterada se ela passou, então um conflito não deixa o bloco gravado pela metade
+        String sql = "BEGIN " +
+                UsuarioSql.atualizar(apoiador, true) + "; " +
+                "IF SQL%ROWCOUNT = 1 THEN UPDATE apoiador SET cargo = ?, area_atuacao = ? WHERE id = ?; END IF; " +
+                "? := SQL%ROWCOUNT; " +
+                "END;";
 
-            // 2. Atualizar dados específicos do Apoiador
-            String sqlApoiador = "UPDATE apoiador SET cargo = ?, area_atuacao = ? WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlApoiador)) {
-                stmt.setString(1, apoiador.getCargo());
-                stmt.setString(2, apoiador.getAreaAtuacao());
-                stmt.setLong(3, apoiador.getId());
-
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected == 0) {
-                    conn.rollback();
-                    return false;
+        try {
+            return executorJdbc.executar("apoiador.atualizar", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    int indiceVersao = UsuarioSql.preencherAtualizacao(stmt, 1, apoiador, true);
+                    int indice = indiceVersao + 1;
+                    stmt.setString(indice++, apoiador.getCargo());
+                    stmt.setString(indice++, apoiador.getAreaAtuacao());
+                    stmt.setLong(indice++, apoiador.getId());
+                    stmt.registerOutParameter(indice, Types.INTEGER);
+
+                    stmt.execute();
+                    cachesEntidades.invalidarUsuario(apoiador.getId());
+                    cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", apoiador.getId()),
+                            CacheConsultas.tag("apoiador", "cargo", apoiador.getCargo()));
+                    if (stmt.getInt(indice) == 0) {
+                        return false;
+                    }
+                    apoiador.setVersao(stmt.getLong(indiceVersao));
+                    // O cargo anterior pode ter perdido o último apoiador
+                    dadosReferencia.revisarCargos();
+                    return true;
                 }
-            }
-
-            conn.commit();
-            return true;
-
+            });
         } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    // Log do erro de rollback
-                }
-            }
             throw new RuntimeException("Erro ao atualizar apoiador: " + apoiador.getId(), e);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                    // Log do erro de fechamento
-                }
-            }
         }
     }
 
     @Override
     public boolean deletar(Long id) {
-        Connection conn = null;
-        try {
-            conn = dataSource.getConnection();
-            conn.setAutoCommit(false);
-
-            // 1. Deletar da tabela apoiador
-            String sqlApoiador = "DELETE FROM apoiador WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlApoiador)) {
-                stmt.setLong(1, id);
-                stmt.executeUpdate();
-            }
+        String sql = "BEGIN " +
+                "DELETE FROM apoiador WHERE id = ?; " +
+                "IF SQL%ROWCOUNT = 1 THEN DELETE FROM usuario WHERE id = ? RETURNING cpf INTO ?; END IF; " +
+                "? := SQL%ROWCOUNT; " +
+                "END;";
 
-            // 2. Deletar da tabela usuario
-            boolean usuarioDeletado = usuarioRepository.deletar(id);
-            if (!usuarioDeletado) {
-                conn.rollback();
-                return false;
-            }
-
-            conn.commit();
-            return true;
-
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                    // Log do erro de rollback
+        try {
+            return executorJdbc.executar("apoiador.deletar", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    stmt.setLong(1, id);
+                    stmt.setLong(2, id);
+                    stmt.registerOutParameter(3, Types.VARCHAR);
+                    stmt.registerOutParameter(4, Types.INTEGER);
+
+                    stmt.execute();
+                    cachesEntidades.invalidarUsuario(id);
+                    cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", id));
+                    if (stmt.getInt(4) == 0) {
+                        return false;
+                    }
+                    indiceCpfs.remover(stmt.getString(3));
+                    dadosReferencia.revisarCargos();
+                    return true;
                 }
-            }
+            });
+        } catch (SQLException e) {
             throw new RuntimeException("Erro ao deletar apoiador: " + id, e);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                    // Log do erro de fechamento
-                }
-            }
         }
     }
 
     @Override
-    public List<Apoiador> buscarPorCargo(String cargo) {
-        List<Apoiador> apoiadores = new ArrayList<>();
-        String sql = "SELECT u.*, a.cargo, a.area_atuacao " +
+    public List<ApoiadorResumo> buscarPorCargo(String cargo) {
+        return cacheConsultas.buscar("apoiador:porCargo:" + cargo, () -> buscarPorCargoNoBanco(cargo),
+                ApoiadorRepositoryImpl::tagsDaLinha, UnaryOperator.identity(),
+                CacheConsultas.tag("apoiador", "cargo", cargo));
+    }
+
+    private List<ApoiadorResumo> buscarPorCargoNoBanco(String cargo) {
+        String sql = "SELECT " + COLUNAS_RESUMO + " " +
                 "FROM usuario u INNER JOIN apoiador a ON u.id = a.id " +
                 "WHERE a.cargo = ? ORDER BY u.nome_completo";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, cargo);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    apoiadores.add(criarApoiadorFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.listar("apoiador.buscarPorCargo", sql, stmt -> stmt.setString(1, cargo), RESUMO);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar apoiadores por cargo: " + cargo, e);
         }
-        return apoiadores;
     }
 
     @Override
     public List<String> listarCargos() {
-        List<String> cargos = new ArrayList<>();
-        String sql = "SELECT DISTINCT cargo FROM apoiador ORDER BY cargo";
+        return dadosReferencia.cargos(this::listarCargosNoBanco);
+    }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    private List<String> listarCargosNoBanco() {
+        String sql = "SELECT DISTINCT cargo FROM apoiador";
 
-            while (rs.next()) {
-                cargos.add(rs.getString("cargo"));
-            }
+        try {
+            return executorJdbc.listar("apoiador.listarCargos", sql, Parametros.NENHUM, CARGO);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao listar cargos", e);
         }
-        return cargos;
     }
 
     @Override
     public boolean vincularPaciente(Long apoiadorId, Long pacienteId) {
-        String sql = "UPDATE paciente SET apoiador_id = ? WHERE id = ?";
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setLong(1, apoiadorId);
-            stmt.setLong(2, pacienteId);
-
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        // O vínculo fica na linha de paciente, mas a versão é a do usuario
+        String sql = "BEGIN " +
+                "UPDATE paciente SET apoiador_id = ? WHERE id = ?; " +
+                "IF SQL%ROWCOUNT = 1 THEN UPDATE usuario SET versao = NVL(versao, 0) + 1 WHERE id = ?; END IF; " +
+                "? := SQL%ROWCOUNT; " +
+                "END;";
 
+        try {
+            return executorJdbc.executar("apoiador.vincularPaciente", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    stmt.setLong(1, apoiadorId);
+                    stmt.setLong(2, pacienteId);
+                    stmt.setLong(3, pacienteId);
+                    stmt.registerOutParameter(4, Types.INTEGER);
+
+                    stmt.execute();
+                    int rowsAffected = stmt.getInt(4);
+                    cachesEntidades.pacientes().invalidar(pacienteId);
+                    cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", pacienteId),
+                            CacheConsultas.tag("paciente", "apoiador", apoiadorId));
+                    return rowsAffected > 0;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao vincular paciente ao apoiador", e);
         }
@@ -288,15 +330,27 @@ public class ApoiadorRepositoryImpl implements ApoiadorRepository {
 
     @Override
     public boolean desvincularPaciente(Long pacienteId) {
-        String sql = "UPDATE paciente SET apoiador_id = NULL WHERE id = ?";
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setLong(1, pacienteId);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        String sql = "BEGIN " +
+                "UPDATE paciente SET apoiador_id = NULL WHERE id = ?; " +
+                "IF SQL%ROWCOUNT = 1 THEN UPDATE usuario SET versao = NVL(versao, 0) + 1 WHERE id = ?; END IF; " +
+                "? := SQL%ROWCOUNT; " +
+                "END;";
 
+        try {
+            return executorJdbc.executar("apoiador.desvincularPaciente", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    stmt.setLong(1, pacienteId);
+                    stmt.setLong(2, pacienteId);
+                    stmt.registerOutParameter(3, Types.INTEGER);
+
+                    stmt.execute();
+                    int rowsAffected = stmt.getInt(3);
+                    cachesEntidades.pacientes().invalidar(pacienteId);
+                    cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", pacienteId));
+                    return rowsAffected > 0;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao desvincular paciente", e);
         }
@@ -306,51 +360,25 @@ public class ApoiadorRepositoryImpl implements ApoiadorRepository {
     public boolean temPacientesVinculados(Long apoiadorId) {
         String sql = "SELECT COUNT(*) FROM paciente WHERE apoiador_id = ?";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setLong(1, apoiadorId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
-                }
-            }
+        try {
+            return executorJdbc.contar("apoiador.temPacientesVinculados", sql, stmt -> stmt.setLong(1, apoiadorId)) > 0;
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao verificar pacientes vinculados", e);
         }
-        return false;
     }
 
     @Override
     public int contarTotal() {
         String sql = "SELECT COUNT(*) FROM apoiador";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
+        try {
+            return executorJdbc.contar("apoiador.contarTotal", sql, Parametros.NENHUM);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao contar apoiadores", e);
         }
-        return 0;
     }
 
-    private Apoiador criarApoiadorFromResultSet(ResultSet rs) throws SQLException {
-        return new Apoiador(
-                rs.getLong("id"),
-                rs.getString("nome_completo"),
-                rs.getInt("idade"),
-                rs.getString("cpf"),
-                rs.getString("cep"),
-                rs.getInt("numero"),
-                rs.getString("complemento"),
-                rs.getString("telefone"),
-                rs.getString("senha"),
-                rs.getString("cargo"),
-                rs.getString("area_atuacao")
-        );
+    private static Collection<String> tagsDaLinha(UsuarioResumo usuario) {
+        return List.of(CacheConsultas.tag("usuario", "id", usuario.getId()));
     }
 }
\ No newline at end of file
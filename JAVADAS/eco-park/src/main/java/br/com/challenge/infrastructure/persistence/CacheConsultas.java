@@ -0,0 +1,185 @@
+package br.com.challenge.infrastructure.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache dos resultados das buscas dos repositórios. Cada resultado guarda as
+ * tags de que depende (o filtro da busca, como {@code teleconsulta:status=AGENDADA},
+ * e o ID de cada linha retornada, como {@code teleconsulta:id=10}); as escritas
+ * invalidam só as tags que afetam, e não o cache inteiro.
+ * <p>
+ * Um resultado carregado enquanto uma de suas tags foi invalidada não é
+ * guardado. Para isso cada invalidação marca o instante (um contador) na faixa
+ * da tag; a busca compara as faixas das suas tags com o instante em que
+ * começou, de modo que escritas em outras tags não descartam o resultado.
+ * As faixas limitam a memória: tags que caem na mesma faixa só fazem a busca
+ * deixar de guardar um resultado que poderia guardar.
+ */
+@ApplicationScoped
+public class CacheConsultas {
+
+    @ConfigProperty(name = "app.cache.consultas.tamanho-maximo", defaultValue = "1000")
+    long tamanhoMaximo;
+
+    @ConfigProperty(name = "app.cache.consultas.expiracao-segundos", defaultValue = "60")
+    long expiracaoSegundos;
+
+    private Cache<String, Resultado> resultados;
+    private final ConcurrentHashMap<String, Set<String>> chavesPorTag = new ConcurrentHashMap<>();
+
+    private static final int FAIXAS_INVALIDACAO = 1024;
+
+    private final AtomicLong relogio = new AtomicLong();
+    // Instante da última invalidação das tags (e prefixos) de cada faixa
+    private final AtomicLongArray invalidadaEm = new AtomicLongArray(FAIXAS_INVALIDACAO);
+
+    @PostConstruct
+    void iniciar() {
+        resultados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(expiracaoSegundos))
+                .removalListener((String chave, Resultado resultado, RemovalCause causa) -> {
+                    if (causa != RemovalCause.REPLACED) {
+                        desindexar(chave, resultado);
+                    }
+                })
+                .build();
+    }
+
+    static String tag(String entidade, String campo, Object valor) {
+        return entidade + ":" + campo + "=" + valor;
+    }
+
+    /**
+     * Retorna o resultado em cache para {@code chave} ou executa a consulta e o
+     * guarda com as tags informadas mais as de cada item.
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> buscar(String chave, Supplier<List<T>> consulta, Function<T, Collection<String>> tagsDoItem,
+                       UnaryOperator<T> copiar, String... tags) {
+        Resultado emCache = resultados.getIfPresent(chave);
+        if (emCache != null) {
+            return copiarItens((List<T>) emCache.itens, copiar);
+        }
+
+        long inicio = relogio.get();
+        List<T> itens = consulta.get();
+
+        Set<String> todasTags = new HashSet<>(Arrays.asList(tags));
+        itens.forEach(item -> todasTags.addAll(tagsDoItem.apply(item)));
+        if (invalidadaDesde(todasTags, inicio)) {
+            return itens;
+        }
+
+        Resultado resultado = new Resultado(copiarItens(itens, copiar), todasTags);
+
+        todasTags.forEach(tag -> chavesPorTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(chave));
+        resultados.put(chave, resultado);
+
+        // Invalidação entre a conferência e a indexação: a escrita pode não ter visto a chave
+        if (invalidadaDesde(todasTags, inicio)) {
+            resultados.invalidate(chave);
+        }
+        return itens;
+    }
+
+    void invalidar(String... tags) {
+        for (String tag : tags) {
+            // Marcada antes de remover as chaves, para que a busca que indexar depois a veja
+            marcar(tag);
+            Set<String> chaves = chavesPorTag.remove(tag);
+            if (chaves != null) {
+                chaves.forEach(resultados::invalidate);
+            }
+        }
+    }
+
+    /**
+     * Invalida as tags de um prefixo cujo valor satisfaz a condição. Usado para
+     * buscas por trecho de texto, em que a tag guarda o termo buscado e só a
+     * escrita sabe se o novo valor casaria com ele. As buscas do prefixo em
+     * andamento, cujas tags ainda não estão no índice, não guardam o resultado.
+     */
+    void invalidarSe(String prefixo, Predicate<String> condicao) {
+        marcar(prefixo);
+        List<String> afetadas = new ArrayList<>();
+        for (String tag : chavesPorTag.keySet()) {
+            if (tag.startsWith(prefixo) && condicao.test(tag.substring(prefixo.length()))) {
+                afetadas.add(tag);
+            }
+        }
+        invalidar(afetadas.toArray(new String[0]));
+    }
+
+    private void marcar(String tag) {
+        invalidadaEm.accumulateAndGet(faixa(tag), relogio.incrementAndGet(), Math::max);
+    }
+
+    /**
+     * Se alguma das tags, ou o prefixo da entidade de alguma delas, foi
+     * invalidada depois do instante informado.
+     */
+    private boolean invalidadaDesde(Set<String> tags, long instante) {
+        for (String tag : tags) {
+            String prefixo = tag.substring(0, tag.indexOf(':') + 1);
+            if (invalidadaEm.get(faixa(tag)) > instante || invalidadaEm.get(faixa(prefixo)) > instante) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int faixa(String tag) {
+        return Math.floorMod(tag.hashCode(), FAIXAS_INVALIDACAO);
+    }
+
+    private void desindexar(String chave, Resultado resultado) {
+        // A remoção é notificada depois: se a chave já foi guardada de novo, o índice é dela
+        if (chave == null || resultado == null || resultados.asMap().containsKey(chave)) {
+            return;
+        }
+        for (String tag : resultado.tags) {
+            chavesPorTag.computeIfPresent(tag, (t, chaves) -> {
+                chaves.remove(chave);
+                return chaves.isEmpty() ? null : chaves;
+            });
+        }
+    }
+
+    private static <T> List<T> copiarItens(List<T> itens, UnaryOperator<T> copiar) {
+        List<T> copia = new ArrayList<>(itens.size());
+        itens.forEach(item -> copia.add(copiar.apply(item)));
+        return copia;
+    }
+
+    private static final class Resultado {
+
+        private final List<?> itens;
+        private final Set<String> tags;
+
+        Resultado(List<?> itens, Set<String> tags) {
+            this.itens = itens;
+            this.tags = tags;
+        }
+    }
+}
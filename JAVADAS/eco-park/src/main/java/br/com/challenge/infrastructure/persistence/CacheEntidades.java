@@ -0,0 +1,114 @@
+package br.com.challenge.infrastructure.persistence;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache read-through de uma entidade por ID. Guarda e devolve cópias, para que
+ * alterações feitas pelos serviços no objeto retornado não vazem para o cache.
+ * Entre duas cargas concorrentes do mesmo ID fica a de maior versao, e uma
+ * carga que atravessou uma invalidação não é guardada. Dentro de uma
+ * requisição HTTP, o {@link MapaIdentidade} é consultado antes do cache.
+ */
+final class CacheEntidades<T> {
+
+    private final String nome;
+    private final Cache<Long, T> cache;
+    private final Function<T, Long> versao;
+    private final UnaryOperator<T> copiar;
+    private final Supplier<MapaIdentidade> mapaDaRequisicao;
+    private final AtomicLong invalidacoes = new AtomicLong();
+
+    CacheEntidades(String nome, long tamanhoMaximo, Duration expiracao,
+                   Function<T, Long> versao, UnaryOperator<T> copiar,
+                   Supplier<MapaIdentidade> mapaDaRequisicao) {
+        this.nome = nome;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        this.versao = versao;
+        this.copiar = copiar;
+        this.mapaDaRequisicao = mapaDaRequisicao;
+    }
+
+    String getNome() { return nome; }
+
+    Optional<T> buscarPorId(Long id, Function<Long, Optional<T>> carregar) {
+        MapaIdentidade mapa = mapaDaRequisicao.get();
+        if (mapa != null && mapa.contem(nome, id)) {
+            return mapa.obter(nome, id);
+        }
+
+        Optional<T> resultado = buscarNoCache(id, carregar);
+        if (mapa != null) {
+            mapa.guardar(nome, id, resultado);
+        }
+        return resultado;
+    }
+
+    private Optional<T> buscarNoCache(Long id, Function<Long, Optional<T>> carregar) {
+        T emCache = cache.getIfPresent(id);
+        if (emCache != null) {
+            return Optional.of(copiar.apply(emCache));
+        }
+
+        long invalidacoesAntes = invalidacoes.get();
+        Optional<T> carregada = carregar.apply(id);
+        carregada.ifPresent(entidade -> guardar(id, copiar.apply(entidade), invalidacoesAntes));
+        return carregada;
+    }
+
+    void invalidar(Long id) {
+        invalidacoes.incrementAndGet();
+        cache.invalidate(id);
+        MapaIdentidade mapa = mapaDaRequisicao.get();
+        if (mapa != null) {
+            mapa.remover(nome, id);
+        }
+    }
+
+    void invalidarTodos() {
+        invalidacoes.incrementAndGet();
+        cache.invalidateAll();
+        MapaIdentidade mapa = mapaDaRequisicao.get();
+        if (mapa != null) {
+            mapa.removerTodos(nome);
+        }
+    }
+
+    CacheStats estatisticas() {
+        return cache.stats();
+    }
+
+    long tamanho() {
+        return cache.estimatedSize();
+    }
+
+    private void guardar(Long id, T entidade, long invalidacoesAntes) {
+        if (invalidacoes.get() != invalidacoesAntes) {
+            return;
+        }
+
+        cache.asMap().merge(id, entidade, (atual, nova) -> versaoDe(atual) > versaoDe(nova) ? atual : nova);
+
+        // Invalidação entre a verificação acima e o merge: descarta o que acabou de entrar
+        if (invalidacoes.get() != invalidacoesAntes) {
+            cache.invalidate(id);
+        }
+    }
+
+    private long versaoDe(T entidade) {
+        Long v = versao.apply(entidade);
+        return v != null ? v : 0L;
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.challenge.infrastructure.persistence;
+
+import br.com.challenge.domain.model.Apoiador;
+import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.Teleconsulta;
+import br.com.challenge.domain.model.Usuario;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches de buscarPorId dos repositórios. Usuario, Paciente e Apoiador
+ * compartilham a linha de usuario, então uma escrita em qualquer um deles
+ * invalida o ID nos três.
+ */
+@ApplicationScoped
+public class CachesEntidades {
+
+    @ConfigProperty(name = "app.cache.entidades.tamanho-maximo", defaultValue = "10000")
+    long tamanhoMaximo;
+
+    @ConfigProperty(name = "app.cache.entidades.expiracao-segundos", defaultValue = "300")
+    long expiracaoSegundos;
+
+    @Inject
+    MapaIdentidade mapaIdentidade;
+
+    private CacheEntidades<Usuario> usuarios;
+    private CacheEntidades<Paciente> pacientes;
+    private CacheEntidades<Apoiador> apoiadores;
+    private CacheEntidades<Teleconsulta> teleconsultas;
+
+    @PostConstruct
+    void iniciar() {
+        Duration expiracao = Duration.ofSeconds(expiracaoSegundos);
+        usuarios = new CacheEntidades<>("usuario", tamanhoMaximo, expiracao, Usuario::getVersao, CachesEntidades::copiarUsuario, this::mapaDaRequisicao);
+        pacientes = new CacheEntidades<>("paciente", tamanhoMaximo, expiracao, Paciente::getVersao, CachesEntidades::copiarPaciente, this::mapaDaRequisicao);
+        apoiadores = new CacheEntidades<>("apoiador", tamanhoMaximo, expiracao, Apoiador::getVersao, CachesEntidades::copiarApoiador, this::mapaDaRequisicao);
+        teleconsultas = new CacheEntidades<>("teleconsulta", tamanhoMaximo, expiracao, Teleconsulta::getVersao, CachesEntidades::copiarTeleconsulta, this::mapaDaRequisicao);
+    }
+
+    private MapaIdentidade mapaDaRequisicao() {
+        return MapaIdentidade.ativo() ? mapaIdentidade : null;
+    }
+
+    CacheEntidades<Usuario> usuarios() { return usuarios; }
+
+    CacheEntidades<Paciente> pacientes() { return pacientes; }
+
+    CacheEntidades<Apoiador> apoiadores() { return apoiadores; }
+
+    CacheEntidades<Teleconsulta> teleconsultas() { return teleconsultas; }
+
+    void invalidarUsuario(Long id) {
+        usuarios.invalidar(id);
+        pacientes.invalidar(id);
+        apoiadores.invalidar(id);
+    }
+
+    /**
+     * Acertos, faltas e ocupação de cada cache, para acompanhamento.
+     */
+    public Map<String, Map<String, Object>> estatisticas() {
+        Map<String, Map<String, Object>> resultado = new LinkedHashMap<>();
+        for (CacheEntidades<?> cache : List.of(usuarios, pacientes, apoiadores, teleconsultas)) {
+            CacheStats stats = cache.estatisticas();
+            Map<String, Object> valores = new LinkedHashMap<>();
+            valores.put("acertos", stats.hitCount());
+            valores.put("faltas", stats.missCount());
+            valores.put("taxaAcerto", stats.hitRate());
+            valores.put("remocoes", stats.evictionCount());
+            valores.put("tamanho", cache.tamanho());
+            resultado.put(cache.getNome(), valores);
+        }
+        return resultado;
+    }
+
+    static Usuario copiarUsuario(Usuario origem) {
+        Usuario copia = new Usuario();
+        copiarCamposUsuario(origem, copia);
+        return copia;
+    }
+
+    static Paciente copiarPaciente(Paciente origem) {
+        Paciente copia = new Paciente();
+        copiarCamposUsuario(origem, copia);
+        copia.setNumeroSusOuConvenio(origem.getNumeroSusOuConvenio());
+        copia.setTelefoneContato(origem.getTelefoneContato());
+        copia.setApoiadorId(origem.getApoiadorId());
+        return copia;
+    }
+
+    static Apoiador copiarApoiador(Apoiador origem) {
+        Apoiador copia = new Apoiador();
+        copiarCamposUsuario(origem, copia);
+        copia.setCargo(origem.getCargo());
+        copia.setAreaAtuacao(origem.getAreaAtuacao());
+        return copia;
+    }
+
+    private static void copiarCamposUsuario(Usuario origem, Usuario copia) {
+        copia.setId(origem.getId());
+        copia.setVersao(origem.getVersao());
+        copia.setNomeCompleto(origem.getNomeCompleto());
+        copia.setIdade(origem.getIdade());
+        copia.setCpf(origem.getCpf());
+        copia.setCep(origem.getCep());
+        copia.setNumero(origem.getNumero());
+        copia.setComplemento(origem.getComplemento());
+        copia.setTelefone(origem.getTelefone());
+        copia.setSenha(origem.getSenha());
+    }
+
+    static Teleconsulta copiarTeleconsulta(Teleconsulta origem) {
+        Teleconsulta copia = new Teleconsulta();
+        copia.setId(origem.getId());
+        copia.setVersao(origem.getVersao());
+        copia.setPacienteId(origem.getPacienteId());
+        copia.setMedico(origem.getMedico());
+        copia.setDataHora(origem.getDataHora());
+        copia.setStatus(origem.getStatus());
+        copia.setObservacoes(origem.getObservacoes());
+        copia.setNomePaciente(origem.getNomePaciente());
+        return copia;
+    }
+}
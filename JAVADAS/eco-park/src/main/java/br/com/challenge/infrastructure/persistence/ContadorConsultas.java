@@ -0,0 +1,25 @@
+package br.com.challenge.infrastructure.persistence;
+
+import io.agroal.api.AgroalPoolInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+
+/**
+ * Conta, por requisição, as conexões pedidas ao pool. Os repositórios abrem
+ * uma conexão por operação, então o total equivale às idas ao banco.
+ */
+@ApplicationScoped
+public class ContadorConsultas implements AgroalPoolInterceptor {
+
+    @Inject
+    MapaIdentidade mapaIdentidade;
+
+    @Override
+    public void onConnectionAcquire(Connection connection) {
+        if (MapaIdentidade.ativo()) {
+            mapaIdentidade.registrarConsulta();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.challenge.infrastructure.persistence;
+
+import br.com.challenge.domain.exceptions.ValidationException;
+import br.com.challenge.domain.repository.Pagina;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Posição de uma paginação keyset: o valor da coluna de ordenação e o ID
+ * da última linha entregue. Serializado em Base64 URL-safe para ser opaco
+ * ao cliente.
+ */
+final class CursorPaginacao {
+
+    private static final char SEPARADOR = '|';
+
+    private final String chave;
+    private final long id;
+
+    private CursorPaginacao(String chave, long id) {
+        this.chave = chave;
+        this.id = id;
+    }
+
+    String getChave() { return chave; }
+
+    long getId() { return id; }
+
+    static String codificar(String chave, long id) {
+        String bruto = chave + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Retorna {@code null} quando não há cursor (primeira página).
+     */
+    static CursorPaginacao decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = bruto.lastIndexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new ValidationException("Cursor de paginação inválido");
+            }
+            return new CursorPaginacao(bruto.substring(0, separador), Long.parseLong(bruto.substring(separador + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor de paginação inválido");
+        }
+    }
+
+    /**
+     * Recebe até {@code limite + 1} linhas; a linha excedente só indica que
+     * existe uma próxima página e é descartada.
+     */
+    static <T> Pagina<T> montarPagina(List<T> linhas, int limite, Function<T, String> cursorDe) {
+        if (linhas.size() <= limite) {
+            return new Pagina<>(linhas, null);
+        }
+
+        List<T> itens = linhas.subList(0, limite);
+        return new Pagina<>(itens, cursorDe.apply(itens.get(limite - 1)));
+    }
+}
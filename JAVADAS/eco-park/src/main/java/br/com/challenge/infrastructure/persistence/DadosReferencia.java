@@ -0,0 +1,104 @@
+package br.com.challenge.infrastructure.persistence;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Conjuntos pequenos de valores de referência (cargos de apoiador, médicos com
+ * teleconsulta) mantidos em memória, ordenados, para as listas das telas não
+ * irem ao Oracle. Cada conjunto é carregado no primeiro uso; um valor novo
+ * gravado entra na lista na hora, e uma alteração ou exclusão que pode ter
+ * tirado o último uso de um valor descarta a lista, recarregada por uma única
+ * consulta na leitura seguinte. Cada lista devolvida é imutável e só é trocada
+ * quando o conjunto muda, então quem a recebe pode reaproveitar o que derivou
+ * dela enquanto a instância for a mesma.
+ */
+@ApplicationScoped
+public class DadosReferencia {
+
+    private final Conjunto cargos = new Conjunto();
+    private final Conjunto medicos = new Conjunto();
+
+    List<String> cargos(Supplier<List<String>> carregar) {
+        return cargos.obter(carregar);
+    }
+
+    void cargoGravado(String cargo) {
+        cargos.adicionar(cargo);
+    }
+
+    void revisarCargos() {
+        cargos.descartar();
+    }
+
+    List<String> medicos(Supplier<List<String>> carregar) {
+        return medicos.obter(carregar);
+    }
+
+    void medicoGravado(String medico) {
+        medicos.adicionar(medico);
+    }
+
+    void revisarMedicos() {
+        medicos.descartar();
+    }
+
+    private static final class Conjunto {
+
+        // Em ordem binária (a das sessões, fixada em OrigemConexoes); null enquanto precisa ser carregada
+        private volatile List<String> valores;
+        // Incrementada a cada alteração: lista carregada enquanto houve escrita não é guardada
+        private long geracao;
+
+        List<String> obter(Supplier<List<String>> carregar) {
+            List<String> atuais = valores;
+            if (atuais != null) {
+                return atuais;
+            }
+
+            long geracaoInicial;
+            synchronized (this) {
+                geracaoInicial = geracao;
+            }
+            // Reordena aqui para a busca binária não depender da ordenação configurada na sessão
+            List<String> lidos = new ArrayList<>(carregar.get());
+            Collections.sort(lidos);
+            List<String> carregados = Collections.unmodifiableList(lidos);
+            synchronized (this) {
+                if (geracao != geracaoInicial) {
+                    return carregados;
+                }
+                if (valores == null) {
+                    valores = carregados;
+                }
+                return valores;
+            }
+        }
+
+        synchronized void adicionar(String valor) {
+            geracao++;
+            List<String> atuais = valores;
+            if (valor == null || atuais == null) {
+                return;
+            }
+
+            int posicao = Collections.binarySearch(atuais, valor);
+            if (posicao >= 0) {
+                return;
+            }
+            List<String> novos = new ArrayList<>(atuais.size() + 1);
+            novos.addAll(atuais);
+            novos.add(-posicao - 1, valor);
+            valores = Collections.unmodifiableList(novos);
+        }
+
+        synchronized void descartar() {
+            geracao++;
+            valores = null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package br.com.challenge.infrastructure.persistence;
+
+import java.sql.SQLException;
+
+/**
+ * Identificação dos erros do Oracle tratados pelos repositórios. Pelo código
+ * do erro, e não pelo tipo da exceção: o driver usa
+ * SQLIntegrityConstraintViolationException também para violação de FK.
+ */
+final class ErrosOracle {
+
+    // ORA-00001: unique constraint violated
+    private static final int VIOLACAO_UNICIDADE = 1;
+
+    // Nome dado em V4__nome_restricao_cpf.sql
+    static final String RESTRICAO_CPF = "UK_USUARIO_CPF";
+
+    private ErrosOracle() {}
+
+    static boolean violouUnicidade(SQLException e) {
+        return e.getErrorCode() == VIOLACAO_UNICIDADE;
+    }
+
+    /**
+     * ORA-00001 de uma restrição específica. A mensagem do Oracle traz o nome
+     * qualificado pelo esquema, como "(ECOPARK.UK_USUARIO_CPF)".
+     */
+    static boolean violouUnicidade(SQLException e, String restricao) {
+        return violouUnicidade(e) && e.getMessage() != null
+                && e.getMessage().toUpperCase().contains("." + restricao + ")");
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.challenge.infrastructure.persistence;
+
+import br.com.challenge.domain.logging.Logger;
+import br.com.challenge.infrastructure.logging.LoggerFactory;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Observador padrão das operações dos repositórios: acumula execuções, falhas,
+ * linhas e tempos por operação (expostos em /persistencia/estatisticas) e
+ * registra em log as operações mais lentas que o limite configurado.
+ */
+@ApplicationScoped
+public class EstatisticasOperacoes implements ObservadorJdbc {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstatisticasOperacoes.class);
+
+    @ConfigProperty(name = "app.persistencia.operacao-lenta-ms", defaultValue = "500")
+    long operacaoLentaMs;
+
+    private final ConcurrentHashMap<String, Contadores> porOperacao = new ConcurrentHashMap<>();
+
+    @Override
+    public void concluida(String operacao, long duracaoNanos, int linhas, boolean falhou) {
+        Contadores contadores = porOperacao.computeIfAbsent(operacao, o -> new Contadores());
+        contadores.execucoes.increment();
+        contadores.nanos.add(duracaoNanos);
+        contadores.maximoNanos.accumulateAndGet(duracaoNanos, Math::max);
+        if (linhas > 0) {
+            contadores.linhas.add(linhas);
+        }
+        if (falhou) {
+            contadores.falhas.increment();
+        }
+
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(duracaoNanos);
+        if (duracaoMs >= operacaoLentaMs) {
+            logger.warn("Operação lenta no banco: %s levou %d ms (%d linhas)", operacao, duracaoMs, Math.max(linhas, 0));
+        }
+    }
+
+    /**
+     * Totais por operação, em ordem de nome, para acompanhamento.
+     */
+    public Map<String, Map<String, Object>> estatisticas() {
+        Map<String, Map<String, Object>> resultado = new TreeMap<>();
+        porOperacao.forEach((operacao, contadores) -> {
+            long execucoes = contadores.execucoes.sum();
+            Map<String, Object> valores = new LinkedHashMap<>();
+            valores.put("execucoes", execucoes);
+            valores.put("falhas", contadores.falhas.sum());
+            valores.put("linhas", contadores.linhas.sum());
+            valores.put("mediaMs", execucoes > 0 ? contadores.nanos.sum() / execucoes / 1_000_000.0 : 0.0);
+            valores.put("maximoMs", contadores.maximoNanos.get() / 1_000_000.0);
+            resultado.put(operacao, valores);
+        });
+        return resultado;
+    }
+
+    private static final class Contadores {
+        private final LongAdder execucoes = new LongAdder();
+        private final LongAdder falhas = new LongAdder();
+        private final LongAdder linhas = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final AtomicLong maximoNanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.challenge.infrastructure.persistence;
+
+import io.agroal.api.AgroalDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Execução comum dos comandos dos repositórios: conexão, statement, parâmetros
+ * posicionais e leitura das linhas por índice ({@link MapeadorLinhas}). Cada
+ * operação recebe um nome, como {@code usuario.buscarPorId}, e ao terminar é
+ * informada aos {@link ObservadorJdbc} com a duração e o número de linhas.
+ * A SQLException volta a quem chamou, que decide a mensagem e o tratamento.
+ */
+@ApplicationScoped
+public class ExecutorJdbc {
+
+    @FunctionalInterface
+    interface Trabalho<T> {
+        T executar(Connection conn) throws SQLException;
+    }
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @Inject
+    Instance<ObservadorJdbc> instanciasObservadores;
+
+    private List<ObservadorJdbc> observadores;
+
+    @PostConstruct
+    void iniciar() {
+        // Resolvidos uma vez: percorrer o Instance a cada operação custaria uma busca no contêiner
+        List<ObservadorJdbc> encontrados = new ArrayList<>();
+        instanciasObservadores.forEach(encontrados::add);
+        observadores = List.copyOf(encontrados);
+    }
+
+    <T> List<T> listar(String operacao, String sql, Parametros parametros, MapeadorLinhas<T> mapeador) throws SQLException {
+        List<T> itens = new ArrayList<>();
+        consultar(operacao, sql, parametros, 0, mapeador, itens::add);
+        return itens;
+    }
+
+    <T> Optional<T> buscarUm(String operacao, String sql, Parametros parametros, MapeadorLinhas<T> mapeador) throws SQLException {
+        List<T> itens = new ArrayList<>(1);
+        consultar(operacao, sql, parametros, 0, mapeador, itens::add);
+        return itens.isEmpty() ? Optional.empty() : Optional.of(itens.get(0));
+    }
+
+    <T> void percorrer(String operacao, String sql, Parametros parametros, int fetchSize,
+                       MapeadorLinhas<T> mapeador, Consumer<T> consumidor) throws SQLException {
+        consultar(operacao, sql, parametros, fetchSize, mapeador, consumidor);
+    }
+
+    /**
+     * Primeira coluna da primeira linha como int, para COUNT(*); 0 sem linhas.
+     */
+    int contar(String operacao, String sql, Parametros parametros) throws SQLException {
+        long inicio = System.nanoTime();
+        boolean falhou = true;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            parametros.preencher(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                int total = rs.next() ? rs.getInt(1) : 0;
+                falhou = false;
+                return total;
+            }
+        } finally {
+            notificar(operacao, System.nanoTime() - inicio, 1, falhou);
+        }
+    }
+
+    /**
+     * Executa um trabalho livre sobre uma conexão do pool (escritas, blocos
+     * PL/SQL, lotes), com a mesma medição das consultas.
+     */
+    <T> T executar(String operacao, Trabalho<T> trabalho) throws SQLException {
+        long inicio = System.nanoTime();
+        boolean falhou = true;
+        try (Connection conn = dataSource.getConnection()) {
+            T resultado = trabalho.executar(conn);
+            falhou = false;
+            return resultado;
+        } finally {
+            notificar(operacao, System.nanoTime() - inicio, -1, falhou);
+        }
+    }
+
+    private <T> void consultar(String operacao, String sql, Parametros parametros, int fetchSize,
+                               MapeadorLinhas<T> mapeador, Consumer<T> consumidor) throws SQLException {
+        long inicio = System.nanoTime();
+        int linhas = 0;
+        boolean falhou = true;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            parametros.preencher(stmt);
+            if (fetchSize > 0) {
+                stmt.setFetchSize(fetchSize);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                int[] colunas = null;
+                while (rs.next()) {
+                    if (colunas == null) {
+                        colunas = mapeador.resolver(rs);
+                    }
+                    consumidor.accept(mapeador.ler(rs, colunas));
+                    linhas++;
+                }
+            }
+            falhou = false;
+        } finally {
+            notificar(operacao, System.nanoTime() - inicio, linhas, falhou);
+        }
+    }
+
+    private void notificar(String operacao, long duracaoNanos, int linhas, boolean falhou) {
+        for (ObservadorJdbc observador : observadores) {
+            observador.concluida(operacao, duracaoNanos, linhas, falhou);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package br.com.challenge.infrastructure.persistence;
+
+import br.com.challenge.domain.logging.Logger;
+import br.com.challenge.infrastructure.logging.LoggerFactory;
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória dos CPFs cadastrados, para saber se um CPF existe sem ir ao
+ * Oracle. Cada CPF vira um long (11 dígitos cabem em 37 bits) guardado numa
+ * tabela hash de endereçamento aberto sobre long[], sem um objeto por entrada.
+ * Na frente dela fica um filtro de Bloom, que descarta a maior parte dos CPFs
+ * ausentes sem percorrer a tabela. É carregado na partida e mantido pelos
+ * repositórios a cada cadastro e exclusão.
+ */
+@ApplicationScoped
+public class IndiceCpfs {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceCpfs.class);
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+    // Bits do filtro por posição da tabela; com ocupação de até 50%, são ao menos 16 bits por CPF
+    private static final int BITS_BLOOM_POR_POSICAO = 8;
+    private static final int FUNCOES_BLOOM = 5;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // CPF + 1 em cada posição ocupada; 0 marca posição livre (00000000000 é um CPF válido)
+    private long[] tabela;
+    private int tamanho;
+    private long[] bloom;
+    private volatile boolean carregado;
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        try {
+            carregar();
+        } catch (RuntimeException e) {
+            // Sem banco na partida: as consultas vão ao Oracle até a carga dar certo no primeiro uso
+            logger.warn("Índice de CPFs não carregado na partida: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Retorna se o CPF está cadastrado, ou null quando o índice não pode
+     * responder (CPF fora do formato de 11 dígitos ou índice não carregado) e
+     * a verificação deve ir ao banco.
+     */
+    public Boolean contem(String cpf) {
+        long valor = paraLong(cpf);
+        if (valor < 0 || !garantirCarregado()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            return talvezContenha(valor) && posicaoDe(valor) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void adicionar(String cpf) {
+        long valor = paraLong(cpf);
+        if (valor < 0) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Antes da carga não há o que manter: a carga lê o banco já com esta escrita
+            if (carregado) {
+                inserir(valor);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(String cpf) {
+        long valor = paraLong(cpf);
+        if (valor < 0) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (carregado) {
+                // O filtro de Bloom não remove: o bit fica e a tabela dá a resposta exata
+                retirar(valor);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean garantirCarregado() {
+        if (carregado) {
+            return true;
+        }
+        try {
+            carregar();
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Índice de CPFs indisponível, consultando o banco: %s", e.getMessage());
+            return false;
+        }
+    }
+
+    private void carregar() {
+        // A carga segura o lock de escrita: cadastros concluídos durante a leitura
+        // só entram no índice depois dela, e não são perdidos nem duplicados
+        lock.writeLock().lock();
+        try {
+            if (carregado) {
+                return;
+            }
+
+            tabela = new long[CAPACIDADE_INICIAL];
+            bloom = new long[CAPACIDADE_INICIAL * BITS_BLOOM_POR_POSICAO / 64];
+            tamanho = 0;
+
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement("SELECT cpf FROM usuario")) {
+
+                stmt.setFetchSize(1000);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        long valor = paraLong(rs.getString(1));
+                        if (valor >= 0) {
+                            inserir(valor);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new RuntimeException("Erro ao carregar índice de CPFs", e);
+            }
+
+            carregado = true;
+            logger.info("Índice de CPFs carregado com %d CPFs", tamanho);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void inserir(long valor) {
+        if (posicaoDe(valor) >= 0) {
+            return;
+        }
+        if ((tamanho + 1) * 2 > tabela.length) {
+            redimensionar(tabela.length * 2);
+        }
+
+        int mascara = tabela.length - 1;
+        int i = (int) misturar(valor) & mascara;
+        while (tabela[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        tabela[i] = valor + 1;
+        tamanho++;
+        marcarBloom(valor);
+    }
+
+    private void retirar(long valor) {
+        int i = posicaoDe(valor);
+        if (i < 0) {
+            return;
+        }
+
+        // Remoção com deslocamento para trás: puxa para o buraco as entradas
+        // seguintes cuja posição ideal não fica entre o buraco e elas
+        int mascara = tabela.length - 1;
+        tabela[i] = 0;
+        tamanho--;
+        for (int j = (i + 1) & mascara; tabela[j] != 0; j = (j + 1) & mascara) {
+            int ideal = (int) misturar(tabela[j] - 1) & mascara;
+            if (((j - ideal) & mascara) >= ((j - i) & mascara)) {
+                tabela[i] = tabela[j];
+                tabela[j] = 0;
+                i = j;
+            }
+        }
+    }
+
+    private int posicaoDe(long valor) {
+        int mascara = tabela.length - 1;
+        for (int i = (int) misturar(valor) & mascara; tabela[i] != 0; i = (i + 1) & mascara) {
+            if (tabela[i] == valor + 1) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void redimensionar(int capacidade) {
+        long[] antiga = tabela;
+        tabela = new long[capacidade];
+        // O filtro é refeito junto, o que também limpa os bits de CPFs já removidos
+        bloom = new long[capacidade * BITS_BLOOM_POR_POSICAO / 64];
+        tamanho = 0;
+        for (long entrada : antiga) {
+            if (entrada != 0) {
+                inserir(entrada - 1);
+            }
+        }
+    }
+
+    private void marcarBloom(long valor) {
+        long hash = misturar(valor);
+        long passo = (hash >>> 32) | 1;
+        long bits = (long) bloom.length * 64;
+        for (int k = 0; k < FUNCOES_BLOOM; k++) {
+            long bit = (hash + k * passo) & (bits - 1);
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private boolean talvezContenha(long valor) {
+        long hash = misturar(valor);
+        long passo = (hash >>> 32) | 1;
+        long bits = (long) bloom.length * 64;
+        for (int k = 0; k < FUNCOES_BLOOM; k++) {
+            long bit = (hash + k * passo) & (bits - 1);
+            if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finalizador do SplitMix64: espalha os bits de CPFs próximos, que são
+     * comuns, por toda a tabela e pelo filtro.
+     */
+    private static long misturar(long valor) {
+        long z = valor + 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * O CPF de 11 dígitos como número, ou -1 se não estiver nesse formato.
+     */
+    static long paraLong(String cpf) {
+        if (cpf == null || cpf.length() != 11) {
+            return -1;
+        }
+        long valor = 0;
+        for (int i = 0; i < 11; i++) {
+            char c = cpf.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            valor = valor * 10 + (c - '0');
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,300 @@
+package br.com.challenge.infrastructure.persistence;
+
+import br.com.challenge.domain.logging.Logger;
+import br.com.challenge.infrastructure.logging.LoggerFactory;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém os caches locais coerentes quando há várias instâncias da aplicação
+ * sobre o mesmo Oracle. Triggers gravam cada alteração de usuario, paciente,
+ * apoiador e teleconsulta na tabela alteracao_cache, na mesma transação da
+ * escrita; esta classe lê periodicamente as linhas novas e invalida, nos caches
+ * desta instância, o que outra instância alterou. As escritas locais já
+ * invalidam na hora e são reconhecidas pela origem gravada pelos triggers
+ * (ver {@link OrigemConexoes}).
+ * <p>
+ * A leitura segue o ID da linha, e não o horário gravado pelo trigger: o ID é
+ * reservado na gravação, mas a linha só aparece no commit, então uma transação
+ * longa pode confirmar um ID menor que outros já lidos. Cada ID pulado entre
+ * duas linhas lidas vira uma lacuna, consultada de novo a cada ciclo até a
+ * linha aparecer. Lacunas de transações desfeitas (ou de IDs que a identity
+ * descartou) nunca se preenchem e são abandonadas depois do tempo de retenção
+ * do registro, quando a linha já teria sido apagada de qualquer forma: só uma
+ * transação aberta por mais que a retenção depois de gravar escapa à leitura.
+ */
+@ApplicationScoped
+public class InvalidacaoEntreInstancias {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidacaoEntreInstancias.class);
+
+    private static final String COLUNAS = "SELECT id, entidade, entidade_id, operacao, detalhe, data_hora, origem FROM alteracao_cache ";
+
+    private static final String SQL_NOVAS = COLUNAS + "WHERE id > ? ORDER BY id";
+
+    // Limite de itens de uma lista IN no Oracle
+    private static final int LACUNAS_POR_CONSULTA = 1000;
+
+    // Saltos maiores não vêm do cache da identity; não são acompanhados ID a ID
+    private static final long MAIOR_SALTO_ACOMPANHADO = 10_000;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    CachesEntidades cachesEntidades;
+
+    @Inject
+    CacheConsultas cacheConsultas;
+
+    @Inject
+    AgendaMedicos agendaMedicos;
+
+    @Inject
+    DadosReferencia dadosReferencia;
+
+    @Inject
+    IndiceCpfs indiceCpfs;
+
+    @Inject
+    OrigemConexoes origemConexoes;
+
+    @ConfigProperty(name = "app.invalidacao.habilitada", defaultValue = "true")
+    boolean habilitada;
+
+    @ConfigProperty(name = "app.invalidacao.intervalo-ms", defaultValue = "1000")
+    long intervaloMs;
+
+    @ConfigProperty(name = "app.invalidacao.retencao-minutos", defaultValue = "10")
+    long retencaoMinutos;
+
+    private ScheduledExecutorService agendador;
+
+    // Estado da leitura, usado só pela thread do agendador; ultimoId 0 é "nenhuma linha lida ainda"
+    private long ultimoId;
+    private boolean posicionado;
+    private final TreeMap<Long, Long> lacunas = new TreeMap<>();
+    private long ciclos;
+
+    void aoIniciar(@Observes StartupEvent evento) {
+        if (!habilitada) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "invalidacao-entre-instancias");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(this::verificar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+        logger.info("Invalidação entre instâncias ativa (instância %s, intervalo %d ms)", origemConexoes.getInstancia(), intervaloMs);
+    }
+
+    @PreDestroy
+    void parar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+        }
+    }
+
+    void verificar() {
+        try {
+            // Na primeira leitura os caches ainda estão vazios: as linhas já confirmadas só marcam a
+            // posição e as lacunas; as que se confirmarem depois são aplicadas normalmente
+            boolean teleconsultas = lerNovas(posicionado);
+            posicionado = true;
+            if (!lacunas.isEmpty()) {
+                teleconsultas |= lerLacunas();
+                abandonarLacunasAntigas();
+            }
+
+            if (teleconsultas) {
+                // As tags das buscas de teleconsulta dependem de colunas que o registro não traz
+                cacheConsultas.invalidarSe("teleconsulta:", valor -> true);
+            }
+            if (++ciclos % Math.max(1, 60_000 / intervaloMs) == 0) {
+                limpar();
+            }
+        } catch (RuntimeException e) {
+            // Sem banco, a próxima leitura retoma do mesmo ID
+            logger.warn("Falha ao ler alterações de outras instâncias: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Lê as linhas com ID acima do último lido, registrando como lacuna cada
+     * ID pulado desde a primeira linha lida. Retorna se alguma alteração
+     * aplicada é de teleconsulta.
+     */
+    private boolean lerNovas(boolean aplicar) {
+        boolean teleconsultas = false;
+        long ultimo = ultimoId;
+        long agora = System.nanoTime();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_NOVAS)) {
+
+            stmt.setLong(1, ultimo);
+            stmt.setFetchSize(500);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong("id");
+                    if (ultimo > 0) {
+                        registrarLacunas(ultimo, id, agora);
+                    }
+                    ultimo = id;
+                    if (aplicar) {
+                        teleconsultas |= aplicar(rs);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao ler alterações de outras instâncias", e);
+        }
+
+        ultimoId = ultimo;
+        return teleconsultas;
+    }
+
+    /**
+     * Consulta de novo as lacunas mais antigas; as que aparecerem são
+     * aplicadas e deixam de ser lacunas.
+     */
+    private boolean lerLacunas() {
+        List<Long> ids = new ArrayList<>(LACUNAS_POR_CONSULTA);
+        for (Long id : lacunas.keySet()) {
+            if (ids.size() == LACUNAS_POR_CONSULTA) {
+                break;
+            }
+            ids.add(id);
+        }
+
+        String sql = COLUNAS + "WHERE id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ") ORDER BY id";
+        boolean teleconsultas = false;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < ids.size(); i++) {
+                stmt.setLong(i + 1, ids.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lacunas.remove(rs.getLong("id"));
+                    teleconsultas |= aplicar(rs);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao ler alterações pendentes de outras instâncias", e);
+        }
+        return teleconsultas;
+    }
+
+    private void registrarLacunas(long anterior, long id, long agora) {
+        long salto = id - anterior - 1;
+        if (salto <= 0) {
+            return;
+        }
+        if (salto > MAIOR_SALTO_ACOMPANHADO) {
+            logger.warn("Salto de %d IDs no registro de alterações (%d a %d) não acompanhado", salto, anterior, id);
+            return;
+        }
+        for (long lacuna = anterior + 1; lacuna < id; lacuna++) {
+            lacunas.put(lacuna, agora);
+        }
+    }
+
+    private void abandonarLacunasAntigas() {
+        long limite = System.nanoTime() - TimeUnit.MINUTES.toNanos(retencaoMinutos);
+        int antes = lacunas.size();
+        lacunas.values().removeIf(notadaEm -> notadaEm - limite < 0);
+        if (lacunas.size() < antes) {
+            logger.debug("%d lacunas do registro de alterações abandonadas após a retenção", antes - lacunas.size());
+        }
+    }
+
+    private boolean aplicar(ResultSet rs) throws SQLException {
+        if (origemConexoes.getInstancia().equals(rs.getString("origem"))) {
+            return false;
+        }
+        return aplicar(rs.getString("entidade"), rs.getLong("entidade_id"),
+                rs.getString("operacao"), rs.getString("detalhe"),
+                rs.getObject("data_hora", LocalDateTime.class));
+    }
+
+    /**
+     * Invalida o que a alteração afeta e retorna se ela é de teleconsulta.
+     */
+    private boolean aplicar(String entidade, long id, String operacao, String detalhe, LocalDateTime dataHora) {
+        switch (entidade) {
+            case "usuario":
+                cachesEntidades.invalidarUsuario(id);
+                cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", id));
+                if ("I".equals(operacao)) {
+                    indiceCpfs.adicionar(detalhe);
+                } else if ("D".equals(operacao)) {
+                    indiceCpfs.remover(detalhe);
+                }
+                return false;
+            case "paciente":
+                cachesEntidades.invalidarUsuario(id);
+                cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", id),
+                        CacheConsultas.tag("paciente", "apoiador", detalhe));
+                return false;
+            case "apoiador":
+                cachesEntidades.invalidarUsuario(id);
+                cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", id),
+                        CacheConsultas.tag("apoiador", "cargo", detalhe));
+                if ("I".equals(operacao)) {
+                    dadosReferencia.cargoGravado(detalhe);
+                } else {
+                    dadosReferencia.revisarCargos();
+                }
+                return false;
+            case "teleconsulta":
+                cachesEntidades.teleconsultas().invalidar(id);
+                agendaMedicos.descartar(id);
+                if (detalhe != null && dataHora != null) {
+                    agendaMedicos.descartar(detalhe, dataHora);
+                }
+                if ("I".equals(operacao)) {
+                    dadosReferencia.medicoGravado(detalhe);
+                } else {
+                    dadosReferencia.revisarMedicos();
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void limpar() {
+        String sql = "DELETE FROM alteracao_cache WHERE alterado_em < SYS_EXTRACT_UTC(SYSTIMESTAMP) - NUMTODSINTERVAL(?, 'MINUTE')";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, retencaoMinutos);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao limpar registro de alterações", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package br.com.challenge.infrastructure.persistence;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.enterprise.context.RequestScoped;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mapa de identidade da requisição HTTP: cada entidade buscada por ID é
+ * carregada no máximo uma vez por requisição, e as buscas seguintes devolvem
+ * a mesma instância (ou a mesma ausência). Fica na frente dos caches
+ * compartilhados de {@link CachesEntidades} e é limpo pelas mesmas
+ * invalidações das escritas, então uma releitura depois de gravar vai ao
+ * cache ou ao banco. Também conta as conexões pedidas ao pool na requisição.
+ */
+@RequestScoped
+public class MapaIdentidade {
+
+    private final Map<String, Map<Long, Optional<?>>> entidades = new ConcurrentHashMap<>();
+    private final AtomicInteger consultas = new AtomicInteger();
+    private final AtomicInteger reaproveitadas = new AtomicInteger();
+
+    /**
+     * Se há requisição ativa na thread atual. Fora dela (partida, tarefas em
+     * outras threads) o mapa não existe e as buscas seguem direto para o cache,
+     * assim como sem contêiner (encerramento, uso fora do Quarkus).
+     */
+    static boolean ativo() {
+        ArcContainer container = Arc.container();
+        return container != null && container.requestContext().isActive();
+    }
+
+    boolean contem(String tipo, Long id) {
+        Map<Long, Optional<?>> doTipo = entidades.get(tipo);
+        return doTipo != null && doTipo.containsKey(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> Optional<T> obter(String tipo, Long id) {
+        reaproveitadas.incrementAndGet();
+        return (Optional<T>) entidades.get(tipo).get(id);
+    }
+
+    void guardar(String tipo, Long id, Optional<?> entidade) {
+        entidades.computeIfAbsent(tipo, t -> new ConcurrentHashMap<>()).put(id, entidade);
+    }
+
+    void remover(String tipo, Long id) {
+        Map<Long, Optional<?>> doTipo = entidades.get(tipo);
+        if (doTipo != null) {
+            doTipo.remove(id);
+        }
+    }
+
+    void removerTodos(String tipo) {
+        entidades.remove(tipo);
+    }
+
+    void registrarConsulta() {
+        consultas.incrementAndGet();
+    }
+
+    public int getConsultas() {
+        return consultas.get();
+    }
+
+    public int getReaproveitadas() {
+        return reaproveitadas.get();
+    }
+}
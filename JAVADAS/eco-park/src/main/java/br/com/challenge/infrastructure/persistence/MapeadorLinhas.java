@@ -0,0 +1,50 @@
+package br.com.challenge.infrastructure.persistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Conversão de linhas de um ResultSet em objetos, lendo as colunas por índice.
+ * O mapeador declara os nomes das colunas que usa; o índice de cada uma é
+ * resolvido uma vez por ResultSet, e o leitor recebe os índices na ordem da
+ * declaração. Assim o driver não procura a coluna pelo nome a cada linha.
+ */
+final class MapeadorLinhas<T> {
+
+    @FunctionalInterface
+    interface Leitor<T> {
+        T ler(ResultSet rs, int[] colunas) throws SQLException;
+    }
+
+    private final String[] nomes;
+    private final Leitor<T> leitor;
+
+    private MapeadorLinhas(String[] nomes, Leitor<T> leitor) {
+        this.nomes = nomes;
+        this.leitor = leitor;
+    }
+
+    static <T> MapeadorLinhas<T> de(Leitor<T> leitor, String... colunas) {
+        return new MapeadorLinhas<>(colunas, leitor);
+    }
+
+    int[] resolver(ResultSet rs) throws SQLException {
+        int[] indices = new int[nomes.length];
+        for (int i = 0; i < nomes.length; i++) {
+            indices[i] = rs.findColumn(nomes[i]);
+        }
+        return indices;
+    }
+
+    T ler(ResultSet rs, int[] indices) throws SQLException {
+        return leitor.ler(rs, indices);
+    }
+
+    /**
+     * Valor de uma coluna NUMBER que aceita nulo, que getLong devolveria como 0.
+     */
+    static Long longOuNulo(ResultSet rs, int coluna) throws SQLException {
+        long valor = rs.getLong(coluna);
+        return rs.wasNull() ? null : valor;
+    }
+}
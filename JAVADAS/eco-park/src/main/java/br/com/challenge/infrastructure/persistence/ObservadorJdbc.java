@@ -0,0 +1,17 @@
+package br.com.challenge.infrastructure.persistence;
+
+/**
+ * Ponto de extensão chamado pelo {@link ExecutorJdbc} ao fim de cada operação
+ * dos repositórios. Implementações são beans CDI; todas as encontradas são
+ * notificadas, na thread da operação, então devem ser rápidas.
+ */
+public interface ObservadorJdbc {
+
+    /**
+     * @param operacao nome da operação, como {@code usuario.buscarPorId}
+     * @param duracaoNanos tempo desde o pedido da conexão até sua devolução
+     * @param linhas linhas lidas, ou -1 quando a operação não é uma leitura
+     * @param falhou se a operação terminou com exceção
+     */
+    void concluida(String operacao, long duracaoNanos, int linhas, boolean falhou);
+}
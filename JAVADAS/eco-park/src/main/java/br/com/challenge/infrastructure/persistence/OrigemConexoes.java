@@ -0,0 +1,45 @@
+package br.com.challenge.infrastructure.persistence;
+
+import io.agroal.api.AgroalPoolInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Prepara as sessões do Oracle abertas pelo pool.
+ *
+ * Cada conexão recebe o ID da instância como CLIENT_IDENTIFIER, que os
+ * triggers de alteracao_cache gravam como origem da alteração, e passa a
+ * ordenar e comparar texto em modo binário. O driver herda NLS_SORT do
+ * locale da JVM (WEST_EUROPEAN em pt_BR); com ele o ORDER BY nome_completo
+ * ordenaria linguisticamente enquanto o "nome_completo > ?" da paginação por
+ * cursor compara binário, pulando ou repetindo linhas entre páginas, e o
+ * índice (nome_completo, id) não serviria para a ordenação.
+ */
+@ApplicationScoped
+public class OrigemConexoes implements AgroalPoolInterceptor {
+
+    static final String SESSAO_BINARIA = "ALTER SESSION SET NLS_SORT = BINARY NLS_COMP = BINARY";
+
+    private final String instancia = UUID.randomUUID().toString();
+
+    @Override
+    public void onConnectionCreate(Connection connection) {
+        try {
+            connection.setClientInfo("OCSID.CLIENTID", instancia);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute(SESSAO_BINARIA);
+            }
+        } catch (SQLException e) {
+            // Sem origem e sem ordenação binária a conexão não serve: a criação dela falha
+            throw new RuntimeException("Erro ao preparar a sessão da conexão", e);
+        }
+    }
+
+    String getInstancia() {
+        return instancia;
+    }
+}
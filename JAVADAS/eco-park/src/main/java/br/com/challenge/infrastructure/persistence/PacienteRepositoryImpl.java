@@ -1,290 +1,340 @@
 package br.com.challenge.infrastructure.persistence;
 
+import br.com.challenge.domain.exceptions.ValidationException;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.repository.PacienteRepository;
-import br.com.challenge.domain.repository.UsuarioRepository;
 import br.com.challenge.domain.model.Paciente;
-import br.com.challenge.domain.model.Usuario;
-import io.agroal.api.AgroalDataSource;
+import br.com.challenge.domain.model.PacienteResumo;
+import br.com.challenge.domain.model.UsuarioResumo;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 @ApplicationScoped
 public class PacienteRepositoryImpl implements PacienteRepository {
 
+    private static final int LIMITE_CLAUSULA_IN = 1000;
+
+    static final String SELECT_PACIENTE = "SELECT u.*, p.telefone_contato, p.numero_sus_ou_convenio, p.apoiador_id " +
+            "FROM usuario u INNER JOIN paciente p ON u.id = p.id ";
+
+    // Listagens trazem só o resumo; senha, endereço e idade ficam para o detalhe
+    static final String COLUNAS_RESUMO = "u.id, u.nome_completo, u.cpf, u.telefone, u.versao, p.numero_sus_ou_convenio, p.apoiador_id";
+
+    static final MapeadorLinhas<Paciente> PACIENTE = MapeadorLinhas.de((rs, c) -> new Paciente(
+                    rs.getLong(c[0]),
+                    rs.getString(c[1]),
+                    rs.getInt(c[2]),
+                    rs.getString(c[3]),
+                    rs.getString(c[4]),
+                    rs.getInt(c[5]),
+                    rs.getString(c[6]),
+                    rs.getString(c[7]),
+                    rs.getString(c[8]),
+                    rs.getString(c[9]),
+                    MapeadorLinhas.longOuNulo(rs, c[10]),
+                    rs.getString(c[11]),
+                    rs.getLong(c[12])),
+            "id", "nome_completo", "idade", "cpf", "cep", "numero", "complemento", "telefone", "senha",
+            "telefone_contato", "apoiador_id", "numero_sus_ou_convenio", "versao");
+
+    static final MapeadorLinhas<PacienteResumo> RESUMO = MapeadorLinhas.de((rs, c) -> new PacienteResumo(
+                    rs.getLong(c[0]),
+                    rs.getString(c[1]),
+                    rs.getString(c[2]),
+                    rs.getString(c[3]),
+                    rs.getLong(c[4]),
+                    rs.getString(c[5]),
+                    MapeadorLinhas.longOuNulo(rs, c[6])),
+            "id", "nome_completo", "cpf", "telefone", "versao", "numero_sus_ou_convenio", "apoiador_id");
+
+    @Inject
+    ExecutorJdbc executorJdbc;
+
+    @Inject
+    CachesEntidades cachesEntidades;
+
+    @Inject
+    CacheConsultas cacheConsultas;
+
+    @ConfigProperty(name = "app.exportacao.fetch-size", defaultValue = "500")
+    int fetchSizeExportacao;
+
     @Inject
-    AgroalDataSource dataSource;
+    AlocadorIds alocadorIds;
 
     @Inject
-    UsuarioRepository usuarioRepository;
+    IndiceCpfs indiceCpfs;
 
     @Override
-    public List<Paciente> listarTodos() {
-        List<Paciente> pacientes = new ArrayList<>();
-        String sql = "SELECT u.*, p.telefone_contato, p.numero_sus_ou_convenio, p.apoiador_id " +
+    public List<PacienteResumo> listarTodos() {
+        String sql = "SELECT " + COLUNAS_RESUMO + " " +
                 "FROM usuario u INNER JOIN paciente p ON u.id = p.id " +
                 "ORDER BY u.nome_completo";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                pacientes.add(criarPacienteFromResultSet(rs));
-            }
+        try {
+            return executorJdbc.listar("paciente.listarTodos", sql, Parametros.NENHUM, RESUMO);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao listar pacientes", e);
         }
-        return pacientes;
     }
 
     @Override
-    public Optional<Paciente> buscarPorId(Long id) {
-        String sql = "SELECT u.*, p.telefone_contato, p.numero_sus_ou_convenio, p.apoiador_id " +
+    public Pagina<PacienteResumo> listarPagina(String cursor, int limite) {
+        CursorPaginacao posicao = CursorPaginacao.decodificar(cursor);
+        String sql = "SELECT " + COLUNAS_RESUMO + " " +
                 "FROM usuario u INNER JOIN paciente p ON u.id = p.id " +
-                "WHERE u.id = ?";
+                (posicao == null ? "" : "WHERE u.nome_completo >= ? AND (u.nome_completo > ? OR u.id > ?) ") +
+                "ORDER BY u.nome_completo, u.id FETCH FIRST ? ROWS ONLY";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(criarPacienteFromResultSet(rs));
+        List<PacienteResumo> pacientes;
+        try {
+            pacientes = executorJdbc.listar("paciente.listarPagina", sql, stmt -> {
+                int indice = 1;
+                if (posicao != null) {
+                    stmt.setString(indice++, posicao.getChave());
+                    stmt.setString(indice++, posicao.getChave());
+                    stmt.setLong(indice++, posicao.getId());
                 }
-            }
+                stmt.setInt(indice, limite + 1);
+            }, RESUMO);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao listar página de pacientes", e);
+        }
+        return CursorPaginacao.montarPagina(pacientes, limite,
+                item -> CursorPaginacao.codificar(item.getNomeCompleto(), item.getId()));
+    }
+
+    @Override
+    public void percorrerTodos(Consumer<Paciente> consumidor) {
+        String sql = SELECT_PACIENTE + "ORDER BY u.id";
+
+        try {
+            executorJdbc.percorrer("paciente.percorrerTodos", sql, Parametros.NENHUM, fetchSizeExportacao, PACIENTE, consumidor);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao exportar pacientes", e);
+        }
+    }
+
+    @Override
+    public Optional<Paciente> buscarPorId(Long id) {
+        return cachesEntidades.pacientes().buscarPorId(id, this::buscarPorIdNoBanco);
+    }
+
+    private Optional<Paciente> buscarPorIdNoBanco(Long id) {
+        String sql = SELECT_PACIENTE + "WHERE u.id = ?";
+
+        try {
+            return executorJdbc.buscarUm("paciente.buscarPorId", sql, stmt -> stmt.setLong(1, id), PACIENTE);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar paciente por ID: " + id, e);
         }
-        return Optional.empty();
     }
 
     @Override
     public Optional<Paciente> buscarPorCpf(String cpf) {
-        String sql = "SELECT u.*, p.telefone_contato, p.numero_sus_ou_convenio, p.apoiador_id " +
-                "FROM usuario u INNER JOIN paciente p ON u.id = p.id " +
-                "WHERE u.cpf = ?";
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = SELECT_PACIENTE + "WHERE u.cpf = ?";
 
-            stmt.setString(1, cpf);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(criarPacienteFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.buscarUm("paciente.buscarPorCpf", sql, stmt -> stmt.setString(1, cpf), PACIENTE);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar paciente por CPF: " + cpf, e);
         }
-        return Optional.empty();
     }
 
+    /**
+     * Grava usuario e paciente num único bloco PL/SQL: uma conexão, uma ida ao
+     * banco e atomicidade garantida pelo próprio bloco.
+     */
     @Override
     public Paciente salvar(Paciente paciente) {
-        Connection conn = null;
-        try {
-            conn = dataSource.getConnection();
-            conn.setAutoCommit(false);
-
-            Usuario usuarioSalvo = usuarioRepository.salvar(paciente);
-            paciente.setId(usuarioSalvo.getId());
-
-            String sqlPaciente = "INSERT INTO paciente (id, telefone_contato, numero_sus_ou_convenio, apoiador_id) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlPaciente)) {
-                stmt.setLong(1, paciente.getId());
-                stmt.setString(2, paciente.getTelefoneContato());
-                stmt.setString(3, paciente.getNumeroSusOuConvenio()); // CORRIGIDO: getNumeroSusOuConvenio()
-
-                if (paciente.getApoiadorId() != null) {
-                    stmt.setLong(4, paciente.getApoiadorId());
-                } else {
-                    stmt.setNull(4, Types.NUMERIC);
-                }
-                stmt.executeUpdate();
-            }
+        String sql = "BEGIN " +
+                UsuarioSql.INSERIR + "; " +
+                "INSERT INTO paciente (id, telefone_contato, numero_sus_ou_convenio, apoiador_id) VALUES (?, ?, ?, ?); " +
+                "END;";
 
-            conn.commit();
-            return paciente;
+        long id = alocadorIds.proximoId(AlocadorIds.Sequencia.USUARIO);
 
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
+        try {
+            return executorJdbc.executar("paciente.salvar", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    int indice = UsuarioSql.preencherInsercao(stmt, 1, id, paciente);
+                    stmt.setLong(indice++, id);
+                    stmt.setString(indice++, paciente.getTelefoneContato());
+                    stmt.setString(indice++, paciente.getNumeroSusOuConvenio());
+                    if (paciente.getApoiadorId() != null) {
+                        stmt.setLong(indice, paciente.getApoiadorId());
+                    } else {
+                        stmt.setNull(indice, Types.NUMERIC);
+                    }
+
+                    stmt.execute();
+                    paciente.setId(id);
+                    indiceCpfs.adicionar(paciente.getCpf());
+                    cacheConsultas.invalidar(CacheConsultas.tag("paciente", "apoiador", paciente.getApoiadorId()));
+                    return paciente;
                 }
+            });
+        } catch (SQLException e) {
+            if (ErrosOracle.violouUnicidade(e, ErrosOracle.RESTRICAO_CPF)) {
+                throw new ValidationException("CPF já cadastrado no sistema");
             }
             throw new RuntimeException("Erro ao salvar paciente", e);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                }
-            }
         }
     }
 
     @Override
     public boolean atualizar(Paciente paciente) {
-        Connection conn = null;
-        try {
-            conn = dataSource.getConnection();
-            conn.setAutoCommit(false);
-
-            boolean usuarioAtualizado = usuarioRepository.atualizar(paciente);
-            if (!usuarioAtualizado) {
-                conn.rollback();
-                return false;
-            }
-
-            String sqlPaciente = "UPDATE paciente SET telefone_contato = ?, numero_sus_ou_convenio = ?, apoiador_id = ? WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlPaciente)) {
-                stmt.setString(1, paciente.getTelefoneContato());
-                stmt.setString(2, paciente.getNumeroSusOuConvenio()); // CORRIGIDO: getNumeroSusOuConvenio()
-
-                if (paciente.getApoiadorId() != null) {
-                    stmt.setLong(3, paciente.getApoiadorId());
-                } else {
-                    stmt.setNull(3, Types.NUMERIC);
-                }
-                stmt.setLong(4, paciente.getId());
+        // A linha base vai primeiro, restrita ao tipo e à versão esperada; a específica só é
+        // alterada se ela passou, então um conflito não deixa o bloco gravado pela metade
+        String sql = "BEGIN " +
+                UsuarioSql.atualizar(paciente, true) + "; " +
+                "IF SQL%ROWCOUNT = 1 THEN UPDATE paciente SET telefone_contato = ?, numero_sus_ou_convenio = ?, apoiador_id = ? WHERE id = ?; END IF; " +
+                "? := SQL%ROWCOUNT; " +
+                "END;";
 
-                int rowsAffected = stmt.executeUpdate();
-                if (rowsAffected == 0) {
-                    conn.rollback();
-                    return false;
+        try {
+            return executorJdbc.executar("paciente.atualizar", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    int indiceVersao = UsuarioSql.preencherAtualizacao(stmt, 1, paciente, true);
+                    int indice = indiceVersao + 1;
+                    stmt.setString(indice++, paciente.getTelefoneContato());
+                    stmt.setString(indice++, paciente.getNumeroSusOuConvenio());
+                    if (paciente.getApoiadorId() != null) {
+                        stmt.setLong(indice++, paciente.getApoiadorId());
+                    } else {
+                        stmt.setNull(indice++, Types.NUMERIC);
+                    }
+                    stmt.setLong(indice++, paciente.getId());
+                    stmt.registerOutParameter(indice, Types.INTEGER);
+
+                    stmt.execute();
+                    cachesEntidades.invalidarUsuario(paciente.getId());
+                    cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", paciente.getId()),
+                            CacheConsultas.tag("paciente", "apoiador", paciente.getApoiadorId()));
+                    if (stmt.getInt(indice) == 0) {
+                        return false;
+                    }
+                    paciente.setVersao(stmt.getLong(indiceVersao));
+                    return true;
                 }
-            }
-
-            conn.commit();
-            return true;
-
+            });
         } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
-                }
-            }
             throw new RuntimeException("Erro ao atualizar paciente: " + paciente.getId(), e);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                }
-            }
         }
     }
 
     @Override
     public boolean deletar(Long id) {
-        Connection conn = null;
-        try {
-            conn = dataSource.getConnection();
-            conn.setAutoCommit(false);
-
-            String sqlPaciente = "DELETE FROM paciente WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sqlPaciente)) {
-                stmt.setLong(1, id);
-                stmt.executeUpdate();
-            }
+        String sql = "BEGIN " +
+                "DELETE FROM paciente WHERE id = ?; " +
+                "IF SQL%ROWCOUNT = 1 THEN DELETE FROM usuario WHERE id = ? RETURNING cpf INTO ?; END IF; " +
+                "? := SQL%ROWCOUNT; " +
+                "END;";
 
-            boolean usuarioDeletado = usuarioRepository.deletar(id);
-            if (!usuarioDeletado) {
-                conn.rollback();
-                return false;
-            }
-
-            conn.commit();
-            return true;
-
-        } catch (SQLException e) {
-            if (conn != null) {
-                try {
-                    conn.rollback();
-                } catch (SQLException ex) {
+        try {
+            return executorJdbc.executar("paciente.deletar", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    stmt.setLong(1, id);
+                    stmt.setLong(2, id);
+                    stmt.registerOutParameter(3, Types.VARCHAR);
+                    stmt.registerOutParameter(4, Types.INTEGER);
+
+                    stmt.execute();
+                    cachesEntidades.invalidarUsuario(id);
+                    cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", id));
+                    if (stmt.getInt(4) == 0) {
+                        return false;
+                    }
+                    indiceCpfs.remover(stmt.getString(3));
+                    return true;
                 }
-            }
+            });
+        } catch (SQLException e) {
             throw new RuntimeException("Erro ao deletar paciente: " + id, e);
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException e) {
-                }
-            }
         }
     }
 
     @Override
-    public List<Paciente> buscarPorApoiador(Long apoiadorId) {
-        List<Paciente> pacientes = new ArrayList<>();
-        String sql = "SELECT u.*, p.telefone_contato, p.numero_sus_ou_convenio, p.apoiador_id " +
+    public List<PacienteResumo> buscarPorApoiador(Long apoiadorId) {
+        return cacheConsultas.buscar("paciente:porApoiador:" + apoiadorId, () -> buscarPorApoiadorNoBanco(apoiadorId),
+                PacienteRepositoryImpl::tagsDaLinha, UnaryOperator.identity(),
+                CacheConsultas.tag("paciente", "apoiador", apoiadorId));
+    }
+
+    private List<PacienteResumo> buscarPorApoiadorNoBanco(Long apoiadorId) {
+        String sql = "SELECT " + COLUNAS_RESUMO + " " +
                 "FROM usuario u INNER JOIN paciente p ON u.id = p.id " +
                 "WHERE p.apoiador_id = ? ORDER BY u.nome_completo";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return executorJdbc.listar("paciente.buscarPorApoiador", sql, stmt -> stmt.setLong(1, apoiadorId), RESUMO);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar pacientes por apoiador: " + apoiadorId, e);
+        }
+    }
+
+    @Override
+    public Set<Long> buscarIdsExistentes(Collection<Long> ids) {
+        Set<Long> existentes = new HashSet<>();
+        List<Long> pendentes = new ArrayList<>(new HashSet<>(ids));
+        if (pendentes.isEmpty()) {
+            return existentes;
+        }
 
-            stmt.setLong(1, apoiadorId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    pacientes.add(criarPacienteFromResultSet(rs));
+        try {
+            executorJdbc.executar("paciente.buscarIdsExistentes", conn -> {
+                // O Oracle aceita no máximo 1000 expressões por IN
+                for (int inicio = 0; inicio < pendentes.size(); inicio += LIMITE_CLAUSULA_IN) {
+                    List<Long> parte = pendentes.subList(inicio, Math.min(inicio + LIMITE_CLAUSULA_IN, pendentes.size()));
+                    String sql = "SELECT id FROM paciente WHERE id IN (" +
+                            String.join(", ", Collections.nCopies(parte.size(), "?")) + ")";
+
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < parte.size(); i++) {
+                            stmt.setLong(i + 1, parte.get(i));
+                        }
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                existentes.add(rs.getLong(1));
+                            }
+                        }
+                    }
                 }
-            }
+                return null;
+            });
         } catch (SQLException e) {
-            throw new RuntimeException("Erro ao buscar pacientes por apoiador: " + apoiadorId, e);
+            throw new RuntimeException("Erro ao verificar existência de pacientes", e);
         }
-        return pacientes;
+        return existentes;
     }
 
     @Override
     public int contarTotal() {
         String sql = "SELECT COUNT(*) FROM paciente";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
+        try {
+            return executorJdbc.contar("paciente.contarTotal", sql, Parametros.NENHUM);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao contar pacientes", e);
         }
-        return 0;
     }
 
-    private Paciente criarPacienteFromResultSet(ResultSet rs) throws SQLException {
-        Paciente paciente = new Paciente(
-                rs.getLong("id"),
-                rs.getString("nome_completo"),
-                rs.getInt("idade"),
-                rs.getString("cpf"),
-                rs.getString("cep"),
-                rs.getInt("numero"),
-                rs.getString("complemento"),
-                rs.getString("telefone"),
-                rs.getString("senha"),
-                rs.getString("telefone_contato"),
-                rs.getLong("apoiador_id"),
-                rs.getString("numero_sus_ou_convenio"), // NOVO CAMPO
-                rs.getLong("versao")
-        );
-
-        if (rs.getObject("apoiador_id") == null) {
-            paciente.setApoiadorId(null);
-        }
-
-        return paciente;
+    private static Collection<String> tagsDaLinha(UsuarioResumo usuario) {
+        return List.of(CacheConsultas.tag("usuario", "id", usuario.getId()));
     }
 }
\ No newline at end of file
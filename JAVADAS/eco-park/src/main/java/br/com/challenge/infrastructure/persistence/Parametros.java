@@ -0,0 +1,15 @@
+package br.com.challenge.infrastructure.persistence;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Preenchimento posicional dos parâmetros de um comando, na ordem dos "?" do SQL.
+ */
+@FunctionalInterface
+interface Parametros {
+
+    Parametros NENHUM = stmt -> {};
+
+    void preencher(PreparedStatement stmt) throws SQLException;
+}
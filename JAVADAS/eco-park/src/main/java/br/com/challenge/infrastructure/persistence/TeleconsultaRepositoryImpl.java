@@ -1,124 +1,471 @@
 package br.com.challenge.infrastructure.persistence;
 
+import br.com.challenge.domain.exceptions.ValidationException;
+import br.com.challenge.domain.logging.Logger;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.repository.TeleconsultaRepository;
 import br.com.challenge.domain.model.Teleconsulta;
-import io.agroal.api.AgroalDataSource;
+import br.com.challenge.infrastructure.logging.LoggerFactory;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class TeleconsultaRepositoryImpl implements TeleconsultaRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(TeleconsultaRepositoryImpl.class);
+
+    private static final String TAG_BUSCA_MEDICO = "teleconsulta:medico~";
+    private static final String TAG_HOJE = "teleconsulta:hoje";
+
+    // Listas e buscas trazem o nome do paciente no mesmo comando, sem uma ida ao banco por linha
+    static final String SELECT_COM_PACIENTE = "SELECT t.*, u.nome_completo AS nome_paciente " +
+            "FROM teleconsulta t JOIN usuario u ON u.id = t.paciente_id";
+
+    // Bloqueia a linha do médico em trava_medico (V8), criando-a no primeiro agendamento;
+    // requer v_medico declarado no bloco. Parâmetros: médico, médico
+    private static final String TRAVAR_MEDICO =
+            "BEGIN INSERT INTO trava_medico (medico) VALUES (?); EXCEPTION WHEN DUP_VAL_ON_INDEX THEN NULL; END; " +
+            "SELECT medico INTO v_medico FROM trava_medico WHERE medico = ? FOR UPDATE; ";
+
+    // Mesma regra de horarioDisponivel no próprio INSERT; parâmetros em preencherInsercaoSeLivre
+    private static final String INSERIR_SE_LIVRE =
+            "INSERT INTO teleconsulta (id, paciente_id, medico, data_hora, status, observacoes) " +
+            "SELECT ?, ?, ?, ?, ?, ? FROM dual WHERE NOT EXISTS (" +
+            "SELECT 1 FROM teleconsulta WHERE medico = ? AND data_hora BETWEEN ? AND ? AND status != 'CANCELADA')";
+
+    private static final String[] COLUNAS_TELECONSULTA = {
+            "id", "paciente_id", "medico", "data_hora", "status", "observacoes", "versao"};
+
+    static final MapeadorLinhas<Teleconsulta> TELECONSULTA = MapeadorLinhas.de(
+            TeleconsultaRepositoryImpl::lerTeleconsulta, COLUNAS_TELECONSULTA);
+
+    static final MapeadorLinhas<Teleconsulta> TELECONSULTA_COM_PACIENTE = MapeadorLinhas.de((rs, c) -> {
+        Teleconsulta teleconsulta = lerTeleconsulta(rs, c);
+        teleconsulta.setNomePaciente(rs.getString(c[COLUNAS_TELECONSULTA.length]));
+        return teleconsulta;
+    }, colunasComPaciente());
+
+    private static final MapeadorLinhas<String> MEDICO = MapeadorLinhas.de((rs, c) -> rs.getString(c[0]), "medico");
+
+    private static final MapeadorLinhas<LocalDateTime> DATA_HORA = MapeadorLinhas.de(
+            (rs, c) -> rs.getTimestamp(c[0]).toLocalDateTime(), "data_hora");
+
+    @Inject
+    ExecutorJdbc executorJdbc;
+
+    @Inject
+    CachesEntidades cachesEntidades;
+
+    @Inject
+    CacheConsultas cacheConsultas;
+
+    @Inject
+    AlocadorIds alocadorIds;
+
     @Inject
-    AgroalDataSource dataSource;
+    AgendaMedicos agendaMedicos;
+
+    @Inject
+    DadosReferencia dadosReferencia;
+
+    @ConfigProperty(name = "app.exportacao.fetch-size", defaultValue = "500")
+    int fetchSizeExportacao;
 
     @Override
     public List<Teleconsulta> listarTodas() {
-        List<Teleconsulta> teleconsultas = new ArrayList<>();
-        String sql = "SELECT * FROM teleconsulta ORDER BY data_hora DESC";
+        String sql = SELECT_COM_PACIENTE + " ORDER BY t.data_hora DESC";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            while (rs.next()) {
-                teleconsultas.add(criarTeleconsultaFromResultSet(rs));
-            }
+        try {
+            return executorJdbc.listar("teleconsulta.listarTodas", sql, Parametros.NENHUM, TELECONSULTA_COM_PACIENTE);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao listar teleconsultas", e);
         }
-        return teleconsultas;
+    }
+
+    @Override
+    public Pagina<Teleconsulta> listarPagina(String cursor, int limite) {
+        CursorPaginacao posicao = CursorPaginacao.decodificar(cursor);
+        String sql = posicao == null
+                ? SELECT_COM_PACIENTE + " ORDER BY t.data_hora DESC, t.id DESC FETCH FIRST ? ROWS ONLY"
+                : SELECT_COM_PACIENTE + " WHERE t.data_hora <= ? AND (t.data_hora < ? OR t.id < ?) " +
+                "ORDER BY t.data_hora DESC, t.id DESC FETCH FIRST ? ROWS ONLY";
+
+        List<Teleconsulta> teleconsultas;
+        try {
+            Timestamp dataHora = posicao != null ? Timestamp.valueOf(LocalDateTime.parse(posicao.getChave())) : null;
+            teleconsultas = executorJdbc.listar("teleconsulta.listarPagina", sql, stmt -> {
+                int indice = 1;
+                if (posicao != null) {
+                    stmt.setTimestamp(indice++, dataHora);
+                    stmt.setTimestamp(indice++, dataHora);
+                    stmt.setLong(indice++, posicao.getId());
+                }
+                stmt.setInt(indice, limite + 1);
+            }, TELECONSULTA_COM_PACIENTE);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Cursor de paginação inválido");
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao listar página de teleconsultas", e);
+        }
+        return CursorPaginacao.montarPagina(teleconsultas, limite,
+                t -> CursorPaginacao.codificar(t.getDataHora().toString(), t.getId()));
+    }
+
+    @Override
+    public void percorrerTodas(Consumer<Teleconsulta> consumidor) {
+        String sql = SELECT_COM_PACIENTE + " ORDER BY t.id";
+
+        try {
+            executorJdbc.percorrer("teleconsulta.percorrerTodas", sql, Parametros.NENHUM, fetchSizeExportacao,
+                    TELECONSULTA_COM_PACIENTE, consumidor);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao exportar teleconsultas", e);
+        }
     }
 
     @Override
     public Optional<Teleconsulta> buscarPorId(Long id) {
-        String sql = "SELECT * FROM teleconsulta WHERE id = ?";
+        return cachesEntidades.teleconsultas().buscarPorId(id, this::buscarPorIdNoBanco);
+    }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private Optional<Teleconsulta> buscarPorIdNoBanco(Long id) {
+        String sql = "SELECT * FROM teleconsulta WHERE id = ?";
 
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(criarTeleconsultaFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.buscarUm("teleconsulta.buscarPorId", sql, stmt -> stmt.setLong(1, id), TELECONSULTA);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar teleconsulta por ID: " + id, e);
         }
-        return Optional.empty();
     }
 
     @Override
     public Teleconsulta salvar(Teleconsulta teleconsulta) {
         String sql = "INSERT INTO teleconsulta (id, paciente_id, medico, data_hora, status, observacoes) " +
-                "VALUES (seq_teleconsulta.NEXTVAL, ?, ?, ?, ?, ?)";
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        // ID reservado em memória: dispensa o getGeneratedKeys()
+        long id = alocadorIds.proximoId(AlocadorIds.Sequencia.TELECONSULTA);
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"id"})) {
+        try {
+            return executorJdbc.executar("teleconsulta.salvar", conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setLong(1, teleconsulta.getPacienteId());
-            stmt.setString(2, teleconsulta.getMedico());
-            stmt.setTimestamp(3, Timestamp.valueOf(teleconsulta.getDataHora()));
-            stmt.setString(4, teleconsulta.getStatus());
-            stmt.setString(5, teleconsulta.getObservacoes());
+                    stmt.setLong(1, id);
+                    stmt.setLong(2, teleconsulta.getPacienteId());
+                    stmt.setString(3, teleconsulta.getMedico());
+                    stmt.setTimestamp(4, Timestamp.valueOf(teleconsulta.getDataHora()));
+                    stmt.setString(5, teleconsulta.getStatus());
+                    stmt.setString(6, teleconsulta.getObservacoes());
 
-            stmt.executeUpdate();
+                    stmt.executeUpdate();
+                    teleconsulta.setId(id);
+                    agendaMedicos.registrar(teleconsulta);
+                    dadosReferencia.medicoGravado(teleconsulta.getMedico());
+                    invalidarConsultas(teleconsulta);
 
-            // Obter o ID gerado
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    teleconsulta.setId(generatedKeys.getLong(1));
+                    return teleconsulta;
                 }
+            });
+        } catch (SQLException e) {
+            if (ErrosOracle.violouUnicidade(e)) {
+                throw new ValidationException("Médico não disponível no horário selecionado");
             }
+            throw new RuntimeException("Erro ao salvar teleconsulta", e);
+        }
+    }
 
-            return teleconsulta;
-
+    /**
+     * Insere a teleconsulta só se o médico estiver livre, com a mesma regra de
+     * horarioDisponivel avaliada no próprio INSERT. Antes da verificação a linha
+     * do médico em trava_medico é bloqueada: agendamentos concorrentes do mesmo
+     * médico, de qualquer instância, são serializados no banco e o NOT EXISTS
+     * de cada um enxerga os anteriores já confirmados. Trava, verificação e
+     * gravação vão num único bloco PL/SQL, confirmado ao fim da chamada.
+     */
+    @Override
+    public boolean salvarSeDisponivel(Teleconsulta teleconsulta) {
+        String sql = "DECLARE v_medico trava_medico.medico%TYPE; BEGIN " +
+                TRAVAR_MEDICO +
+                INSERIR_SE_LIVRE + "; " +
+                "? := SQL%ROWCOUNT; " +
+                "END;";
+
+        long id = alocadorIds.proximoId(AlocadorIds.Sequencia.TELECONSULTA);
+
+        try {
+            return executorJdbc.executar("teleconsulta.salvarSeDisponivel", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    stmt.setString(1, teleconsulta.getMedico());
+                    stmt.setString(2, teleconsulta.getMedico());
+                    preencherInsercaoSeLivre(stmt, 3, id, teleconsulta);
+                    stmt.registerOutParameter(12, Types.INTEGER);
+
+                    stmt.execute();
+                    if (stmt.getInt(12) == 0) {
+                        return false;
+                    }
+
+                    teleconsulta.setId(id);
+                    agendaMedicos.registrar(teleconsulta);
+                    dadosReferencia.medicoGravado(teleconsulta.getMedico());
+                    invalidarConsultas(teleconsulta);
+                    return true;
+                }
+            });
         } catch (SQLException e) {
+            if (ErrosOracle.violouUnicidade(e)) {
+                return false;
+            }
             throw new RuntimeException("Erro ao salvar teleconsulta", e);
         }
     }
 
+    /**
+     * Grava o lote numa só transação. Os médicos do lote são travados em ordem
+     * alfabética (sem deadlock entre lotes) antes dos INSERTs condicionais; um
+     * item cujo horário foi ocupado por outra instância depois da conferência
+     * do serviço não é inserido, fica sem ID e fora do retorno, e os demais são
+     * confirmados.
+     */
     @Override
-    public boolean atualizar(Teleconsulta teleconsulta) {
-        String sql = "UPDATE teleconsulta SET paciente_id = ?, medico = ?, data_hora = ?, " +
-                "status = ?, observacoes = ? WHERE id = ?";
+    public List<Teleconsulta> salvarEmLote(List<Teleconsulta> teleconsultas) {
+        if (teleconsultas.isEmpty()) {
+            return teleconsultas;
+        }
+
+        Set<String> medicos = teleconsultas.stream()
+                .map(Teleconsulta::getMedico)
+                .collect(Collectors.toCollection(TreeSet::new));
+        teleconsultas.forEach(t -> t.setId(alocadorIds.proximoId(AlocadorIds.Sequencia.TELECONSULTA)));
+
+        int[] inseridas;
+        try {
+            try {
+                inseridas = gravarLote(medicos, teleconsultas, false);
+            } catch (SQLException e) {
+                if (!ErrosOracle.violouUnicidade(e)) {
+                    throw e;
+                }
+                // O lote para no primeiro ORA-00001 sem dizer de qual item: refeito item a item,
+                // cada um com seu savepoint, o conflito recusa só o próprio item
+                inseridas = gravarLote(medicos, teleconsultas, true);
+            }
+        } catch (SQLException e) {
+            teleconsultas.forEach(t -> t.setId(null));
+            throw new RuntimeException("Erro ao salvar lote de teleconsultas", e);
+        }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        List<Teleconsulta> gravadas = new ArrayList<>();
+        for (int i = 0; i < teleconsultas.size(); i++) {
+            Teleconsulta teleconsulta = teleconsultas.get(i);
+            if (inseridas[i] == 0) {
+                teleconsulta.setId(null);
+            } else {
+                gravadas.add(teleconsulta);
+            }
+        }
 
-            stmt.setLong(1, teleconsulta.getPacienteId());
-            stmt.setString(2, teleconsulta.getMedico());
-            stmt.setTimestamp(3, Timestamp.valueOf(teleconsulta.getDataHora()));
-            stmt.setString(4, teleconsulta.getStatus());
-            stmt.setString(5, teleconsulta.getObservacoes());
-            stmt.setLong(6, teleconsulta.getId());
+        gravadas.forEach(agendaMedicos::registrar);
+        gravadas.forEach(t -> dadosReferencia.medicoGravado(t.getMedico()));
+        gravadas.forEach(this::invalidarConsultas);
+        return gravadas;
+    }
+
+    /**
+     * Trava os médicos e insere o lote numa transação, retornando as linhas
+     * inseridas por item (0 para horário ocupado).
+     */
+    private int[] gravarLote(Set<String> medicos, List<Teleconsulta> teleconsultas, boolean itemAItem) throws SQLException {
+        String travar = "DECLARE v_medico trava_medico.medico%TYPE; BEGIN " + TRAVAR_MEDICO + "END;";
+
+        return executorJdbc.executar("teleconsulta.salvarEmLote", conn -> {
+            conn.setAutoCommit(false);
+            try {
+                try (CallableStatement stmt = conn.prepareCall(travar)) {
+                    for (String medico : medicos) {
+                        stmt.setString(1, medico);
+                        stmt.setString(2, medico);
+                        stmt.execute();
+                    }
+                }
+
+                int[] inseridas;
+                try (PreparedStatement stmt = conn.prepareStatement(INSERIR_SE_LIVRE)) {
+                    if (itemAItem) {
+                        inseridas = new int[teleconsultas.size()];
+                        for (int i = 0; i < teleconsultas.size(); i++) {
+                            inseridas[i] = inserirComSavepoint(conn, stmt, teleconsultas.get(i));
+                        }
+                    } else {
+                        for (Teleconsulta teleconsulta : teleconsultas) {
+                            preencherInsercaoSeLivre(stmt, 1, teleconsulta.getId(), teleconsulta);
+                            stmt.addBatch();
+                        }
+                        inseridas = stmt.executeBatch();
+                    }
+                }
 
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+                conn.commit();
+                return inseridas;
+            } catch (SQLException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    logger.warn("Falha ao desfazer o lote de teleconsultas: %s", ex.getMessage());
+                }
+                throw e;
+            } finally {
+                try {
+                    conn.setAutoCommit(true);
+                } catch (SQLException e) {
+                    // A conexão volta ao pool assim mesmo; o Agroal restaura o autocommit na devolução
+                    logger.warn("Falha ao restaurar o autocommit após o lote de teleconsultas: %s", e.getMessage());
+                }
+            }
+        });
+    }
 
+    private static int inserirComSavepoint(Connection conn, PreparedStatement stmt, Teleconsulta teleconsulta) throws SQLException {
+        Savepoint savepoint = conn.setSavepoint();
+        try {
+            preencherInsercaoSeLivre(stmt, 1, teleconsulta.getId(), teleconsulta);
+            return stmt.executeUpdate();
         } catch (SQLException e) {
+            if (!ErrosOracle.violouUnicidade(e)) {
+                throw e;
+            }
+            conn.rollback(savepoint);
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean atualizar(Teleconsulta teleconsulta) {
+        return atualizar(teleconsulta, false);
+    }
+
+    /**
+     * Como atualizar, mas com a trava do médico no banco e a mesma regra de
+     * horarioDisponivel (ignorando a própria consulta) conferida no mesmo bloco
+     * PL/SQL, antes do UPDATE: médico ou horário alterados não se sobrepõem a um
+     * agendamento concorrente de outra instância.
+     */
+    @Override
+    public boolean atualizarSeDisponivel(Teleconsulta teleconsulta) {
+        return atualizar(teleconsulta, true);
+    }
+
+    private boolean atualizar(Teleconsulta teleconsulta, boolean conferirHorario) {
+        // Sem versão esperada a última escrita vence; com ela, o UPDATE não altera nada se outra chegou antes
+        // versao nula (linhas antigas) é lida como 0 e assim volta no If-Match
+        boolean conferirVersao = teleconsulta.getVersao() != null;
+        String atualizacao = "UPDATE teleconsulta SET paciente_id = ?, medico = ?, data_hora = ?, " +
+                "status = ?, observacoes = ?, versao = NVL(versao, 0) + 1 WHERE id = ?" +
+                (conferirVersao ? " AND NVL(versao, 0) = ?" : "") +
+                " RETURNING versao INTO ?; " +
+                "v_linhas := SQL%ROWCOUNT; ";
+        // v_linhas -1: horário ocupado, nada foi alterado
+        String sql = conferirHorario
+                ? "DECLARE v_medico trava_medico.medico%TYPE; v_conflitos NUMBER; v_linhas NUMBER; BEGIN " +
+                TRAVAR_MEDICO +
+                "SELECT COUNT(*) INTO v_conflitos FROM teleconsulta WHERE medico = ? AND data_hora BETWEEN ? AND ? " +
+                "AND status != 'CANCELADA' AND id != ?; " +
+                "IF v_conflitos > 0 THEN v_linhas := -1; ELSE " + atualizacao + "END IF; " +
+                "? := v_linhas; END;"
+                : "DECLARE v_linhas NUMBER; BEGIN " + atualizacao + "? := v_linhas; END;";
+
+        int linhas;
+        try {
+            linhas = executorJdbc.executar("teleconsulta.atualizar", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    int indice = 1;
+                    if (conferirHorario) {
+                        stmt.setString(indice++, teleconsulta.getMedico());
+                        stmt.setString(indice++, teleconsulta.getMedico());
+                        stmt.setString(indice++, teleconsulta.getMedico());
+                        stmt.setTimestamp(indice++, Timestamp.valueOf(teleconsulta.getDataHora()));
+                        stmt.setTimestamp(indice++, Timestamp.valueOf(teleconsulta.getDataHora().plusMinutes(30)));
+                        stmt.setLong(indice++, teleconsulta.getId());
+                    }
+                    stmt.setLong(indice++, teleconsulta.getPacienteId());
+                    stmt.setString(indice++, teleconsulta.getMedico());
+                    stmt.setTimestamp(indice++, Timestamp.valueOf(teleconsulta.getDataHora()));
+                    stmt.setString(indice++, teleconsulta.getStatus());
+                    stmt.setString(indice++, teleconsulta.getObservacoes());
+                    stmt.setLong(indice++, teleconsulta.getId());
+                    if (conferirVersao) {
+                        stmt.setLong(indice++, teleconsulta.getVersao());
+                    }
+                    int indiceVersao = indice;
+                    stmt.registerOutParameter(indiceVersao, Types.NUMERIC);
+                    stmt.registerOutParameter(indiceVersao + 1, Types.INTEGER);
+
+                    stmt.execute();
+                    int rowsAffected = stmt.getInt(indiceVersao + 1);
+                    cachesEntidades.teleconsultas().invalidar(teleconsulta.getId());
+                    invalidarConsultas(teleconsulta);
+                    if (rowsAffected > 0) {
+                        // Horário e médico podem ter mudado: descarta o dia antigo e o novo
+                        agendaMedicos.descartar(teleconsulta.getId());
+                        agendaMedicos.descartar(teleconsulta.getMedico(), teleconsulta.getDataHora());
+                        // O médico anterior pode ter perdido a última consulta
+                        dadosReferencia.revisarMedicos();
+                        teleconsulta.setVersao(stmt.getLong(indiceVersao));
+                    }
+                    return rowsAffected;
+                }
+            });
+        } catch (SQLException e) {
+            if (ErrosOracle.violouUnicidade(e)) {
+                throw new ValidationException("Médico não disponível no horário selecionado");
+            }
             throw new RuntimeException("Erro ao atualizar teleconsulta: " + teleconsulta.getId(), e);
         }
+
+        if (linhas < 0) {
+            throw new ValidationException("Médico não disponível no horário selecionado");
+        }
+        return linhas > 0;
     }
 
     @Override
     public boolean deletar(Long id) {
         String sql = "DELETE FROM teleconsulta WHERE id = ?";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setLong(1, id);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-
+        try {
+            return executorJdbc.executar("teleconsulta.deletar", conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                    stmt.setLong(1, id);
+                    int rowsAffected = stmt.executeUpdate();
+                    cachesEntidades.teleconsultas().invalidar(id);
+                    cacheConsultas.invalidar(CacheConsultas.tag("teleconsulta", "id", id));
+                    if (rowsAffected > 0) {
+                        agendaMedicos.descartar(id);
+                        dadosReferencia.revisarMedicos();
+                    }
+                    return rowsAffected > 0;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao deletar teleconsulta: " + id, e);
         }
@@ -126,114 +473,120 @@ public class TeleconsultaRepositoryImpl implements TeleconsultaRepository {
 
     @Override
     public List<Teleconsulta> buscarPorPaciente(Long pacienteId) {
-        List<Teleconsulta> teleconsultas = new ArrayList<>();
-        String sql = "SELECT * FROM teleconsulta WHERE paciente_id = ? ORDER BY data_hora DESC";
+        return cacheConsultas.buscar("teleconsulta:porPaciente:" + pacienteId, () -> buscarPorPacienteNoBanco(pacienteId),
+                TeleconsultaRepositoryImpl::tagsDaLinha, CachesEntidades::copiarTeleconsulta, CacheConsultas.tag("teleconsulta", "paciente", pacienteId));
+    }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private List<Teleconsulta> buscarPorPacienteNoBanco(Long pacienteId) {
+        String sql = SELECT_COM_PACIENTE + " WHERE t.paciente_id = ? ORDER BY t.data_hora DESC";
 
-            stmt.setLong(1, pacienteId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    teleconsultas.add(criarTeleconsultaFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.listar("teleconsulta.buscarPorPaciente", sql, stmt -> stmt.setLong(1, pacienteId),
+                    TELECONSULTA_COM_PACIENTE);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar teleconsultas por paciente: " + pacienteId, e);
         }
-        return teleconsultas;
     }
 
     @Override
     public List<Teleconsulta> buscarPorMedico(String medico) {
-        List<Teleconsulta> teleconsultas = new ArrayList<>();
-        String sql = "SELECT * FROM teleconsulta WHERE medico LIKE ? ORDER BY data_hora DESC";
+        return cacheConsultas.buscar("teleconsulta:porMedico:" + medico, () -> buscarPorMedicoNoBanco(medico),
+                TeleconsultaRepositoryImpl::tagsDaLinha, CachesEntidades::copiarTeleconsulta, TAG_BUSCA_MEDICO + medico);
+    }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private List<Teleconsulta> buscarPorMedicoNoBanco(String medico) {
+        String sql = SELECT_COM_PACIENTE + " WHERE t.medico LIKE ? ORDER BY t.data_hora DESC";
 
-            stmt.setString(1, "%" + medico + "%");
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    teleconsultas.add(criarTeleconsultaFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.listar("teleconsulta.buscarPorMedico", sql, stmt -> stmt.setString(1, "%" + medico + "%"),
+                    TELECONSULTA_COM_PACIENTE);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar teleconsultas por médico: " + medico, e);
         }
-        return teleconsultas;
     }
 
     @Override
     public List<Teleconsulta> buscarPorStatus(String status) {
-        List<Teleconsulta> teleconsultas = new ArrayList<>();
-        String sql = "SELECT * FROM teleconsulta WHERE status = ? ORDER BY data_hora DESC";
+        return cacheConsultas.buscar("teleconsulta:porStatus:" + status, () -> buscarPorStatusNoBanco(status),
+                TeleconsultaRepositoryImpl::tagsDaLinha, CachesEntidades::copiarTeleconsulta, CacheConsultas.tag("teleconsulta", "status", status));
+    }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private List<Teleconsulta> buscarPorStatusNoBanco(String status) {
+        String sql = SELECT_COM_PACIENTE + " WHERE t.status = ? ORDER BY t.data_hora DESC";
 
-            stmt.setString(1, status);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    teleconsultas.add(criarTeleconsultaFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.listar("teleconsulta.buscarPorStatus", sql, stmt -> stmt.setString(1, status),
+                    TELECONSULTA_COM_PACIENTE);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar teleconsultas por status: " + status, e);
         }
-        return teleconsultas;
     }
 
     @Override
     public List<Teleconsulta> consultasDeHoje() {
-        List<Teleconsulta> teleconsultas = new ArrayList<>();
-        String sql = "SELECT * FROM teleconsulta WHERE TRUNC(data_hora) = TRUNC(SYSDATE) AND status = 'AGENDADA' " +
-                "ORDER BY data_hora";
+        return cacheConsultas.buscar("teleconsulta:hoje:" + LocalDate.now(), this::consultasDeHojeNoBanco,
+                TeleconsultaRepositoryImpl::tagsDaLinha, CachesEntidades::copiarTeleconsulta, TAG_HOJE);
+    }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    private List<Teleconsulta> consultasDeHojeNoBanco() {
+        String sql = SELECT_COM_PACIENTE + " WHERE t.status = 'AGENDADA' " +
+                "AND t.data_hora >= TRUNC(SYSDATE) AND t.data_hora < TRUNC(SYSDATE) + 1 " +
+                "ORDER BY t.data_hora";
 
-            while (rs.next()) {
-                teleconsultas.add(criarTeleconsultaFromResultSet(rs));
-            }
+        try {
+            return executorJdbc.listar("teleconsulta.consultasDeHoje", sql, Parametros.NENHUM, TELECONSULTA_COM_PACIENTE);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar consultas de hoje", e);
         }
-        return teleconsultas;
     }
 
     @Override
     public boolean atualizarStatus(Long id, String novoStatus) {
-        String sql = "UPDATE teleconsulta SET status = ? WHERE id = ?";
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, novoStatus);
-            stmt.setLong(2, id);
-
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
-
+        String sql = "UPDATE teleconsulta SET status = ?, versao = NVL(versao, 0) + 1 WHERE id = ?";
+
+        try {
+            return executorJdbc.executar("teleconsulta.atualizarStatus", conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                    stmt.setString(1, novoStatus);
+                    stmt.setLong(2, id);
+
+                    int rowsAffected = stmt.executeUpdate();
+                    cachesEntidades.teleconsultas().invalidar(id);
+                    // Data e médico não mudam; a consulta pode entrar na lista do novo status e na de hoje
+                    cacheConsultas.invalidar(CacheConsultas.tag("teleconsulta", "id", id),
+                            CacheConsultas.tag("teleconsulta", "status", novoStatus), TAG_HOJE);
+                    if (rowsAffected > 0) {
+                        agendaMedicos.descartar(id);
+                    }
+                    return rowsAffected > 0;
+                }
+            });
         } catch (SQLException e) {
+            if (ErrosOracle.violouUnicidade(e)) {
+                throw new ValidationException("Médico não disponível no horário selecionado");
+            }
             throw new RuntimeException("Erro ao atualizar status da teleconsulta: " + id, e);
         }
     }
 
     @Override
     public boolean adicionarObservacoes(Long id, String observacoes) {
-        String sql = "UPDATE teleconsulta SET observacoes = ? WHERE id = ?";
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "UPDATE teleconsulta SET observacoes = ?, versao = NVL(versao, 0) + 1 WHERE id = ?";
 
-            stmt.setString(1, observacoes);
-            stmt.setLong(2, id);
+        try {
+            return executorJdbc.executar("teleconsulta.adicionarObservacoes", conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+                    stmt.setString(1, observacoes);
+                    stmt.setLong(2, id);
 
+                    int rowsAffected = stmt.executeUpdate();
+                    cachesEntidades.teleconsultas().invalidar(id);
+                    cacheConsultas.invalidar(CacheConsultas.tag("teleconsulta", "id", id));
+                    return rowsAffected > 0;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao adicionar observações à teleconsulta: " + id, e);
         }
@@ -241,73 +594,157 @@ public class TeleconsultaRepositoryImpl implements TeleconsultaRepository {
 
     @Override
     public boolean horarioDisponivel(LocalDateTime dataHora, String medico) {
+        Boolean disponivel = agendaMedicos.horarioDisponivel(dataHora, medico);
+        if (disponivel != null) {
+            return disponivel;
+        }
+
         String sql = "SELECT COUNT(*) FROM teleconsulta WHERE medico = ? AND data_hora BETWEEN ? AND ? AND status != 'CANCELADA'";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try {
+            return executorJdbc.contar("teleconsulta.horarioDisponivel", sql, stmt -> {
+                stmt.setString(1, medico);
+                stmt.setTimestamp(2, Timestamp.valueOf(dataHora));
+                stmt.setTimestamp(3, Timestamp.valueOf(dataHora.plusMinutes(30)));
+            }) == 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao verificar disponibilidade de horário", e);
+        }
+    }
 
-            stmt.setString(1, medico);
-            stmt.setTimestamp(2, Timestamp.valueOf(dataHora));
-            stmt.setTimestamp(3, Timestamp.valueOf(dataHora.plusMinutes(30)));
+    @Override
+    public List<LocalDateTime> buscarHorariosOcupados(String medico, LocalDateTime inicio, LocalDateTime fim) {
+        String sql = "SELECT data_hora FROM teleconsulta WHERE medico = ? AND data_hora BETWEEN ? AND ? " +
+                "AND status != 'CANCELADA' ORDER BY data_hora";
+
+        try {
+            return executorJdbc.listar("teleconsulta.buscarHorariosOcupados", sql, stmt -> {
+                stmt.setString(1, medico);
+                stmt.setTimestamp(2, Timestamp.valueOf(inicio));
+                stmt.setTimestamp(3, Timestamp.valueOf(fim));
+            }, DATA_HORA);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao buscar horários ocupados do médico: " + medico, e);
+        }
+    }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) == 0;
-                }
-            }
+    @Override
+    public Map<String, List<LocalDateTime>> buscarHorariosOcupadosPorMedico(LocalDateTime inicio, LocalDateTime fim) {
+        Map<String, List<LocalDateTime>> horarios = new HashMap<>();
+        String sql = "SELECT medico, data_hora FROM teleconsulta WHERE data_hora BETWEEN ? AND ? " +
+                "AND status != 'CANCELADA' ORDER BY medico, data_hora";
+
+        try {
+            executorJdbc.percorrer("teleconsulta.buscarHorariosOcupadosPorMedico", sql, stmt -> {
+                stmt.setTimestamp(1, Timestamp.valueOf(inicio));
+                stmt.setTimestamp(2, Timestamp.valueOf(fim));
+            }, fetchSizeExportacao, MapeadorLinhas.de(
+                    (rs, c) -> Map.entry(rs.getString(c[0]), rs.getTimestamp(c[1]).toLocalDateTime()), "medico", "data_hora"),
+                    horario -> horarios.computeIfAbsent(horario.getKey(), m -> new ArrayList<>()).add(horario.getValue()));
         } catch (SQLException e) {
-            throw new RuntimeException("Erro ao verificar disponibilidade de horário", e);
+            throw new RuntimeException("Erro ao buscar horários ocupados dos médicos", e);
+        }
+        return horarios;
+    }
+
+    @Override
+    public List<String> listarMedicos() {
+        return dadosReferencia.medicos(this::listarMedicosNoBanco);
+    }
+
+    private List<String> listarMedicosNoBanco() {
+        String sql = "SELECT DISTINCT medico FROM teleconsulta";
+
+        try {
+            return executorJdbc.listar("teleconsulta.listarMedicos", sql, Parametros.NENHUM, MEDICO);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao listar médicos", e);
         }
-        return false;
     }
 
     @Override
     public int contarPorStatus(String status) {
         String sql = "SELECT COUNT(*) FROM teleconsulta WHERE status = ?";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, status);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
-                }
-            }
+        try {
+            return executorJdbc.contar("teleconsulta.contarPorStatus", sql, stmt -> stmt.setString(1, status));
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao contar teleconsultas por status: " + status, e);
         }
-        return 0;
     }
 
     @Override
     public int contarTotal() {
         String sql = "SELECT COUNT(*) FROM teleconsulta";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
+        try {
+            return executorJdbc.contar("teleconsulta.contarTotal", sql, Parametros.NENHUM);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao contar teleconsultas", e);
         }
-        return 0;
     }
 
-    private Teleconsulta criarTeleconsultaFromResultSet(ResultSet rs) throws SQLException {
-        Timestamp timestamp = rs.getTimestamp("data_hora");
+    private static Collection<String> tagsDaLinha(Teleconsulta teleconsulta) {
+        // O nome do paciente vem da linha de usuario: renomeá-lo invalida a busca
+        return List.of(CacheConsultas.tag("teleconsulta", "id", teleconsulta.getId()),
+                CacheConsultas.tag("usuario", "id", teleconsulta.getPacienteId()));
+    }
+
+    /**
+     * Invalida as buscas em cache em que a teleconsulta aparece (pela tag do ID)
+     * ou passa a aparecer (pelos seus valores atuais de paciente, status, médico e data).
+     */
+    private void invalidarConsultas(Teleconsulta teleconsulta) {
+        List<String> tags = new ArrayList<>();
+        tags.add(CacheConsultas.tag("teleconsulta", "id", teleconsulta.getId()));
+        tags.add(CacheConsultas.tag("teleconsulta", "paciente", teleconsulta.getPacienteId()));
+        tags.add(CacheConsultas.tag("teleconsulta", "status", teleconsulta.getStatus()));
+        if (teleconsulta.getDataHora() != null && teleconsulta.getDataHora().toLocalDate().equals(LocalDate.now())) {
+            tags.add(TAG_HOJE);
+        }
+        cacheConsultas.invalidar(tags.toArray(new String[0]));
+
+        // buscarPorMedico usa LIKE '%termo%': invalida os termos que casam com o nome gravado
+        String medico = teleconsulta.getMedico();
+        if (medico != null) {
+            cacheConsultas.invalidarSe(TAG_BUSCA_MEDICO,
+                    termo -> medico.contains(termo) || termo.contains("%") || termo.contains("_"));
+        }
+    }
+
+    private static void preencherInsercaoSeLivre(PreparedStatement stmt, int inicio, long id,
+                                                 Teleconsulta teleconsulta) throws SQLException {
+        Timestamp dataHora = Timestamp.valueOf(teleconsulta.getDataHora());
+        stmt.setLong(inicio, id);
+        stmt.setLong(inicio + 1, teleconsulta.getPacienteId());
+        stmt.setString(inicio + 2, teleconsulta.getMedico());
+        stmt.setTimestamp(inicio + 3, dataHora);
+        stmt.setString(inicio + 4, teleconsulta.getStatus());
+        stmt.setString(inicio + 5, teleconsulta.getObservacoes());
+        stmt.setString(inicio + 6, teleconsulta.getMedico());
+        stmt.setTimestamp(inicio + 7, dataHora);
+        stmt.setTimestamp(inicio + 8, Timestamp.valueOf(teleconsulta.getDataHora().plusMinutes(30)));
+    }
+
+    private static Teleconsulta lerTeleconsulta(ResultSet rs, int[] c) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(c[3]);
         LocalDateTime dataHora = timestamp != null ? timestamp.toLocalDateTime() : null;
 
-        return new Teleconsulta(
-                rs.getLong("id"),
-                rs.getLong("paciente_id"),
-                rs.getString("medico"),
+        Teleconsulta teleconsulta = new Teleconsulta(
+                rs.getLong(c[0]),
+                rs.getLong(c[1]),
+                rs.getString(c[2]),
                 dataHora,
-                rs.getString("status"),
-                rs.getString("observacoes")
+                rs.getString(c[4]),
+                rs.getString(c[5])
         );
+        teleconsulta.setVersao(rs.getLong(c[6]));
+        return teleconsulta;
+    }
+
+    private static String[] colunasComPaciente() {
+        String[] colunas = Arrays.copyOf(COLUNAS_TELECONSULTA, COLUNAS_TELECONSULTA.length + 1);
+        colunas[COLUNAS_TELECONSULTA.length] = "nome_paciente";
+        return colunas;
     }
 }
\ No newline at end of file
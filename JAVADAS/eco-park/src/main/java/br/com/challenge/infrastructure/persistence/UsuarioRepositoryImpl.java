@@ -1,138 +1,191 @@
 package br.com.challenge.infrastructure.persistence;
 
+import br.com.challenge.domain.exceptions.ValidationException;
+import br.com.challenge.domain.repository.Pagina;
 import br.com.challenge.domain.repository.UsuarioRepository;
 import br.com.challenge.domain.model.Usuario;
-import io.agroal.api.AgroalDataSource;
+import br.com.challenge.domain.model.UsuarioResumo;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class UsuarioRepositoryImpl implements UsuarioRepository {
 
+    private static final int LIMITE_CLAUSULA_IN = 1000;
+
+    // Listagens trazem só o resumo; senha, endereço e idade ficam para o detalhe
+    static final String COLUNAS_RESUMO = "id, nome_completo, cpf, telefone, versao";
+
+    static final MapeadorLinhas<Usuario> USUARIO = MapeadorLinhas.de((rs, c) -> new Usuario(
+                    rs.getLong(c[0]),
+                    rs.getString(c[1]),
+                    rs.getInt(c[2]),
+                    rs.getString(c[3]),
+                    rs.getString(c[4]),
+                    rs.getInt(c[5]),
+                    rs.getString(c[6]),
+                    rs.getString(c[7]),
+                    rs.getString(c[8]),
+                    rs.getLong(c[9])),
+            "id", "nome_completo", "idade", "cpf", "cep", "numero", "complemento", "telefone", "senha", "versao");
+
+    static final MapeadorLinhas<UsuarioResumo> RESUMO = MapeadorLinhas.de((rs, c) -> new UsuarioResumo(
+                    rs.getLong(c[0]),
+                    rs.getString(c[1]),
+                    rs.getString(c[2]),
+                    rs.getString(c[3]),
+                    rs.getLong(c[4])),
+            "id", "nome_completo", "cpf", "telefone", "versao");
+
     @Inject
-    AgroalDataSource dataSource;
+    ExecutorJdbc executorJdbc;
 
-    @Override
-    public List<Usuario> listarTodos() {
-        List<Usuario> usuarios = new ArrayList<>();
-        String sql = "SELECT * FROM usuario ORDER BY nome_completo";
+    @Inject
+    CachesEntidades cachesEntidades;
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    @Inject
+    CacheConsultas cacheConsultas;
 
-            while (rs.next()) {
-                usuarios.add(criarUsuarioFromResultSet(rs));
-            }
+    @Inject
+    AlocadorIds alocadorIds;
+
+    @Inject
+    IndiceCpfs indiceCpfs;
+
+    @ConfigProperty(name = "app.exportacao.fetch-size", defaultValue = "500")
+    int fetchSizeExportacao;
+
+    @Override
+    public List<UsuarioResumo> listarTodos() {
+        String sql = "SELECT " + COLUNAS_RESUMO + " FROM usuario ORDER BY nome_completo";
+
+        try {
+            return executorJdbc.listar("usuario.listarTodos", sql, Parametros.NENHUM, RESUMO);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao listar usuários", e);
         }
-        return usuarios;
+    }
+
+    @Override
+    public Pagina<UsuarioResumo> listarPagina(String cursor, int limite) {
+        CursorPaginacao posicao = CursorPaginacao.decodificar(cursor);
+        String sql = "SELECT " + COLUNAS_RESUMO + " " +
+                "FROM usuario " +
+                (posicao == null ? "" : "WHERE nome_completo >= ? AND (nome_completo > ? OR id > ?) ") +
+                "ORDER BY nome_completo, id FETCH FIRST ? ROWS ONLY";
+
+        List<UsuarioResumo> usuarios;
+        try {
+            usuarios = executorJdbc.listar("usuario.listarPagina", sql, stmt -> {
+                int indice = 1;
+                if (posicao != null) {
+                    stmt.setString(indice++, posicao.getChave());
+                    stmt.setString(indice++, posicao.getChave());
+                    stmt.setLong(indice++, posicao.getId());
+                }
+                stmt.setInt(indice, limite + 1);
+            }, RESUMO);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao listar página de usuários", e);
+        }
+        return CursorPaginacao.montarPagina(usuarios, limite,
+                item -> CursorPaginacao.codificar(item.getNomeCompleto(), item.getId()));
+    }
+
+    @Override
+    public void percorrerTodos(Consumer<Usuario> consumidor) {
+        String sql = "SELECT * FROM usuario ORDER BY id";
+
+        try {
+            executorJdbc.percorrer("usuario.percorrerTodos", sql, Parametros.NENHUM, fetchSizeExportacao, USUARIO, consumidor);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao exportar usuários", e);
+        }
     }
 
     @Override
     public Optional<Usuario> buscarPorId(Long id) {
-        String sql = "SELECT * FROM usuario WHERE id = ?";
+        return cachesEntidades.usuarios().buscarPorId(id, this::buscarPorIdNoBanco);
+    }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    private Optional<Usuario> buscarPorIdNoBanco(Long id) {
+        String sql = "SELECT * FROM usuario WHERE id = ?";
 
-            stmt.setLong(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(criarUsuarioFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.buscarUm("usuario.buscarPorId", sql, stmt -> stmt.setLong(1, id), USUARIO);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar usuário por ID: " + id, e);
         }
-        return Optional.empty();
     }
 
     @Override
     public Optional<Usuario> buscarPorCpf(String cpf) {
         String sql = "SELECT * FROM usuario WHERE cpf = ?";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, cpf);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(criarUsuarioFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.buscarUm("usuario.buscarPorCpf", sql, stmt -> stmt.setString(1, cpf), USUARIO);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar usuário por CPF: " + cpf, e);
         }
-        return Optional.empty();
     }
 
     @Override
     public Usuario salvar(Usuario usuario) {
-        String sql = "INSERT INTO usuario (id, versao, tipo_usuario, nome_completo, idade, cpf, cep, numero, complemento, telefone, senha) " +
-                "VALUES (seq_usuario.NEXTVAL, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        long id = alocadorIds.proximoId(AlocadorIds.Sequencia.USUARIO);
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, new String[]{"id"})) {
+        try {
+            return executorJdbc.executar("usuario.salvar", conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(UsuarioSql.INSERIR)) {
 
-            String tipoUsuario = "USUARIO";
-            if (usuario instanceof br.com.challenge.domain.model.Paciente) {
-                tipoUsuario = "PACIENTE";
-            } else if (usuario instanceof br.com.challenge.domain.model.Apoiador) {
-                tipoUsuario = "APOIADOR";
-            }
+                    UsuarioSql.preencherInsercao(stmt, 1, id, usuario);
 
-            stmt.setLong(1, usuario.getVersao() != null ? usuario.getVersao() : 0L);
-            stmt.setString(2, tipoUsuario);
-            stmt.setString(3, usuario.getNomeCompleto());
-            stmt.setInt(4, usuario.getIdade());
-            stmt.setString(5, usuario.getCpf());
-            stmt.setString(6, usuario.getCep());
-            stmt.setInt(7, usuario.getNumero());
-            stmt.setString(8, usuario.getComplemento());
-            stmt.setString(9, usuario.getTelefone());
-            stmt.setString(10, usuario.getSenha());
-
-            stmt.executeUpdate();
-
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    usuario.setId(generatedKeys.getLong(1));
-                }
-            }
+                    stmt.executeUpdate();
+                    usuario.setId(id);
+                    indiceCpfs.adicionar(usuario.getCpf());
 
-            return usuario;
+                    return usuario;
+                }
+            });
         } catch (SQLException e) {
+            if (ErrosOracle.violouUnicidade(e, ErrosOracle.RESTRICAO_CPF)) {
+                throw new ValidationException("CPF já cadastrado no sistema");
+            }
             throw new RuntimeException("Erro ao salvar usuário", e);
         }
     }
 
     @Override
     public boolean atualizar(Usuario usuario) {
-        String sql = "UPDATE usuario SET nome_completo = ?, idade = ?, cep = ?, numero = ?, " +
-                "complemento = ?, telefone = ?, senha = ?, versao = ? WHERE id = ?";
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, usuario.getNomeCompleto());
-            stmt.setInt(2, usuario.getIdade());
-            stmt.setString(3, usuario.getCep());
-            stmt.setInt(4, usuario.getNumero());
-            stmt.setString(5, usuario.getComplemento());
-            stmt.setString(6, usuario.getTelefone());
-            stmt.setString(7, usuario.getSenha());
-            stmt.setLong(8, usuario.getVersao() != null ? usuario.getVersao() : 0L);
-            stmt.setLong(9, usuario.getId());
-
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        String sql = "BEGIN " + UsuarioSql.atualizar(usuario, false) + "; ? := SQL%ROWCOUNT; END;";
+
+        try {
+            return executorJdbc.executar("usuario.atualizar", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    int indiceVersao = UsuarioSql.preencherAtualizacao(stmt, 1, usuario, false);
+                    stmt.registerOutParameter(indiceVersao + 1, Types.INTEGER);
+
+                    stmt.execute();
+                    cachesEntidades.invalidarUsuario(usuario.getId());
+                    cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", usuario.getId()));
+                    if (stmt.getInt(indiceVersao + 1) == 0) {
+                        return false;
+                    }
+                    usuario.setVersao(stmt.getLong(indiceVersao));
+                    return true;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao atualizar usuário: " + usuario.getId(), e);
         }
@@ -140,14 +193,26 @@ public class UsuarioRepositoryImpl implements UsuarioRepository {
 
     @Override
     public boolean deletar(Long id) {
-        String sql = "DELETE FROM usuario WHERE id = ?";
-
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setLong(1, id);
-            int rowsAffected = stmt.executeUpdate();
-            return rowsAffected > 0;
+        String sql = "BEGIN DELETE FROM usuario WHERE id = ? RETURNING cpf INTO ?; ? := SQL%ROWCOUNT; END;";
+
+        try {
+            return executorJdbc.executar("usuario.deletar", conn -> {
+                try (CallableStatement stmt = conn.prepareCall(sql)) {
+
+                    stmt.setLong(1, id);
+                    stmt.registerOutParameter(2, Types.VARCHAR);
+                    stmt.registerOutParameter(3, Types.INTEGER);
+
+                    stmt.execute();
+                    cachesEntidades.invalidarUsuario(id);
+                    cacheConsultas.invalidar(CacheConsultas.tag("usuario", "id", id));
+                    if (stmt.getInt(3) == 0) {
+                        return false;
+                    }
+                    indiceCpfs.remover(stmt.getString(2));
+                    return true;
+                }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao deletar usuário: " + id, e);
         }
@@ -155,113 +220,112 @@ public class UsuarioRepositoryImpl implements UsuarioRepository {
 
     @Override
     public boolean cpfExiste(String cpf) {
-        return buscarPorCpf(cpf).isPresent();
+        Boolean indexado = indiceCpfs.contem(cpf);
+        if (indexado != null) {
+            return indexado;
+        }
+        return !cpfsExistentesNoBanco(List.of(cpf)).isEmpty();
     }
 
     @Override
-    public boolean cpfExisteParaOutroUsuario(String cpf, Long id) {
-        String sql = "SELECT COUNT(*) FROM usuario WHERE cpf = ? AND id != ?";
+    public Set<String> cpfsExistentes(Collection<String> cpfs) {
+        Set<String> existentes = new HashSet<>();
+        Set<String> semResposta = new HashSet<>();
+        for (String cpf : cpfs) {
+            Boolean indexado = indiceCpfs.contem(cpf);
+            if (indexado == null) {
+                semResposta.add(cpf);
+            } else if (indexado) {
+                existentes.add(cpf);
+            }
+        }
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // Só o que o índice não soube responder vai ao banco
+        existentes.addAll(cpfsExistentesNoBanco(semResposta));
+        return existentes;
+    }
 
-            stmt.setString(1, cpf);
-            stmt.setLong(2, id);
+    private Set<String> cpfsExistentesNoBanco(Collection<String> cpfs) {
+        Set<String> existentes = new HashSet<>();
+        List<String> pendentes = new ArrayList<>(cpfs);
+        if (pendentes.isEmpty()) {
+            return existentes;
+        }
 
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1) > 0;
+        try {
+            executorJdbc.executar("usuario.cpfsExistentes", conn -> {
+                // O Oracle aceita no máximo 1000 expressões por IN
+                for (int inicio = 0; inicio < pendentes.size(); inicio += LIMITE_CLAUSULA_IN) {
+                    List<String> parte = pendentes.subList(inicio, Math.min(inicio + LIMITE_CLAUSULA_IN, pendentes.size()));
+                    String sql = "SELECT cpf FROM usuario WHERE cpf IN (" +
+                            String.join(", ", Collections.nCopies(parte.size(), "?")) + ")";
+
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < parte.size(); i++) {
+                            stmt.setString(i + 1, parte.get(i));
+                        }
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                existentes.add(rs.getString(1));
+                            }
+                        }
+                    }
                 }
-            }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao verificar existência de CPFs", e);
+        }
+        return existentes;
+    }
+
+    @Override
+    public boolean cpfExisteParaOutroUsuario(String cpf, Long id) {
+        String sql = "SELECT COUNT(*) FROM usuario WHERE cpf = ? AND id != ?";
+
+        try {
+            return executorJdbc.contar("usuario.cpfExisteParaOutroUsuario", sql, stmt -> {
+                stmt.setString(1, cpf);
+                stmt.setLong(2, id);
+            }) > 0;
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao verificar CPF", e);
         }
-        return false;
     }
 
     @Override
     public List<Usuario> buscarPorFaixaEtaria(int idadeMinima, int idadeMaxima) {
-        List<Usuario> usuarios = new ArrayList<>();
         String sql = "SELECT * FROM usuario WHERE idade BETWEEN ? AND ? ORDER BY idade";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, idadeMinima);
-            stmt.setInt(2, idadeMaxima);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    usuarios.add(criarUsuarioFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.listar("usuario.buscarPorFaixaEtaria", sql, stmt -> {
+                stmt.setInt(1, idadeMinima);
+                stmt.setInt(2, idadeMaxima);
+            }, USUARIO);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar usuários por faixa etária: " + idadeMinima + "-" + idadeMaxima, e);
         }
-        return usuarios;
     }
 
     @Override
     public List<Usuario> buscarPorCep(String cep) {
-        List<Usuario> usuarios = new ArrayList<>();
         String sql = "SELECT * FROM usuario WHERE cep = ? ORDER BY nome_completo";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, cep);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    usuarios.add(criarUsuarioFromResultSet(rs));
-                }
-            }
+        try {
+            return executorJdbc.listar("usuario.buscarPorCep", sql, stmt -> stmt.setString(1, cep), USUARIO);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar usuários por CEP: " + cep, e);
         }
-        return usuarios;
     }
 
     @Override
     public int contarTotal() {
         String sql = "SELECT COUNT(*) FROM usuario";
 
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
+        try {
+            return executorJdbc.contar("usuario.contarTotal", sql, Parametros.NENHUM);
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao contar total de usuários", e);
         }
-        return 0;
-    }
-
-    private Usuario criarUsuarioFromResultSet(ResultSet rs) throws SQLException {
-        return new Usuario(
-                rs.getLong("id"),
-                rs.getString("nome_completo"),
-                rs.getInt("idade"),
-                rs.getString("cpf"),
-                rs.getString("cep"),
-                rs.getInt("numero"),
-                rs.getString("complemento"),
-                rs.getString("telefone"),
-                rs.getString("senha"),
-                rs.getLong("versao")
-        );
-    }
-
-    private void preencherUsuarioStatement(PreparedStatement stmt, Usuario usuario) throws SQLException {
-        stmt.setString(1, usuario.getNomeCompleto());
-        stmt.setInt(2, usuario.getIdade());
-        stmt.setString(3, usuario.getCpf());
-        stmt.setString(4, usuario.getCep());
-        stmt.setInt(5, usuario.getNumero());
-        stmt.setString(6, usuario.getComplemento());
-        stmt.setString(7, usuario.getTelefone());
-        stmt.setString(8, usuario.getSenha());
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package br.com.challenge.infrastructure.persistence;
+
+import br.com.challenge.domain.model.Apoiador;
+import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.Usuario;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Comandos da tabela usuario compartilhados pelos repositórios da hierarquia
+ * (Usuario, Paciente, Apoiador), para que os subtipos gravem a linha base na
+ * mesma conexão e no mesmo comando que a linha específica.
+ */
+final class UsuarioSql {
+
+    static final String INSERIR = "INSERT INTO usuario (id, versao, tipo_usuario, nome_completo, idade, cpf, cep, numero, complemento, telefone, senha) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+
+    private UsuarioSql() {}
+
+    /**
+     * Preenche os parâmetros de {@link #INSERIR} a partir de {@code indice} e
+     * retorna o próximo índice livre.
+     */
+    static int preencherInsercao(PreparedStatement stmt, int indice, long id, Usuario usuario) throws SQLException {
+        stmt.setLong(indice++, id);
+        stmt.setLong(indice++, usuario.getVersao() != null ? usuario.getVersao() : 0L);
+        stmt.setString(indice++, tipoUsuario(usuario));
+        stmt.setString(indice++, usuario.getNomeCompleto());
+        stmt.setInt(indice++, usuario.getIdade());
+        stmt.setString(indice++, usuario.getCpf());
+        stmt.setString(indice++, usuario.getCep());
+        stmt.setInt(indice++, usuario.getNumero());
+        stmt.setString(indice++, usuario.getComplemento());
+        stmt.setString(indice++, usuario.getTelefone());
+        stmt.setString(indice++, usuario.getSenha());
+        return indice;
+    }
+
+    /**
+     * UPDATE da linha base, para uso dentro de um bloco PL/SQL. A versao é
+     * incrementada pelo próprio comando; quando o usuário traz a versão
+     * esperada, ela entra no WHERE e o UPDATE não altera nada se outra escrita
+     * chegou antes. Sem versão esperada, a última escrita vence. A nova versão
+     * volta por RETURNING. Linhas antigas com versao nula são lidas e expostas
+     * na ETag como versão 0, por isso a comparação usa NVL(versao, 0).
+     */
+    static String atualizar(Usuario usuario, boolean conferirTipo) {
+        return "UPDATE usuario SET nome_completo = ?, idade = ?, cep = ?, numero = ?, " +
+                "complemento = ?, telefone = ?, senha = ?, versao = NVL(versao, 0) + 1 WHERE id = ?" +
+                (conferirTipo ? " AND tipo_usuario = ?" : "") +
+                (usuario.getVersao() != null ? " AND NVL(versao, 0) = ?" : "") +
+                " RETURNING versao INTO ?";
+    }
+
+    /**
+     * Preenche os parâmetros de {@link #atualizar} a partir de {@code indice},
+     * registra a saída da nova versão e retorna o índice dela.
+     */
+    static int preencherAtualizacao(CallableStatement stmt, int indice, Usuario usuario, boolean conferirTipo) throws SQLException {
+        stmt.setString(indice++, usuario.getNomeCompleto());
+        stmt.setInt(indice++, usuario.getIdade());
+        stmt.setString(indice++, usuario.getCep());
+        stmt.setInt(indice++, usuario.getNumero());
+        stmt.setString(indice++, usuario.getComplemento());
+        stmt.setString(indice++, usuario.getTelefone());
+        stmt.setString(indice++, usuario.getSenha());
+        stmt.setLong(indice++, usuario.getId());
+        if (conferirTipo) {
+            stmt.setString(indice++, tipoUsuario(usuario));
+        }
+        if (usuario.getVersao() != null) {
+            stmt.setLong(indice++, usuario.getVersao());
+        }
+        stmt.registerOutParameter(indice, Types.NUMERIC);
+        return indice;
+    }
+
+    static String tipoUsuario(Usuario usuario) {
+        if (usuario instanceof Paciente) {
+            return "PACIENTE";
+        } else if (usuario instanceof Apoiador) {
+            return "APOIADOR";
+        }
+        return "USUARIO";
+    }
+}
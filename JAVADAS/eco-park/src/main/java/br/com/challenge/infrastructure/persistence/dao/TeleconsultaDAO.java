@@ -231,7 +231,8 @@ public class TeleconsultaDAO {
 
 
     public List<Teleconsulta> consultasDeHoje() {
-        String sql = "SELECT * FROM teleconsulta WHERE TRUNC(data_hora) = TRUNC(SYSDATE) AND status = 'AGENDADA' " +
+        String sql = "SELECT * FROM teleconsulta WHERE status = 'AGENDADA' " +
+                "AND data_hora >= TRUNC(SYSDATE) AND data_hora < TRUNC(SYSDATE) + 1 " +
                 "ORDER BY data_hora";
         List<Teleconsulta> teleconsultas = new ArrayList<>();
 
@@ -0,0 +1,49 @@
+-- Schema base, equivalente ao que o hibernate-orm gerava com generation=update.
+-- Bancos já existentes são marcados nesta versão pelo baseline-on-migrate e
+-- não executam este script: o que eles precisam receber daqui (incremento das
+-- sequences, colunas) é aplicado pelas migrações V6 e V7.
+
+CREATE TABLE usuario (
+    id NUMBER PRIMARY KEY,
+    versao NUMBER DEFAULT 0,
+    tipo_usuario VARCHAR2(20) NOT NULL,
+    nome_completo VARCHAR2(100) NOT NULL,
+    idade NUMBER NOT NULL,
+    cpf VARCHAR2(11) UNIQUE NOT NULL,
+    cep VARCHAR2(8) NOT NULL,
+    numero NUMBER NOT NULL,
+    complemento VARCHAR2(100),
+    telefone VARCHAR2(15) NOT NULL,
+    senha VARCHAR2(100) NOT NULL
+);
+
+CREATE TABLE apoiador (
+    id NUMBER PRIMARY KEY,
+    cargo VARCHAR2(50) NOT NULL,
+    area_atuacao VARCHAR2(100),
+    FOREIGN KEY (id) REFERENCES usuario(id)
+);
+
+CREATE TABLE paciente (
+    id NUMBER PRIMARY KEY,
+    numero_sus_ou_convenio VARCHAR2(20),
+    telefone_contato VARCHAR2(15) NOT NULL,
+    apoiador_id NUMBER,
+    FOREIGN KEY (id) REFERENCES usuario(id),
+    FOREIGN KEY (apoiador_id) REFERENCES apoiador(id)
+);
+
+CREATE TABLE teleconsulta (
+    id NUMBER PRIMARY KEY,
+    versao NUMBER DEFAULT 0,
+    paciente_id NUMBER NOT NULL,
+    medico VARCHAR2(100) NOT NULL,
+    data_hora TIMESTAMP NOT NULL,
+    status VARCHAR2(20) DEFAULT 'AGENDADA',
+    observacoes VARCHAR2(500),
+    FOREIGN KEY (paciente_id) REFERENCES paciente(id)
+);
+
+-- INCREMENT BY 50: cada NEXTVAL reserva um bloco de 50 IDs para o AlocadorIds da aplicação
+CREATE SEQUENCE seq_usuario START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE seq_teleconsulta START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,21 @@
+-- Índices para os predicados usados pelos repositórios JDBC.
+
+-- buscarPorPaciente: WHERE paciente_id = ? ORDER BY data_hora DESC
+-- (também evita lock de tabela em paciente ao apagar/atualizar a PK)
+CREATE INDEX idx_teleconsulta_paciente ON teleconsulta (paciente_id, data_hora DESC);
+
+-- horarioDisponivel / buscarHorariosOcupados: WHERE medico = ? AND data_hora BETWEEN ? AND ?
+-- AND status != 'CANCELADA'. Com status na chave a consulta é respondida só pelo índice.
+CREATE INDEX idx_teleconsulta_medico_data ON teleconsulta (medico, data_hora, status);
+
+-- buscarPorStatus, contarPorStatus e consultasDeHoje: WHERE status = ? [AND data_hora >= ? AND data_hora < ?]
+CREATE INDEX idx_teleconsulta_status_data ON teleconsulta (status, data_hora);
+
+-- listarPagina: ORDER BY data_hora DESC, id DESC com cursor (data_hora, id)
+CREATE INDEX idx_teleconsulta_data_id ON teleconsulta (data_hora, id);
+
+-- temPacientesVinculados: WHERE apoiador_id = ? (e FK de paciente para apoiador)
+CREATE INDEX idx_paciente_apoiador ON paciente (apoiador_id);
+
+-- listarPagina de usuários, pacientes e apoiadores: ORDER BY nome_completo, id com cursor
+CREATE INDEX idx_usuario_nome_id ON usuario (nome_completo, id);
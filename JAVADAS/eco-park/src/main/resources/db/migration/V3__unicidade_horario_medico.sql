@@ -0,0 +1,8 @@
+-- Um médico não pode ter duas teleconsultas não canceladas no mesmo horário.
+-- Índice único baseado em função: linhas canceladas ficam com as duas
+-- expressões nulas e não entram no índice, então podem se repetir.
+-- Falha se já houver duplicidades: cancele as excedentes antes de migrar.
+CREATE UNIQUE INDEX uk_teleconsulta_medico_horario ON teleconsulta (
+    CASE WHEN status != 'CANCELADA' THEN medico END,
+    CASE WHEN status != 'CANCELADA' THEN data_hora END
+);
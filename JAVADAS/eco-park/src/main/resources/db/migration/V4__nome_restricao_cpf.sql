@@ -0,0 +1,22 @@
+-- Dá nome à restrição única de usuario.cpf, criada sem nome no esquema base.
+-- O cadastro grava direto e reconhece o CPF repetido pelo nome da restrição
+-- no ORA-00001, então ele precisa ser estável entre bancos.
+DECLARE
+    v_nome user_constraints.constraint_name%TYPE;
+BEGIN
+    SELECT c.constraint_name INTO v_nome
+      FROM user_constraints c
+      JOIN user_cons_columns cc ON cc.constraint_name = c.constraint_name
+     WHERE c.table_name = 'USUARIO'
+       AND c.constraint_type = 'U'
+       AND cc.column_name = 'CPF'
+       AND ROWNUM = 1;
+
+    IF v_nome != 'UK_USUARIO_CPF' THEN
+        EXECUTE IMMEDIATE 'ALTER TABLE usuario RENAME CONSTRAINT "' || v_nome || '" TO uk_usuario_cpf';
+    END IF;
+EXCEPTION
+    WHEN NO_DATA_FOUND THEN
+        EXECUTE IMMEDIATE 'ALTER TABLE usuario ADD CONSTRAINT uk_usuario_cpf UNIQUE (cpf)';
+END;
+/
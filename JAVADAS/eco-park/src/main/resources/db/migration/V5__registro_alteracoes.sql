@@ -0,0 +1,68 @@
+-- Registro das alterações nas tabelas em cache, lido por todas as instâncias
+-- da aplicação para invalidar os caches locais das linhas que outra instância
+-- gravou. Os triggers escrevem na mesma transação da alteração, então uma
+-- escrita confirmada sempre tem seu registro, seja qual for a origem.
+-- origem: CLIENT_IDENTIFIER da sessão, que a aplicação preenche com o ID da
+-- instância para não reprocessar as próprias escritas.
+-- detalhe: cpf (usuario), cargo (apoiador), apoiador_id (paciente) ou médico
+-- (teleconsulta), com o valor novo em I/U e o antigo em D.
+CREATE TABLE alteracao_cache (
+    id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    entidade VARCHAR2(20) NOT NULL,
+    entidade_id NUMBER NOT NULL,
+    operacao CHAR(1) NOT NULL,
+    detalhe VARCHAR2(100),
+    data_hora TIMESTAMP,
+    origem VARCHAR2(64),
+    alterado_em TIMESTAMP DEFAULT SYS_EXTRACT_UTC(SYSTIMESTAMP) NOT NULL
+);
+
+CREATE INDEX idx_alteracao_cache_alterado ON alteracao_cache (alterado_em);
+
+CREATE OR REPLACE TRIGGER trg_usuario_alteracao
+AFTER INSERT OR UPDATE OR DELETE ON usuario
+FOR EACH ROW
+BEGIN
+    INSERT INTO alteracao_cache (entidade, entidade_id, operacao, detalhe, origem)
+    VALUES ('usuario', NVL(:NEW.id, :OLD.id),
+            CASE WHEN INSERTING THEN 'I' WHEN UPDATING THEN 'U' ELSE 'D' END,
+            NVL(:NEW.cpf, :OLD.cpf), SYS_CONTEXT('USERENV', 'CLIENT_IDENTIFIER'));
+END;
+/
+
+CREATE OR REPLACE TRIGGER trg_paciente_alteracao
+AFTER INSERT OR UPDATE OR DELETE ON paciente
+FOR EACH ROW
+BEGIN
+    INSERT INTO alteracao_cache (entidade, entidade_id, operacao, detalhe, origem)
+    VALUES ('paciente', NVL(:NEW.id, :OLD.id),
+            CASE WHEN INSERTING THEN 'I' WHEN UPDATING THEN 'U' ELSE 'D' END,
+            CASE WHEN DELETING THEN TO_CHAR(:OLD.apoiador_id) ELSE TO_CHAR(:NEW.apoiador_id) END,
+            SYS_CONTEXT('USERENV', 'CLIENT_IDENTIFIER'));
+END;
+/
+
+CREATE OR REPLACE TRIGGER trg_apoiador_alteracao
+AFTER INSERT OR UPDATE OR DELETE ON apoiador
+FOR EACH ROW
+BEGIN
+    INSERT INTO alteracao_cache (entidade, entidade_id, operacao, detalhe, origem)
+    VALUES ('apoiador', NVL(:NEW.id, :OLD.id),
+            CASE WHEN INSERTING THEN 'I' WHEN UPDATING THEN 'U' ELSE 'D' END,
+            CASE WHEN DELETING THEN :OLD.cargo ELSE :NEW.cargo END,
+            SYS_CONTEXT('USERENV', 'CLIENT_IDENTIFIER'));
+END;
+/
+
+CREATE OR REPLACE TRIGGER trg_teleconsulta_alteracao
+AFTER INSERT OR UPDATE OR DELETE ON teleconsulta
+FOR EACH ROW
+BEGIN
+    INSERT INTO alteracao_cache (entidade, entidade_id, operacao, detalhe, data_hora, origem)
+    VALUES ('teleconsulta', NVL(:NEW.id, :OLD.id),
+            CASE WHEN INSERTING THEN 'I' WHEN UPDATING THEN 'U' ELSE 'D' END,
+            CASE WHEN DELETING THEN :OLD.medico ELSE :NEW.medico END,
+            CASE WHEN DELETING THEN :OLD.data_hora ELSE :NEW.data_hora END,
+            SYS_CONTEXT('USERENV', 'CLIENT_IDENTIFIER'));
+END;
+/
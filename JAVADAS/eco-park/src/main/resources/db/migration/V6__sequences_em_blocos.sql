@@ -0,0 +1,43 @@
+-- Sequences de bancos anteriores ao AlocadorIds, criadas com INCREMENT BY 1.
+-- O alocador trata cada NEXTVAL como o início de um bloco de 50 IDs, então
+-- com incremento 1 dois blocos reservados em seguida se sobrepõem. Estes
+-- bancos foram marcados na versão 1 pelo baseline e não executaram o V1.
+-- O NEXTVAL consumido aqui passa a ser o último ID já emitido; se alguma
+-- tabela tiver ID maior (inserido sem a sequence), a sequence salta até ele
+-- antes de mudar o incremento. Sequences já com INCREMENT BY 50 (bancos
+-- criados pelo V1) não são alteradas; uma sequence ausente é criada.
+DECLARE
+    PROCEDURE ajustar(p_sequence VARCHAR2, p_tabela VARCHAR2) IS
+        v_incremento user_sequences.increment_by%TYPE;
+        v_maximo NUMBER;
+        v_atual NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(id), 0) FROM ' || p_tabela INTO v_maximo;
+
+        BEGIN
+            SELECT increment_by INTO v_incremento
+              FROM user_sequences
+             WHERE sequence_name = UPPER(p_sequence);
+        EXCEPTION
+            WHEN NO_DATA_FOUND THEN
+                EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_sequence ||
+                                  ' START WITH ' || (v_maximo + 1) || ' INCREMENT BY 50';
+                RETURN;
+        END;
+
+        IF v_incremento = 50 THEN
+            RETURN;
+        END IF;
+
+        EXECUTE IMMEDIATE 'SELECT ' || p_sequence || '.NEXTVAL FROM dual' INTO v_atual;
+        IF v_maximo >= v_atual THEN
+            EXECUTE IMMEDIATE 'ALTER SEQUENCE ' || p_sequence || ' INCREMENT BY ' || (v_maximo - v_atual + 1);
+            EXECUTE IMMEDIATE 'SELECT ' || p_sequence || '.NEXTVAL FROM dual' INTO v_atual;
+        END IF;
+        EXECUTE IMMEDIATE 'ALTER SEQUENCE ' || p_sequence || ' INCREMENT BY 50';
+    END;
+BEGIN
+    ajustar('seq_usuario', 'usuario');
+    ajustar('seq_teleconsulta', 'teleconsulta');
+END;
+/
@@ -0,0 +1,36 @@
+-- Leva aos bancos anteriores ao Flyway o que o V1 define e eles podem não ter.
+-- Esses bancos são marcados na versão 1 pelo baseline e nunca executam o V1,
+-- então tudo de que o código depende precisa estar numa migração posterior
+-- (o incremento das sequences está no V6). Cada ajuste só é feito se faltar:
+-- em bancos criados pelo V1 este script não muda nada.
+-- - paciente.numero_sus_ou_convenio: o Database.sql original criava a coluna
+--   como cartao_sus; os valores são copiados para a coluna nova.
+-- - versao com DEFAULT 0 em usuario e teleconsulta: o INSERT de teleconsulta
+--   não informa a versão.
+DECLARE
+    FUNCTION tem_coluna(p_tabela VARCHAR2, p_coluna VARCHAR2) RETURN BOOLEAN IS
+        v_total NUMBER;
+    BEGIN
+        SELECT COUNT(*) INTO v_total
+          FROM user_tab_columns
+         WHERE table_name = UPPER(p_tabela)
+           AND column_name = UPPER(p_coluna);
+        RETURN v_total > 0;
+    END;
+BEGIN
+    IF NOT tem_coluna('paciente', 'numero_sus_ou_convenio') THEN
+        EXECUTE IMMEDIATE 'ALTER TABLE paciente ADD (numero_sus_ou_convenio VARCHAR2(20))';
+        IF tem_coluna('paciente', 'cartao_sus') THEN
+            EXECUTE IMMEDIATE 'UPDATE paciente SET numero_sus_ou_convenio = cartao_sus';
+        END IF;
+    END IF;
+
+    FOR t IN (SELECT 'usuario' AS tabela FROM dual UNION ALL SELECT 'teleconsulta' FROM dual) LOOP
+        IF tem_coluna(t.tabela, 'versao') THEN
+            EXECUTE IMMEDIATE 'ALTER TABLE ' || t.tabela || ' MODIFY (versao DEFAULT 0)';
+        ELSE
+            EXECUTE IMMEDIATE 'ALTER TABLE ' || t.tabela || ' ADD (versao NUMBER DEFAULT 0)';
+        END IF;
+    END LOOP;
+END;
+/
@@ -0,0 +1,14 @@
+-- Uma linha por médico, usada só como trava do agendamento. Antes de conferir
+-- o horário e inserir, a transação bloqueia a linha do médico com
+-- SELECT ... FOR UPDATE. Agendamentos concorrentes do mesmo médico, da mesma
+-- instância ou de instâncias diferentes, esperam a vez. O NOT EXISTS de cada
+-- um enxerga as consultas já confirmadas pelos anteriores; sem a trava, sob
+-- READ COMMITTED, dois agendamentos poderiam gravar horários sobrepostos. Médicos
+-- diferentes travam linhas diferentes. Médicos novos ganham a linha no
+-- primeiro agendamento.
+CREATE TABLE trava_medico (
+    medico VARCHAR2(100) PRIMARY KEY
+);
+
+INSERT INTO trava_medico (medico)
+SELECT DISTINCT medico FROM teleconsulta;
@@ -0,0 +1,82 @@
+package br.com.challenge.domain.service;
+
+import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.PacienteResumo;
+import br.com.challenge.domain.repository.Pagina;
+import br.com.challenge.domain.repository.PacienteRepository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Repositório de pacientes para os testes do serviço de teleconsultas: todo
+ * ID positivo existe.
+ */
+class PacienteRepositoryEmMemoria implements PacienteRepository {
+
+    @Override
+    public Optional<Paciente> buscarPorId(Long id) {
+        if (id == null || id <= 0) {
+            return Optional.empty();
+        }
+        Paciente paciente = new Paciente();
+        paciente.setId(id);
+        return Optional.of(paciente);
+    }
+
+    @Override
+    public Set<Long> buscarIdsExistentes(Collection<Long> ids) {
+        Set<Long> existentes = new HashSet<>();
+        ids.forEach(id -> buscarPorId(id).ifPresent(p -> existentes.add(id)));
+        return existentes;
+    }
+
+    @Override
+    public List<PacienteResumo> listarTodos() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Pagina<PacienteResumo> listarPagina(String cursor, int limite) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void percorrerTodos(Consumer<Paciente> consumidor) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Paciente> buscarPorCpf(String cpf) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Paciente salvar(Paciente paciente) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean atualizar(Paciente paciente) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean deletar(Long id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<PacienteResumo> buscarPorApoiador(Long apoiadorId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int contarTotal() {
+        throw new UnsupportedOperationException();
+    }
+}
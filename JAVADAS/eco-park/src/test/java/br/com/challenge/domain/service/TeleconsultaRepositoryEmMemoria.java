@@ -0,0 +1,205 @@
+package br.com.challenge.domain.service;
+
+import br.com.challenge.domain.exceptions.ValidationException;
+import br.com.challenge.domain.model.Teleconsulta;
+import br.com.challenge.domain.repository.Pagina;
+import br.com.challenge.domain.repository.TeleconsultaRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Repositório de teleconsultas em memória para os testes do serviço, com as
+ * mesmas regras de horário das consultas do TeleconsultaRepositoryImpl.
+ * <p>
+ * As gravações condicionais conferem e gravam em dois passos separados pela
+ * latência de uma ida ao banco, sem nenhuma trava própria: duas chamadas
+ * concorrentes para o mesmo médico só não se sobrepõem se o serviço as
+ * serializar.
+ */
+class TeleconsultaRepositoryEmMemoria implements TeleconsultaRepository {
+
+    private final Map<Long, Teleconsulta> teleconsultas = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    // Latência simulada de cada gravação
+    volatile long latenciaMs;
+    // Executado no início de salvarEmLote, depois da conferência do serviço (escrita de outra instância)
+    volatile Runnable aoGravarLote = () -> {};
+
+    Teleconsulta adicionar(String medico, LocalDateTime dataHora, String status) {
+        Teleconsulta teleconsulta = new Teleconsulta(ids.incrementAndGet(), 1L, medico, dataHora, status, null);
+        teleconsultas.put(teleconsulta.getId(), teleconsulta);
+        return teleconsulta;
+    }
+
+    List<Teleconsulta> todas() {
+        return List.copyOf(teleconsultas.values());
+    }
+
+    private void gravar(Teleconsulta teleconsulta) {
+        teleconsulta.setId(ids.incrementAndGet());
+        teleconsultas.put(teleconsulta.getId(), teleconsulta);
+    }
+
+    private void idaAoBanco() {
+        try {
+            Thread.sleep(latenciaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Stream<Teleconsulta> naoCanceladas(String medico, LocalDateTime inicio, LocalDateTime fim) {
+        return teleconsultas.values().stream()
+                .filter(t -> medico == null || t.getMedico().equals(medico))
+                .filter(t -> !t.getDataHora().isBefore(inicio) && !t.getDataHora().isAfter(fim))
+                .filter(t -> !"CANCELADA".equals(t.getStatus()));
+    }
+
+    @Override
+    public boolean horarioDisponivel(LocalDateTime dataHora, String medico) {
+        return naoCanceladas(medico, dataHora, dataHora.plusMinutes(30)).findAny().isEmpty();
+    }
+
+    @Override
+    public List<LocalDateTime> buscarHorariosOcupados(String medico, LocalDateTime inicio, LocalDateTime fim) {
+        return naoCanceladas(medico, inicio, fim)
+                .map(Teleconsulta::getDataHora)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<String, List<LocalDateTime>> buscarHorariosOcupadosPorMedico(LocalDateTime inicio, LocalDateTime fim) {
+        return naoCanceladas(null, inicio, fim).collect(Collectors.groupingBy(Teleconsulta::getMedico,
+                Collectors.mapping(Teleconsulta::getDataHora, Collectors.toList())));
+    }
+
+    @Override
+    public List<String> listarMedicos() {
+        return teleconsultas.values().stream()
+                .map(Teleconsulta::getMedico)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Teleconsulta> buscarPorId(Long id) {
+        return Optional.ofNullable(teleconsultas.get(id));
+    }
+
+    @Override
+    public List<Teleconsulta> listarTodas() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Pagina<Teleconsulta> listarPagina(String cursor, int limite) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void percorrerTodas(Consumer<Teleconsulta> consumidor) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Teleconsulta salvar(Teleconsulta teleconsulta) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean salvarSeDisponivel(Teleconsulta teleconsulta) {
+        if (!horarioDisponivel(teleconsulta.getDataHora(), teleconsulta.getMedico())) {
+            return false;
+        }
+        idaAoBanco();
+        gravar(teleconsulta);
+        return true;
+    }
+
+    @Override
+    public List<Teleconsulta> salvarEmLote(List<Teleconsulta> teleconsultas) {
+        aoGravarLote.run();
+        idaAoBanco();
+        List<Teleconsulta> gravadas = new ArrayList<>();
+        for (Teleconsulta teleconsulta : teleconsultas) {
+            if (horarioDisponivel(teleconsulta.getDataHora(), teleconsulta.getMedico())) {
+                gravar(teleconsulta);
+                gravadas.add(teleconsulta);
+            }
+        }
+        return gravadas;
+    }
+
+    @Override
+    public boolean atualizar(Teleconsulta teleconsulta) {
+        idaAoBanco();
+        return teleconsultas.replace(teleconsulta.getId(), teleconsulta) != null;
+    }
+
+    @Override
+    public boolean atualizarSeDisponivel(Teleconsulta teleconsulta) {
+        // Mesma regra de horarioDisponivel, ignorando a própria consulta
+        boolean livre = naoCanceladas(teleconsulta.getMedico(), teleconsulta.getDataHora(), teleconsulta.getDataHora().plusMinutes(30))
+                .allMatch(t -> t.getId().equals(teleconsulta.getId()));
+        if (!livre) {
+            throw new ValidationException("Médico não disponível no horário selecionado");
+        }
+        return atualizar(teleconsulta);
+    }
+
+    @Override
+    public boolean deletar(Long id) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Teleconsulta> buscarPorPaciente(Long pacienteId) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Teleconsulta> buscarPorMedico(String medico) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Teleconsulta> buscarPorStatus(String status) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Teleconsulta> consultasDeHoje() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean atualizarStatus(Long id, String novoStatus) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean adicionarObservacoes(Long id, String observacoes) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int contarPorStatus(String status) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int contarTotal() {
+        throw new UnsupportedOperationException();
+    }
+}
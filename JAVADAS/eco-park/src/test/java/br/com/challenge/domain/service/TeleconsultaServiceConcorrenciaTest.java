@@ -0,0 +1,219 @@
+package br.com.challenge.domain.service;
+
+import br.com.challenge.domain.exceptions.ValidationException;
+import br.com.challenge.domain.model.ResultadoAgendamento;
+import br.com.challenge.domain.model.Teleconsulta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Agendamentos concorrentes contra um repositório que confere e grava sem
+ * trava própria (TeleconsultaRepositoryEmMemoria): nenhum horário é gravado
+ * duas vezes e médicos diferentes não esperam uns pelos outros. A trava no
+ * banco, que cobre as demais instâncias, é a de TeleconsultaRepositoryImpl.
+ */
+class TeleconsultaServiceConcorrenciaTest {
+
+    private static final int THREADS = 8;
+    private static final LocalDateTime DIA = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(2);
+
+    private TeleconsultaRepositoryEmMemoria repositorio;
+    private TeleconsultaService service;
+    private ExecutorService threads;
+
+    @BeforeEach
+    void criarServico() {
+        repositorio = new TeleconsultaRepositoryEmMemoria();
+        service = new TeleconsultaService();
+        service.teleconsultaRepository = repositorio;
+        service.pacienteRepository = new PacienteRepositoryEmMemoria();
+        threads = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void pararThreads() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    void mesmoHorarioDisputadoEGravadoUmaSoVez() throws Exception {
+        repositorio.latenciaMs = 1;
+        AtomicInteger agendadas = new AtomicInteger();
+
+        executarJuntas(THREADS, t -> {
+            for (int hora = 8; hora < 18; hora++) {
+                try {
+                    service.agendar(nova("Dra. Ana", DIA.withHour(hora)));
+                    agendadas.incrementAndGet();
+                } catch (ValidationException e) {
+                    // Horário já tomado por outra thread
+                }
+            }
+        });
+
+        assertEquals(10, agendadas.get());
+        assertEquals(10, repositorio.todas().size());
+        assertSemSobreposicao();
+    }
+
+    @Test
+    void medicosDiferentesNaoEsperamUmPeloOutro() throws Exception {
+        repositorio.latenciaMs = 5;
+        List<String> medicos = medicosEmTravasDistintas(THREADS);
+
+        // Todas as threads no mesmo médico: os agendamentos são serializados
+        long mesmoMedico = cronometrar(() -> executarJuntas(THREADS, t -> agendarDia("Dr. Único", DIA.plusDays(t))));
+        // Uma thread por médico: nenhuma espera a outra
+        long medicosDistintos = cronometrar(() -> executarJuntas(THREADS, t -> agendarDia(medicos.get(t), DIA)));
+
+        assertEquals(2 * THREADS * 10, repositorio.todas().size());
+        assertSemSobreposicao();
+        // O ideal é THREADS vezes mais rápido; serializado seria 1
+        double aceleracao = (double) mesmoMedico / medicosDistintos;
+        assertTrue(aceleracao >= THREADS / 2.0,
+                () -> String.format("%d médicos só %.1fx mais rápidos que um (%d ms contra %d ms)",
+                        THREADS, aceleracao, medicosDistintos, mesmoMedico));
+    }
+
+    @Test
+    void loteRecusaSoOItemOcupadoDepoisDaConferencia() {
+        // Outra instância grava às 11:00 entre a conferência do serviço e a gravação do lote
+        repositorio.aoGravarLote = () -> repositorio.adicionar("Dra. Ana", DIA.withHour(11), "AGENDADA");
+
+        List<ResultadoAgendamento> resultados = service.agendarEmLote(List.of(
+                nova("Dra. Ana", DIA.withHour(9)),
+                nova("Dra. Ana", DIA.withHour(11)),
+                nova("Dr. Bruno", DIA.withHour(11)),
+                nova("Dra. Ana", DIA.minusDays(5))));
+
+        assertEquals(List.of(true, false, true, false),
+                resultados.stream().map(ResultadoAgendamento::isSucesso).collect(Collectors.toList()));
+        assertEquals("Médico não disponível no horário selecionado", resultados.get(1).getErro());
+        assertEquals("Data e hora da consulta devem ser no futuro", resultados.get(3).getErro());
+        for (int i = 0; i < resultados.size(); i++) {
+            assertEquals(i, resultados.get(i).getIndice());
+        }
+        assertEquals(3, repositorio.todas().size());
+        assertSemSobreposicao();
+    }
+
+    @Test
+    void remarcacoesConcorrentesParaOMesmoHorarioGravamUmaSo() throws Exception {
+        repositorio.latenciaMs = 1;
+        List<Teleconsulta> existentes = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            existentes.add(repositorio.adicionar("Dra. Ana", DIA.withHour(8 + i), "AGENDADA"));
+        }
+        AtomicInteger remarcadas = new AtomicInteger();
+
+        executarJuntas(THREADS, t -> {
+            Teleconsulta alterada = nova("Dra. Ana", DIA.withHour(20));
+            try {
+                service.atualizar(existentes.get(t).getId(), alterada);
+                remarcadas.incrementAndGet();
+            } catch (ValidationException e) {
+                // Horário já tomado por outra remarcação
+            }
+        });
+
+        assertEquals(1, remarcadas.get());
+        assertSemSobreposicao();
+    }
+
+    private void agendarDia(String medico, LocalDateTime dia) {
+        for (int hora = 8; hora < 18; hora++) {
+            service.agendar(nova(medico, dia.withHour(hora)));
+        }
+    }
+
+    private static Teleconsulta nova(String medico, LocalDateTime dataHora) {
+        return new Teleconsulta(null, 1L, medico, dataHora, "AGENDADA", null);
+    }
+
+    /**
+     * Médicos cujas travas no serviço caem em faixas diferentes, para que só a
+     * distinção entre médicos (e não colisões de hash) seja medida.
+     */
+    private static List<String> medicosEmTravasDistintas(int quantidade) {
+        List<String> medicos = new ArrayList<>();
+        Set<Integer> faixas = new HashSet<>();
+        for (int i = 0; medicos.size() < quantidade; i++) {
+            String medico = "Médico " + i;
+            if (faixas.add(Math.floorMod(medico.hashCode(), TeleconsultaService.QUANTIDADE_TRAVAS))) {
+                medicos.add(medico);
+            }
+        }
+        return medicos;
+    }
+
+    private void assertSemSobreposicao() {
+        Map<String, List<LocalDateTime>> porMedico = repositorio.todas().stream()
+                .filter(t -> !"CANCELADA".equals(t.getStatus()))
+                .collect(Collectors.groupingBy(Teleconsulta::getMedico,
+                        Collectors.mapping(Teleconsulta::getDataHora, Collectors.toList())));
+        porMedico.forEach((medico, horarios) -> {
+            List<LocalDateTime> ordenados = horarios.stream().sorted().collect(Collectors.toList());
+            for (int i = 1; i < ordenados.size(); i++) {
+                long minutos = Duration.between(ordenados.get(i - 1), ordenados.get(i)).toMinutes();
+                assertFalse(minutos <= 30, medico + " com consultas sobrepostas em " + ordenados.get(i));
+            }
+        });
+    }
+
+    private interface Tarefa {
+        void executar(int thread) throws Exception;
+    }
+
+    private interface Bloco {
+        void executar() throws Exception;
+    }
+
+    /**
+     * Executa a tarefa em {@code quantidade} threads liberadas ao mesmo tempo e
+     * propaga a primeira falha.
+     */
+    private void executarJuntas(int quantidade, Tarefa tarefa) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Void>> execucoes = new ArrayList<>();
+        for (int t = 0; t < quantidade; t++) {
+            int thread = t;
+            Callable<Void> execucao = () -> {
+                largada.await();
+                tarefa.executar(thread);
+                return null;
+            };
+            execucoes.add(threads.submit(execucao));
+        }
+        largada.countDown();
+        for (Future<Void> execucao : execucoes) {
+            execucao.get();
+        }
+    }
+
+    private static long cronometrar(Bloco bloco) throws Exception {
+        long inicio = System.nanoTime();
+        bloco.executar();
+        return Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+    }
+}
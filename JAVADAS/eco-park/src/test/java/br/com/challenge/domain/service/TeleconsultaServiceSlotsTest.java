@@ -0,0 +1,144 @@
+package br.com.challenge.domain.service;
+
+import br.com.challenge.domain.exceptions.ValidationException;
+import br.com.challenge.domain.model.HorarioLivre;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TeleconsultaServiceSlotsTest {
+
+    // Sempre no futuro: os slots anteriores a agora são descartados pelo serviço
+    private static final LocalDateTime DIA = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).plusDays(2);
+
+    private TeleconsultaRepositoryEmMemoria repositorio;
+    private TeleconsultaService service;
+
+    // Registra as threads que calcularam, para conferir que o cálculo não vai ao ForkJoinPool comum
+    private final Set<String> threadsUsadas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger tarefas = new AtomicInteger();
+
+    @BeforeEach
+    void criarServico() {
+        repositorio = new TeleconsultaRepositoryEmMemoria();
+        service = new TeleconsultaService();
+        service.teleconsultaRepository = repositorio;
+        service.executorSlots = executor(4);
+    }
+
+    @AfterEach
+    void pararExecutor() {
+        service.executorSlots.shutdownNow();
+    }
+
+    @Test
+    void slotsLivresPulamHorariosOcupadosComAMesmaRegraDoAgendamento() {
+        repositorio.adicionar("Dra. Ana", DIA.withHour(9), "AGENDADA");
+        repositorio.adicionar("Dra. Ana", DIA.withHour(10).withMinute(15), "AGENDADA");
+        repositorio.adicionar("Dra. Ana", DIA.withHour(11), "CANCELADA");
+        repositorio.adicionar("Dr. Bruno", DIA.withHour(8), "AGENDADA");
+
+        List<LocalDateTime> livres = service.buscarSlotsLivres("Dra. Ana", DIA.withHour(8), DIA.withHour(11).withMinute(30), 20);
+
+        // Como em horarioDisponivel, o slot conflita com consultas em [slot, slot + 30min]: 8:30 e 9:00 com
+        // a das 9:00, 10:00 com a das 10:15; a cancelada não ocupa e a do outro médico não conta
+        assertEquals(List.of(DIA.withHour(8), DIA.withHour(9).withMinute(30), DIA.withHour(10).withMinute(30),
+                DIA.withHour(11), DIA.withHour(11).withMinute(30)), livres);
+        livres.forEach(slot -> assertTrue(repositorio.horarioDisponivel(slot, "Dra. Ana")));
+    }
+
+    @Test
+    void slotsLivresComecamNaGradeERespeitamOLimite() {
+        List<LocalDateTime> livres = service.buscarSlotsLivres("Dra. Ana", DIA.withHour(8).withMinute(10), DIA.withHour(18), 3);
+
+        assertEquals(List.of(DIA.withHour(8).withMinute(30), DIA.withHour(9), DIA.withHour(9).withMinute(30)), livres);
+    }
+
+    @Test
+    void slotsLivresRecusamIntervaloELimiteInvalidos() {
+        assertThrows(ValidationException.class, () -> service.buscarSlotsLivres("Dra. Ana", DIA.withHour(9), DIA.withHour(8), 10));
+        assertThrows(ValidationException.class, () -> service.buscarSlotsLivres("Dra. Ana", DIA, DIA.plusDays(31), 10));
+        assertThrows(ValidationException.class, () -> service.buscarSlotsLivres("Dra. Ana", DIA, DIA.plusDays(1), 0));
+        assertThrows(ValidationException.class, () -> service.buscarSlotsLivres(" ", DIA, DIA.plusDays(1), 10));
+    }
+
+    @Test
+    void primeirosDisponiveisJuntamOsMedicosPorHorarioENome() {
+        repositorio.adicionar("Dra. Ana", DIA.withHour(8), "AGENDADA");
+        repositorio.adicionar("Dr. Bruno", DIA.withHour(8).withMinute(30), "AGENDADA");
+        repositorio.adicionar("Dra. Carla", DIA.withHour(8), "CANCELADA");
+
+        List<HorarioLivre> livres = service.buscarPrimeirosDisponiveis(null, DIA.withHour(8), DIA.withHour(18), 4);
+
+        // Ana ocupada às 8:00 e Bruno às 8:30 (que alcança o slot das 8:00); empate no horário vai pelo nome
+        assertEquals(List.of("Dra. Carla 08:00", "Dra. Ana 08:30", "Dra. Carla 08:30", "Dr. Bruno 09:00"),
+                descrever(livres));
+    }
+
+    @Test
+    void primeirosDisponiveisConsideramSoOsMedicosInformados() {
+        repositorio.adicionar("Dra. Ana", DIA.withHour(8), "AGENDADA");
+
+        List<HorarioLivre> livres = service.buscarPrimeirosDisponiveis(
+                List.of("Dra. Ana", " ", "Dra. Ana", "Dr. Novo"), DIA.withHour(8), DIA.withHour(18), 3);
+
+        assertEquals(List.of("Dr. Novo 08:00", "Dr. Novo 08:30", "Dra. Ana 08:30"), descrever(livres));
+    }
+
+    @Test
+    void calculoPorMedicoRodaNoExecutorProprio() {
+        List<String> medicos = IntStream.range(0, 200).mapToObj(i -> String.format("Médico %03d", i)).collect(Collectors.toList());
+        for (int i = 0; i < medicos.size(); i++) {
+            for (int hora = 8; hora <= 8 + i % 10; hora++) {
+                repositorio.adicionar(medicos.get(i), DIA.withHour(hora), "AGENDADA");
+            }
+        }
+
+        List<HorarioLivre> paralelo = service.buscarPrimeirosDisponiveis(null, DIA, DIA.plusDays(30), 500);
+
+        assertEquals(medicos.size(), tarefas.get());
+        assertFalse(threadsUsadas.isEmpty());
+        threadsUsadas.forEach(nome -> assertTrue(nome.startsWith("teste-slots-") || nome.equals(Thread.currentThread().getName()), nome));
+
+        // Com uma thread só o resultado é o mesmo
+        service.executorSlots.shutdownNow();
+        service.executorSlots = executor(1);
+        assertEquals(descrever(paralelo), descrever(service.buscarPrimeirosDisponiveis(null, DIA, DIA.plusDays(30), 500)));
+    }
+
+    private ExecutorService executor(int threads) {
+        AtomicInteger contador = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                tarefa -> new Thread(tarefa, "teste-slots-" + contador.incrementAndGet())) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable tarefa) {
+                threadsUsadas.add(thread.getName());
+                tarefas.incrementAndGet();
+            }
+        };
+    }
+
+    private static List<String> descrever(List<HorarioLivre> horarios) {
+        return horarios.stream()
+                .map(h -> h.getMedico() + " " + h.getDataHora().toLocalTime())
+                .collect(Collectors.toList());
+    }
+}
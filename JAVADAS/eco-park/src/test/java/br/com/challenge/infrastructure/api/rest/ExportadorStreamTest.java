@@ -0,0 +1,111 @@
+package br.com.challenge.infrastructure.api.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A exportação escreve na resposta enquanto o cursor ainda está sendo
+ * percorrido: na metade da fonte já há bytes no stream, e o que chegou cresce
+ * com as linhas, sem esperar a fonte acabar. O stream da resposta continua
+ * aberto ao final, para o contêiner fechar.
+ */
+class ExportadorStreamTest {
+
+    private static final int LINHAS = 20_000;
+
+    private ExportadorStream exportador;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void criarExportador() {
+        objectMapper = new ObjectMapper();
+        FormatosBinarios formatos = new FormatosBinarios();
+        formatos.objectMapper = objectMapper;
+        formatos.iniciar();
+        exportador = new ExportadorStream();
+        exportador.formatosBinarios = formatos;
+    }
+
+    @Test
+    void jsonChegaAntesDeAFonteAcabar() throws IOException {
+        Resposta resposta = new Resposta();
+        long[] escritosNaMetade = new long[1];
+
+        exportador.exportar(fonte(resposta, escritosNaMetade), linha -> linha, MediaType.APPLICATION_JSON_TYPE)
+                .write(resposta);
+
+        assertTrue(escritosNaMetade[0] > 0, "nada escrito na metade da fonte");
+        // Com a lista montada antes, tudo chegaria só depois da última linha
+        assertTrue(escritosNaMetade[0] > resposta.size() / 4,
+                () -> String.format("%d de %d bytes na metade da fonte", escritosNaMetade[0], resposta.size()));
+
+        JsonNode array = objectMapper.readTree(resposta.toByteArray());
+        assertEquals(LINHAS, array.size());
+        assertEquals(LINHAS - 1, array.get(LINHAS - 1).get("id").asInt());
+        assertFalse(resposta.fechada, "o stream da resposta é do contêiner");
+    }
+
+    @Test
+    void cborChegaAntesDeAFonteAcabar() throws IOException {
+        Resposta resposta = new Resposta();
+        long[] escritosNaMetade = new long[1];
+
+        exportador.exportar(fonte(resposta, escritosNaMetade), linha -> linha, FormatosBinarios.APPLICATION_CBOR_TYPE)
+                .write(resposta);
+
+        assertTrue(escritosNaMetade[0] > resposta.size() / 4,
+                () -> String.format("%d de %d bytes na metade da fonte", escritosNaMetade[0], resposta.size()));
+        JsonNode array = exportador.formatosBinarios.mapperPara(FormatosBinarios.APPLICATION_CBOR_TYPE)
+                .readTree(resposta.toByteArray());
+        assertEquals(LINHAS, array.size());
+        assertFalse(resposta.fechada, "o stream da resposta é do contêiner");
+    }
+
+    @Test
+    void fonteVaziaEscreveArrayVazio() throws IOException {
+        Resposta resposta = new Resposta();
+
+        exportador.exportar((Consumer<Object> consumidor) -> { }, linha -> linha, MediaType.APPLICATION_JSON_TYPE)
+                .write(resposta);
+
+        assertEquals("[]", resposta.toString());
+        assertFalse(resposta.fechada);
+    }
+
+    /**
+     * Fonte que entrega as linhas como o percorrer dos repositórios, anotando
+     * quantos bytes a resposta já recebeu na metade do caminho.
+     */
+    private static Consumer<Consumer<Map<String, Object>>> fonte(Resposta resposta, long[] escritosNaMetade) {
+        return consumidor -> {
+            for (int i = 0; i < LINHAS; i++) {
+                if (i == LINHAS / 2) {
+                    escritosNaMetade[0] = resposta.size();
+                }
+                consumidor.accept(Map.of("id", i, "nome", "Usuário " + i));
+            }
+        };
+    }
+
+    private static final class Resposta extends ByteArrayOutputStream {
+
+        boolean fechada;
+
+        @Override
+        public void close() {
+            fechada = true;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.challenge.infrastructure.api.rest.mappers;
+
+import br.com.challenge.domain.model.Apoiador;
+import br.com.challenge.domain.model.ApoiadorResumo;
+import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.PacienteResumo;
+import br.com.challenge.domain.model.Teleconsulta;
+import br.com.challenge.domain.model.Usuario;
+import br.com.challenge.domain.model.UsuarioResumo;
+import br.com.challenge.infrastructure.api.rest.dto.input.ApoiadorInputDto;
+import br.com.challenge.infrastructure.api.rest.dto.input.PacienteInputDto;
+import br.com.challenge.infrastructure.api.rest.dto.input.TeleconsultaInputDto;
+import br.com.challenge.infrastructure.api.rest.dto.input.UsuarioInputDto;
+import br.com.challenge.infrastructure.config.ApplicationConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Os mappers escritos à mão devem produzir o mesmo que o ModelMapper
+ * configurado em ApplicationConfig, que continua disponível como alternativa
+ * (app.mapeamento.model-mapper). Cada conversão é feita pelos dois caminhos,
+ * com todos os campos preenchidos com valores distintos e com a entrada vazia,
+ * e os objetos resultantes são comparados campo a campo. Os resumos, que não
+ * têm caminho pelo ModelMapper, são comparados com os campos de mesmo nome da
+ * origem.
+ */
+class MappersTest {
+
+    private ModelMapper modelMapper;
+    private long proximoValor;
+
+    @BeforeEach
+    void criarModelMapper() {
+        modelMapper = new ApplicationConfig().modelMapper();
+        proximoValor = 1;
+    }
+
+    @Test
+    void usuario() {
+        UsuarioMapper manual = new UsuarioMapper();
+        UsuarioMapper reflexao = new UsuarioMapper();
+        reflexao.modelMapper = modelMapper;
+        reflexao.usarModelMapper = true;
+
+        assertMesmoResultado(new UsuarioInputDto(), manual::paraDominio, reflexao::paraDominio);
+        assertMesmoResultado(new Usuario(), manual::paraSaida, reflexao::paraSaida);
+        assertResumo(new UsuarioResumo(1L, "Nome", "00000000001", "11999990001", 3L), manual::paraResumo);
+    }
+
+    @Test
+    void paciente() {
+        PacienteMapper manual = new PacienteMapper();
+        PacienteMapper reflexao = new PacienteMapper();
+        reflexao.modelMapper = modelMapper;
+        reflexao.usarModelMapper = true;
+
+        assertMesmoResultado(new PacienteInputDto(), manual::paraDominio, reflexao::paraDominio);
+        assertMesmoResultado(new Paciente(), manual::paraSaida, reflexao::paraSaida);
+        assertResumo(new PacienteResumo(1L, "Nome", "00000000001", "11999990001", 3L, "SUS 1", 7L), manual::paraResumo);
+        assertResumo(new PacienteResumo(1L, "Nome", "00000000001", "11999990001", 3L, null, null), manual::paraResumo);
+    }
+
+    @Test
+    void apoiador() {
+        ApoiadorMapper manual = new ApoiadorMapper();
+        ApoiadorMapper reflexao = new ApoiadorMapper();
+        reflexao.modelMapper = modelMapper;
+        reflexao.usarModelMapper = true;
+
+        assertMesmoResultado(new ApoiadorInputDto(), manual::paraDominio, reflexao::paraDominio);
+        assertMesmoResultado(new Apoiador(), manual::paraSaida, reflexao::paraSaida);
+        assertResumo(new ApoiadorResumo(1L, "Nome", "00000000001", "11999990001", 3L, "Cargo", "Área"), manual::paraResumo);
+    }
+
+    @Test
+    void teleconsulta() {
+        TeleconsultaMapper manual = new TeleconsultaMapper();
+        TeleconsultaMapper reflexao = new TeleconsultaMapper();
+        reflexao.modelMapper = modelMapper;
+        reflexao.usarModelMapper = true;
+
+        assertMesmoResultado(new TeleconsultaInputDto(), manual::paraDominio, reflexao::paraDominio);
+        assertMesmoResultado(new Teleconsulta(), manual::paraSaida, reflexao::paraSaida);
+    }
+
+    private interface Conversao<O, D> {
+        D converter(O origem);
+    }
+
+    /**
+     * Converte a origem vazia e depois preenchida pelos dois caminhos e
+     * compara os resultados.
+     */
+    private <O, D> void assertMesmoResultado(O origem, Conversao<O, D> manual, Conversao<O, D> reflexao) {
+        assertEquals(campos(reflexao.converter(origem)), campos(manual.converter(origem)),
+                "Conversão de " + origem.getClass().getSimpleName() + " vazio");
+
+        preencher(origem);
+        Map<String, Object> esperado = campos(reflexao.converter(origem));
+        assertEquals(esperado, campos(manual.converter(origem)),
+                "Conversão de " + origem.getClass().getSimpleName() + " preenchido");
+        // Garante que a comparação não passou por estarem os dois vazios
+        assertFalse(esperado.values().stream().allMatch(valor -> valor == null));
+    }
+
+    private static <O, D> void assertResumo(O resumo, Conversao<O, D> conversao) {
+        Map<String, Object> origem = campos(resumo);
+        Map<String, Object> destino = campos(conversao.converter(resumo));
+
+        assertEquals(origem.keySet(), destino.keySet());
+        // versao é Long no modelo e Integer na saída
+        origem.forEach((campo, valor) -> assertEquals(String.valueOf(valor), String.valueOf(destino.get(campo)), campo));
+    }
+
+    // Cada campo recebe um valor que nenhum outro tem
+    private void preencher(Object objeto) {
+        for (Field campo : camposDe(objeto.getClass())) {
+            Class<?> tipo = campo.getType();
+            long valor = proximoValor++;
+            Object preenchido;
+            if (tipo == String.class) {
+                preenchido = campo.getName() + " " + valor;
+            } else if (tipo == Long.class) {
+                preenchido = valor;
+            } else if (tipo == Integer.class) {
+                preenchido = (int) valor;
+            } else if (tipo == LocalDateTime.class) {
+                preenchido = LocalDateTime.of(2030, 1, 1, 8, 0).plusHours(valor);
+            } else {
+                continue;
+            }
+            definir(campo, objeto, preenchido);
+        }
+    }
+
+    private static Map<String, Object> campos(Object objeto) {
+        Map<String, Object> valores = new LinkedHashMap<>();
+        for (Field campo : camposDe(objeto.getClass())) {
+            try {
+                valores.put(campo.getName(), campo.get(objeto));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return valores;
+    }
+
+    private static List<Field> camposDe(Class<?> classe) {
+        List<Field> campos = new ArrayList<>();
+        for (Class<?> atual = classe; atual != Object.class; atual = atual.getSuperclass()) {
+            for (Field campo : atual.getDeclaredFields()) {
+                if (!Modifier.isStatic(campo.getModifiers())) {
+                    campo.setAccessible(true);
+                    campos.add(campo);
+                }
+            }
+        }
+        return campos;
+    }
+
+    private static void definir(Field campo, Object objeto, Object valor) {
+        try {
+            campo.set(objeto, valor);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
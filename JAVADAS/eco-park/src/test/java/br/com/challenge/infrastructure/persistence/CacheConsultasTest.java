@@ -0,0 +1,103 @@
+package br.com.challenge.infrastructure.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheConsultasTest {
+
+    private static final String CHAVE = "teleconsulta:porStatus:AGENDADA";
+    private static final String TAG_FILTRO = CacheConsultas.tag("teleconsulta", "status", "AGENDADA");
+
+    private CacheConsultas cache;
+    private AtomicInteger idasAoBanco;
+
+    @BeforeEach
+    void criarCache() {
+        cache = new CacheConsultas();
+        cache.tamanhoMaximo = 100;
+        cache.expiracaoSegundos = 60;
+        cache.iniciar();
+        idasAoBanco = new AtomicInteger();
+    }
+
+    @Test
+    void resultadoFicaEmCacheAteInvalidarATag() {
+        buscar(() -> {});
+        buscar(() -> {});
+        assertEquals(1, idasAoBanco.get());
+
+        cache.invalidar(TAG_FILTRO);
+        buscar(() -> {});
+        assertEquals(2, idasAoBanco.get());
+    }
+
+    @Test
+    void escritaEmOutrasTagsDuranteABuscaNaoImpedeGuardar() {
+        buscar(() -> {
+            cache.invalidar(CacheConsultas.tag("apoiador", "cargo", "Enfermeiro"),
+                    CacheConsultas.tag("usuario", "id", 7),
+                    CacheConsultas.tag("teleconsulta", "id", 99));
+            cache.invalidarSe("apoiador:", valor -> true);
+        });
+        buscar(() -> {});
+
+        assertEquals(1, idasAoBanco.get());
+    }
+
+    @Test
+    void invalidacaoDoFiltroDuranteABuscaNaoGuarda() {
+        buscar(() -> cache.invalidar(TAG_FILTRO));
+        buscar(() -> {});
+
+        assertEquals(2, idasAoBanco.get());
+    }
+
+    @Test
+    void invalidacaoDeUmItemDuranteABuscaNaoGuarda() {
+        // A tag do item só é conhecida depois que a consulta retorna
+        buscar(() -> cache.invalidar(CacheConsultas.tag("teleconsulta", "id", 10)));
+        buscar(() -> {});
+
+        assertEquals(2, idasAoBanco.get());
+    }
+
+    @Test
+    void invalidacaoPorPrefixoDuranteABuscaNaoGuarda() {
+        // Durante a busca as tags dela ainda não estão no índice
+        buscar(() -> cache.invalidarSe("teleconsulta:", valor -> true));
+        buscar(() -> {});
+
+        assertEquals(2, idasAoBanco.get());
+    }
+
+    @Test
+    void invalidacaoAnteriorABuscaNaoImpedeGuardar() {
+        cache.invalidar(TAG_FILTRO, CacheConsultas.tag("teleconsulta", "id", 10));
+        cache.invalidarSe("teleconsulta:", valor -> true);
+
+        buscar(() -> {});
+        buscar(() -> {});
+
+        assertEquals(1, idasAoBanco.get());
+    }
+
+    /**
+     * Busca com um resultado de item único (teleconsulta 10), executando
+     * {@code duranteAConsulta} enquanto a consulta "está no banco".
+     */
+    private List<Long> buscar(Runnable duranteAConsulta) {
+        Supplier<List<Long>> consulta = () -> {
+            idasAoBanco.incrementAndGet();
+            duranteAConsulta.run();
+            return List.of(10L);
+        };
+        return cache.buscar(CHAVE, consulta, id -> List.of(CacheConsultas.tag("teleconsulta", "id", id)),
+                id -> id, TAG_FILTRO);
+    }
+}
@@ -0,0 +1,218 @@
+package br.com.challenge.infrastructure.persistence;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Duas instâncias lendo o mesmo registro de alterações (alteracao_cache em H2,
+ * com as linhas que os triggers do Oracle gravariam): cada uma invalida o que
+ * a outra gravou e ignora as próprias escritas, que já invalidou na hora.
+ */
+class InvalidacaoEntreInstanciasTest {
+
+    private static final String TABELA = "CREATE TABLE alteracao_cache (" +
+            "id NUMBER GENERATED ALWAYS AS IDENTITY PRIMARY KEY, " +
+            "entidade VARCHAR2(20) NOT NULL, " +
+            "entidade_id NUMBER NOT NULL, " +
+            "operacao CHAR(1) NOT NULL, " +
+            "detalhe VARCHAR2(100), " +
+            "data_hora TIMESTAMP, " +
+            "origem VARCHAR2(64), " +
+            "alterado_em TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL)";
+
+    private JdbcDataSource dataSource;
+    private Connection conexaoAberta;
+    private Instancia a;
+    private Instancia b;
+
+    @BeforeEach
+    void criarRegistro() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:alteracoes;MODE=Oracle");
+        // Mantém o banco em memória vivo entre as conexões de cada leitura
+        conexaoAberta = dataSource.getConnection();
+        try (Statement stmt = conexaoAberta.createStatement()) {
+            stmt.execute(TABELA);
+        }
+
+        a = new Instancia();
+        b = new Instancia();
+        // A primeira leitura só marca a posição no registro
+        a.leitor.verificar();
+        b.leitor.verificar();
+    }
+
+    @AfterEach
+    void apagarRegistro() throws SQLException {
+        try (Statement stmt = conexaoAberta.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conexaoAberta.close();
+    }
+
+    @Test
+    void cadaInstanciaInvalidaSoAsEscritasDaOutra() throws SQLException {
+        a.buscarUsuario(1);
+        a.buscarUsuario(2);
+        b.buscarUsuario(1);
+        b.buscarUsuario(2);
+
+        registrar("usuario", 1, "U", "12345678901", null, a);
+        registrar("usuario", 2, "U", "10987654321", null, b);
+        a.leitor.verificar();
+        b.leitor.verificar();
+
+        // A escrita de A não volta a A; a de B invalida o usuário 2 em A, e vice-versa
+        a.buscarUsuario(1);
+        a.buscarUsuario(2);
+        b.buscarUsuario(1);
+        b.buscarUsuario(2);
+        assertEquals(3, a.idasAoBanco.get());
+        assertEquals(3, b.idasAoBanco.get());
+    }
+
+    @Test
+    void teleconsultaDeOutraInstanciaInvalidaAsBuscasEEntraNaListaDeMedicos() throws SQLException {
+        a.buscarTeleconsultasAgendadas();
+        b.buscarTeleconsultasAgendadas();
+        a.referencia.medicos(List::of);
+        b.referencia.medicos(List::of);
+
+        registrar("teleconsulta", 10, "I", "Dra. Ana", LocalDateTime.of(2030, 1, 10, 9, 0), a);
+        a.leitor.verificar();
+        b.leitor.verificar();
+
+        a.buscarTeleconsultasAgendadas();
+        b.buscarTeleconsultasAgendadas();
+        assertEquals(1, a.idasAoBanco.get());
+        assertEquals(2, b.idasAoBanco.get());
+        // A lista de A já recebe o médico na gravação local, que este teste não faz
+        assertEquals(List.of(), a.referencia.medicos(List::of));
+        assertEquals(List.of("Dra. Ana"), b.referencia.medicos(List::of));
+    }
+
+    @Test
+    void linhaConfirmadaForaDeOrdemEAplicadaNaLeituraSeguinte() throws SQLException {
+        a.buscarUsuario(1);
+        a.buscarUsuario(2);
+
+        registrar("usuario", 50, "U", null, null, b);
+        a.leitor.verificar();
+
+        // A linha 2 do registro é de uma transação ainda aberta quando a 3 já confirmou
+        registrar("usuario", 1, "U", null, null, b);
+        apagarLinha(2);
+        registrar("usuario", 2, "U", null, null, b);
+        a.leitor.verificar();
+
+        a.buscarUsuario(1);
+        a.buscarUsuario(2);
+        assertEquals(3, a.idasAoBanco.get());
+
+        // Confirmada depois, a linha 2 é lida como lacuna
+        registrarComId(2, "usuario", 1, "U", b);
+        a.leitor.verificar();
+
+        a.buscarUsuario(1);
+        a.buscarUsuario(2);
+        assertEquals(4, a.idasAoBanco.get());
+    }
+
+    private void registrar(String entidade, long entidadeId, String operacao, String detalhe,
+                           LocalDateTime dataHora, Instancia origem) throws SQLException {
+        String sql = "INSERT INTO alteracao_cache (entidade, entidade_id, operacao, detalhe, data_hora, origem) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conexaoAberta.prepareStatement(sql)) {
+            stmt.setString(1, entidade);
+            stmt.setLong(2, entidadeId);
+            stmt.setString(3, operacao);
+            stmt.setString(4, detalhe);
+            stmt.setObject(5, dataHora);
+            stmt.setString(6, origem.origem.getInstancia());
+            stmt.executeUpdate();
+        }
+    }
+
+    private void registrarComId(long id, String entidade, long entidadeId, String operacao, Instancia origem) throws SQLException {
+        String sql = "INSERT INTO alteracao_cache (id, entidade, entidade_id, operacao, origem) OVERRIDING SYSTEM VALUE " +
+                "VALUES (?, ?, ?, ?, ?)";
+
+        try (PreparedStatement stmt = conexaoAberta.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            stmt.setString(2, entidade);
+            stmt.setLong(3, entidadeId);
+            stmt.setString(4, operacao);
+            stmt.setString(5, origem.origem.getInstancia());
+            stmt.executeUpdate();
+        }
+    }
+
+    private void apagarLinha(long id) throws SQLException {
+        try (PreparedStatement stmt = conexaoAberta.prepareStatement("DELETE FROM alteracao_cache WHERE id = ?")) {
+            stmt.setLong(1, id);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Os componentes de uma instância da aplicação que o leitor do registro
+     * mantém, com a origem própria gravada nas escritas dela.
+     */
+    private final class Instancia {
+
+        final OrigemConexoes origem = new OrigemConexoes();
+        final CacheConsultas consultas = new CacheConsultas();
+        final DadosReferencia referencia = new DadosReferencia();
+        final InvalidacaoEntreInstancias leitor = new InvalidacaoEntreInstancias();
+        final AtomicInteger idasAoBanco = new AtomicInteger();
+
+        Instancia() {
+            consultas.tamanhoMaximo = 100;
+            consultas.expiracaoSegundos = 60;
+            consultas.iniciar();
+
+            CachesEntidades entidades = new CachesEntidades();
+            entidades.tamanhoMaximo = 100;
+            entidades.expiracaoSegundos = 60;
+            entidades.iniciar();
+
+            leitor.dataSource = dataSource;
+            leitor.origemConexoes = origem;
+            leitor.cacheConsultas = consultas;
+            leitor.cachesEntidades = entidades;
+            leitor.dadosReferencia = referencia;
+            leitor.agendaMedicos = new AgendaMedicos();
+            leitor.indiceCpfs = new IndiceCpfs();
+            leitor.intervaloMs = 1000;
+            leitor.retencaoMinutos = 10;
+        }
+
+        void buscarUsuario(long id) {
+            consultas.buscar("usuario:porId:" + id, () -> {
+                idasAoBanco.incrementAndGet();
+                return List.of(id);
+            }, usuario -> List.of(CacheConsultas.tag("usuario", "id", usuario)), usuario -> usuario);
+        }
+
+        void buscarTeleconsultasAgendadas() {
+            consultas.buscar("teleconsulta:porStatus:AGENDADA", () -> {
+                idasAoBanco.incrementAndGet();
+                return List.of(10L);
+            }, id -> List.of(CacheConsultas.tag("teleconsulta", "id", id)), id -> id,
+                    CacheConsultas.tag("teleconsulta", "status", "AGENDADA"));
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package br.com.challenge.infrastructure.persistence;
+
+import br.com.challenge.domain.model.Apoiador;
+import br.com.challenge.domain.model.ApoiadorResumo;
+import br.com.challenge.domain.model.Paciente;
+import br.com.challenge.domain.model.PacienteResumo;
+import br.com.challenge.domain.model.Teleconsulta;
+import br.com.challenge.domain.model.Usuario;
+import br.com.challenge.domain.model.UsuarioResumo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Os mapeadores leem as colunas pela posição na lista que declaram; uma troca
+ * de posição entre a lista e o construtor passaria despercebida no compilador.
+ * Cada projeção é lida aqui de uma linha em que toda coluna tem um valor
+ * próprio, com a consulta do repositório sobre o esquema do V1 (H2 em modo
+ * Oracle), e cada campo é conferido contra a sua coluna.
+ */
+class MapeadoresLinhasTest {
+
+    private static final LocalDateTime DATA_HORA = LocalDateTime.of(2030, 3, 4, 14, 30);
+
+    private static Connection conn;
+
+    @BeforeAll
+    static void montarBanco() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:mapeadores;MODE=Oracle;DB_CLOSE_DELAY=-1");
+        executarMigracao("V1__esquema_inicial.sql");
+
+        inserirUsuario(1, "PACIENTE");
+        inserirUsuario(2, "APOIADOR");
+        inserirUsuario(3, "PACIENTE");
+        executar("INSERT INTO apoiador (id, cargo, area_atuacao) VALUES (2, 'Cargo 2', 'Área 2')");
+        executar("INSERT INTO paciente (id, numero_sus_ou_convenio, telefone_contato, apoiador_id) " +
+                "VALUES (1, 'SUS 1', '1180000001', 2)");
+        executar("INSERT INTO paciente (id, numero_sus_ou_convenio, telefone_contato, apoiador_id) " +
+                "VALUES (3, 'SUS 3', '1180000003', NULL)");
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO teleconsulta (id, versao, paciente_id, medico, data_hora, status, observacoes) " +
+                        "VALUES (10, 13, 1, 'Dra. Ana', ?, 'REALIZADA', 'Observação 10')")) {
+            stmt.setTimestamp(1, Timestamp.valueOf(DATA_HORA));
+            stmt.executeUpdate();
+        }
+    }
+
+    @AfterAll
+    static void fechar() throws SQLException {
+        executar("DROP ALL OBJECTS");
+        conn.close();
+    }
+
+    @Test
+    void usuario() throws SQLException {
+        Usuario usuario = lerUma(UsuarioRepositoryImpl.USUARIO, "SELECT * FROM usuario WHERE id = 1");
+
+        assertUsuario(1, usuario);
+        assertEquals(41, usuario.getIdade());
+        assertEquals("01001001", usuario.getCep());
+        assertEquals(101, usuario.getNumero());
+        assertEquals("Complemento 1", usuario.getComplemento());
+        assertEquals("Senha 1", usuario.getSenha());
+    }
+
+    @Test
+    void usuarioResumo() throws SQLException {
+        UsuarioResumo resumo = lerUma(UsuarioRepositoryImpl.RESUMO,
+                "SELECT " + UsuarioRepositoryImpl.COLUNAS_RESUMO + " FROM usuario WHERE id = 1");
+
+        assertResumo(1, resumo);
+    }
+
+    @Test
+    void paciente() throws SQLException {
+        Paciente paciente = lerUma(PacienteRepositoryImpl.PACIENTE, PacienteRepositoryImpl.SELECT_PACIENTE + "WHERE u.id = 1");
+
+        assertUsuario(1, paciente);
+        assertEquals(41, paciente.getIdade());
+        assertEquals("01001001", paciente.getCep());
+        assertEquals(101, paciente.getNumero());
+        assertEquals("Complemento 1", paciente.getComplemento());
+        assertEquals("Senha 1", paciente.getSenha());
+        assertEquals("1180000001", paciente.getTelefoneContato());
+        assertEquals("SUS 1", paciente.getNumeroSusOuConvenio());
+        assertEquals(2L, paciente.getApoiadorId());
+    }
+
+    @Test
+    void pacienteSemApoiador() throws SQLException {
+        Paciente paciente = lerUma(PacienteRepositoryImpl.PACIENTE, PacienteRepositoryImpl.SELECT_PACIENTE + "WHERE u.id = 3");
+
+        assertNull(paciente.getApoiadorId());
+    }
+
+    @Test
+    void pacienteResumo() throws SQLException {
+        PacienteResumo resumo = lerUma(PacienteRepositoryImpl.RESUMO,
+                "SELECT " + PacienteRepositoryImpl.COLUNAS_RESUMO + " FROM usuario u INNER JOIN paciente p ON u.id = p.id WHERE u.id = 1");
+
+        assertResumo(1, resumo);
+        assertEquals("SUS 1", resumo.getNumeroSusOuConvenio());
+        assertEquals(2L, resumo.getApoiadorId());
+    }
+
+    @Test
+    void pacienteResumoSemApoiador() throws SQLException {
+        PacienteResumo resumo = lerUma(PacienteRepositoryImpl.RESUMO,
+                "SELECT " + PacienteRepositoryImpl.COLUNAS_RESUMO + " FROM usuario u INNER JOIN paciente p ON u.id = p.id WHERE u.id = 3");
+
+        assertNull(resumo.getApoiadorId());
+    }
+
+    @Test
+    void apoiador() throws SQLException {
+        Apoiador apoiador = lerUma(ApoiadorRepositoryImpl.APOIADOR, ApoiadorRepositoryImpl.SELECT_APOIADOR + "WHERE u.id = 2");
+
+        assertUsuario(2, apoiador);
+        assertEquals(42, apoiador.getIdade());
+        assertEquals("01001002", apoiador.getCep());
+        assertEquals(102, apoiador.getNumero());
+        assertEquals("Complemento 2", apoiador.getComplemento());
+        assertEquals("Senha 2", apoiador.getSenha());
+        assertEquals("Cargo 2", apoiador.getCargo());
+        assertEquals("Área 2", apoiador.getAreaAtuacao());
+    }
+
+    @Test
+    void apoiadorResumo() throws SQLException {
+        ApoiadorResumo resumo = lerUma(ApoiadorRepositoryImpl.RESUMO,
+                "SELECT " + ApoiadorRepositoryImpl.COLUNAS_RESUMO + " FROM usuario u INNER JOIN apoiador a ON u.id = a.id WHERE u.id = 2");
+
+        assertResumo(2, resumo);
+        assertEquals("Cargo 2", resumo.getCargo());
+        assertEquals("Área 2", resumo.getAreaAtuacao());
+    }
+
+    @Test
+    void teleconsulta() throws SQLException {
+        Teleconsulta teleconsulta = lerUma(TeleconsultaRepositoryImpl.TELECONSULTA, "SELECT * FROM teleconsulta WHERE id = 10");
+
+        assertTeleconsulta(teleconsulta);
+        assertNull(teleconsulta.getNomePaciente());
+    }
+
+    @Test
+    void teleconsultaComPaciente() throws SQLException {
+        Teleconsulta teleconsulta = lerUma(TeleconsultaRepositoryImpl.TELECONSULTA_COM_PACIENTE,
+                TeleconsultaRepositoryImpl.SELECT_COM_PACIENTE + " WHERE t.id = 10");
+
+        assertTeleconsulta(teleconsulta);
+        assertEquals("Nome 1", teleconsulta.getNomePaciente());
+    }
+
+    private static void assertUsuario(long id, Usuario usuario) {
+        assertEquals(id, usuario.getId());
+        assertEquals("Nome " + id, usuario.getNomeCompleto());
+        assertEquals(String.format("%011d", id), usuario.getCpf());
+        assertEquals("119000000" + id, usuario.getTelefone());
+        assertEquals(id + 20, usuario.getVersao());
+    }
+
+    private static void assertResumo(long id, UsuarioResumo resumo) {
+        assertEquals(id, resumo.getId());
+        assertEquals("Nome " + id, resumo.getNomeCompleto());
+        assertEquals(String.format("%011d", id), resumo.getCpf());
+        assertEquals("119000000" + id, resumo.getTelefone());
+        assertEquals(id + 20, resumo.getVersao());
+    }
+
+    private static void assertTeleconsulta(Teleconsulta teleconsulta) {
+        assertEquals(10L, teleconsulta.getId());
+        assertEquals(1L, teleconsulta.getPacienteId());
+        assertEquals("Dra. Ana", teleconsulta.getMedico());
+        assertEquals(DATA_HORA, teleconsulta.getDataHora());
+        assertEquals("REALIZADA", teleconsulta.getStatus());
+        assertEquals("Observação 10", teleconsulta.getObservacoes());
+        assertEquals(13L, teleconsulta.getVersao());
+    }
+
+    private static <T> T lerUma(MapeadorLinhas<T> mapeador, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next(), "Nenhuma linha para " + sql);
+            return mapeador.ler(rs, mapeador.resolver(rs));
+        }
+    }
+
+    // Cada coluna com um valor que só ela tem, derivado do ID
+    private static void inserirUsuario(long id, String tipo) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO usuario (id, versao, tipo_usuario, nome_completo, idade, cpf, cep, numero, complemento, telefone, senha) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            stmt.setLong(1, id);
+            stmt.setLong(2, id + 20);
+            stmt.setString(3, tipo);
+            stmt.setString(4, "Nome " + id);
+            stmt.setLong(5, 40 + id);
+            stmt.setString(6, String.format("%011d", id));
+            stmt.setString(7, "0100100" + id);
+            stmt.setLong(8, 100 + id);
+            stmt.setString(9, "Complemento " + id);
+            stmt.setString(10, "119000000" + id);
+            stmt.setString(11, "Senha " + id);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void executar(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private static void executarMigracao(String nome) throws IOException, SQLException {
+        String script;
+        try (InputStream entrada = MapeadoresLinhasTest.class.getResourceAsStream("/db/migration/" + nome)) {
+            script = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        for (String comando : script.replaceAll("(?m)^--.*$", "").split(";")) {
+            if (!comando.isBlank()) {
+                executar(comando);
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package br.com.challenge.infrastructure.persistence;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere, no H2 em modo Oracle, que as consultas quentes dos repositórios
+ * são atendidas pelos índices do V2 e não voltam a varrer a tabela inteira.
+ * O esquema é montado pelas próprias migrações V1 e V2; as consultas são as
+ * mesmas dos repositórios, com os parâmetros que eles passam.
+ */
+class PlanosExecucaoTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2026, 1, 5, 8, 0);
+
+    private static Connection conn;
+
+    @BeforeAll
+    static void montarBanco() throws Exception {
+        conn = DriverManager.getConnection("jdbc:h2:mem:planos;MODE=Oracle;DB_CLOSE_DELAY=-1");
+        executarMigracao("V1__esquema_inicial.sql");
+        executarMigracao("V2__indices_consultas.sql");
+        popular();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void fechar() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    // O H2 cria sozinho um índice para cada chave estrangeira (o Oracle não, daí o V2) e o prefere
+    // ao do V2 em teleconsulta.paciente_id e paciente.apoiador_id; nelas a conferência é de que não há varredura
+
+    @Test
+    void buscarPorPacienteNaoVarreTeleconsultas() throws SQLException {
+        assertSemVarredura("teleconsulta",
+                "SELECT t.*, u.nome_completo AS nome_paciente FROM teleconsulta t JOIN usuario u ON u.id = t.paciente_id " +
+                        "WHERE t.paciente_id = ? ORDER BY t.data_hora DESC",
+                30L);
+    }
+
+    @Test
+    void horarioDisponivelUsaIndiceDoMedico() throws SQLException {
+        assertUsaIndice("idx_teleconsulta_medico_data",
+                "SELECT COUNT(*) FROM teleconsulta WHERE medico = ? AND data_hora BETWEEN ? AND ? AND status != 'CANCELADA'",
+                "Dr. 7", horario(48), horario(49));
+    }
+
+    @Test
+    void horariosOcupadosUsamIndiceDoMedico() throws SQLException {
+        assertUsaIndice("idx_teleconsulta_medico_data",
+                "SELECT data_hora FROM teleconsulta WHERE medico = ? AND data_hora BETWEEN ? AND ? " +
+                        "AND status != 'CANCELADA' ORDER BY data_hora",
+                "Dr. 7", horario(0), horario(200));
+    }
+
+    @Test
+    void agendaDoDiaUsaIndiceDoMedico() throws SQLException {
+        assertUsaIndice("idx_teleconsulta_medico_data",
+                "SELECT id, data_hora, status FROM teleconsulta WHERE medico = ? AND data_hora >= ? AND data_hora < ?",
+                "Dr. 7", horario(0), horario(48));
+    }
+
+    @Test
+    void buscarPorStatusUsaIndiceDoStatus() throws SQLException {
+        assertUsaIndice("idx_teleconsulta_status_data",
+                "SELECT t.*, u.nome_completo AS nome_paciente FROM teleconsulta t JOIN usuario u ON u.id = t.paciente_id " +
+                        "WHERE t.status = ? ORDER BY t.data_hora DESC",
+                "CANCELADA");
+    }
+
+    @Test
+    void contarPorStatusUsaIndiceDoStatus() throws SQLException {
+        assertUsaIndice("idx_teleconsulta_status_data",
+                "SELECT COUNT(*) FROM teleconsulta WHERE status = ?",
+                "CANCELADA");
+    }
+
+    @Test
+    void consultasDeHojeUsaIntervaloNoIndiceDoStatus() throws SQLException {
+        assertUsaIndice("idx_teleconsulta_status_data",
+                "SELECT t.*, u.nome_completo AS nome_paciente FROM teleconsulta t JOIN usuario u ON u.id = t.paciente_id " +
+                        "WHERE t.status = 'AGENDADA' AND t.data_hora >= TRUNC(SYSDATE) AND t.data_hora < TRUNC(SYSDATE) + 1 " +
+                        "ORDER BY t.data_hora");
+    }
+
+    // O Oracle lê idx_teleconsulta_data_id em ordem decrescente e para no limite; o H2 não leva o FETCH FIRST
+    // em conta ao escolher por onde começar o join, então aqui a conferência é de que teleconsulta não é varrida
+    @Test
+    void paginaDeTeleconsultasNaoVarreTeleconsultas() throws SQLException {
+        assertSemVarredura("teleconsulta",
+                "SELECT t.*, u.nome_completo AS nome_paciente FROM teleconsulta t JOIN usuario u ON u.id = t.paciente_id " +
+                        "WHERE t.data_hora <= ? AND (t.data_hora < ? OR t.id < ?) " +
+                        "ORDER BY t.data_hora DESC, t.id DESC FETCH FIRST ? ROWS ONLY",
+                horario(4900), horario(4900), 4901L, 21);
+    }
+
+    @Test
+    void paginaDeUsuariosUsaIndiceDoNome() throws SQLException {
+        assertUsaIndice("idx_usuario_nome_id",
+                "SELECT id, nome_completo, cpf, telefone, versao FROM usuario " +
+                        "WHERE nome_completo >= ? AND (nome_completo > ? OR id > ?) " +
+                        "ORDER BY nome_completo, id FETCH FIRST ? ROWS ONLY",
+                "Usuário 0250", "Usuário 0250", 250L, 21);
+    }
+
+    @Test
+    void pacientesVinculadosNaoVarrePacientes() throws SQLException {
+        assertSemVarredura("paciente",
+                "SELECT COUNT(*) FROM paciente WHERE apoiador_id = ?",
+                3L);
+    }
+
+    private static void assertUsaIndice(String indice, String sql, Object... parametros) throws SQLException {
+        String plano = planoDe(sql, parametros);
+        assertTrue(plano.contains(indice.toUpperCase()), () -> "Índice " + indice + " não usado:\n" + plano);
+        assertFalse(plano.contains("tableScan"), () -> "Varredura de tabela no plano:\n" + plano);
+    }
+
+    private static void assertSemVarredura(String tabela, String sql, Object... parametros) throws SQLException {
+        String plano = planoDe(sql, parametros);
+        String varredura = "PUBLIC." + tabela.toUpperCase() + ".tableScan";
+        assertFalse(plano.contains(varredura), () -> "Varredura de " + tabela + " no plano:\n" + plano);
+    }
+
+    private static String planoDe(String sql, Object... parametros) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+
+    private static Timestamp horario(int meiasHoras) {
+        return Timestamp.valueOf(INICIO.plusMinutes(30L * meiasHoras));
+    }
+
+    private static void executarMigracao(String nome) throws IOException, SQLException {
+        String script;
+        try (InputStream entrada = PlanosExecucaoTest.class.getResourceAsStream("/db/migration/" + nome)) {
+            script = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String comando : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!comando.isBlank()) {
+                    stmt.execute(comando);
+                }
+            }
+        }
+    }
+
+    // 20 apoiadores, 480 pacientes e 5000 teleconsultas de 40 médicos, uma a cada meia hora
+    private static void popular() throws SQLException {
+        try (PreparedStatement usuario = conn.prepareStatement(
+                "INSERT INTO usuario (id, tipo_usuario, nome_completo, idade, cpf, cep, numero, telefone, senha) " +
+                        "VALUES (?, ?, ?, 30, ?, '01001000', 1, '11999999999', 'x')");
+             PreparedStatement apoiador = conn.prepareStatement(
+                     "INSERT INTO apoiador (id, cargo) VALUES (?, 'Voluntário')");
+             PreparedStatement paciente = conn.prepareStatement(
+                     "INSERT INTO paciente (id, telefone_contato, apoiador_id) VALUES (?, '11999999999', ?)")) {
+
+            for (long id = 1; id <= 500; id++) {
+                usuario.setLong(1, id);
+                usuario.setString(2, id <= 20 ? "APOIADOR" : "PACIENTE");
+                usuario.setString(3, String.format("Usuário %04d", id));
+                usuario.setString(4, String.format("%011d", id));
+                usuario.addBatch();
+            }
+            usuario.executeBatch();
+
+            for (long id = 1; id <= 20; id++) {
+                apoiador.setLong(1, id);
+                apoiador.addBatch();
+            }
+            apoiador.executeBatch();
+
+            for (long id = 21; id <= 500; id++) {
+                paciente.setLong(1, id);
+                paciente.setLong(2, id % 20 + 1);
+                paciente.addBatch();
+            }
+            paciente.executeBatch();
+        }
+
+        try (PreparedStatement teleconsulta = conn.prepareStatement(
+                "INSERT INTO teleconsulta (id, paciente_id, medico, data_hora, status) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < 5000; i++) {
+                teleconsulta.setLong(1, i + 1);
+                teleconsulta.setLong(2, 21 + i % 480);
+                teleconsulta.setString(3, "Dr. " + i % 40);
+                teleconsulta.setTimestamp(4, horario(i));
+                teleconsulta.setString(5, i % 10 == 0 ? "CANCELADA" : i % 3 == 0 ? "REALIZADA" : "AGENDADA");
+                teleconsulta.addBatch();
+            }
+            teleconsulta.executeBatch();
+        }
+    }
+}